@@ -0,0 +1,96 @@
+package br.com.fiap.clinic.outbox;
+
+import br.com.fiap.clinic.outbox.spi.OutboxSerializer;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ponto de entrada para gravar eventos no Outbox.
+ * <p>
+ * Deve ser chamado dentro da transação da regra de negócio: o evento só fica visível para o relay
+ * quando ela faz commit, e é descartado junto com ela em caso de rollback.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxStore store;
+    private final OutboxSerializer serializer;
+    private final Set<String> bulkEventTypes;
+
+    public Outbox(OutboxStore store, OutboxSerializer serializer) {
+        this(store, serializer, Set.of());
+    }
+
+    /**
+     * Serializa o payload e grava o evento no Outbox, com prioridade de massa se o tipo estiver em
+     * {@code outbox.priority.bulk-event-types} e interativa caso contrário.
+     *
+     * @return o evento gravado
+     * @throws IllegalArgumentException se o payload não puder ser serializado
+     */
+    public OutboxMessage append(String aggregateType, String aggregateId, String eventType, Object payload) {
+        return append(aggregateType, aggregateId, eventType, priorityOf(eventType), payload);
+    }
+
+    /**
+     * Grava vários eventos de uma vez (um lote JDBC no store padrão), com a prioridade definida como em
+     * {@link #append(String, String, String, Object)}.
+     *
+     * @return os eventos gravados, na ordem recebida
+     * @throws IllegalArgumentException se algum payload não puder ser serializado (nada é gravado)
+     */
+    public List<OutboxMessage> appendAll(List<Event> events) {
+        List<OutboxMessage> messages = events.stream()
+                .map(event -> toMessage(event.aggregateType(), event.aggregateId(), event.eventType(),
+                        priorityOf(event.eventType()), event.payload()))
+                .toList();
+        store.appendAll(messages);
+        log.debug("{} eventos gravados no Outbox.", messages.size());
+        return messages;
+    }
+
+    /**
+     * Serializa o payload e grava o evento no Outbox com a prioridade informada.
+     *
+     * @return o evento gravado
+     * @throws IllegalArgumentException se o payload não puder ser serializado
+     */
+    public OutboxMessage append(String aggregateType, String aggregateId, String eventType,
+                                OutboxPriority priority, Object payload) {
+        OutboxMessage message = toMessage(aggregateType, aggregateId, eventType, priority, payload);
+        store.append(message);
+        log.debug("Evento {} gravado no Outbox para {} {}.", eventType, aggregateType, aggregateId);
+        return message;
+    }
+
+    private OutboxPriority priorityOf(String eventType) {
+        return bulkEventTypes.contains(eventType) ? OutboxPriority.BULK : OutboxPriority.INTERACTIVE;
+    }
+
+    private OutboxMessage toMessage(String aggregateType, String aggregateId, String eventType,
+                                    OutboxPriority priority, Object payload) {
+        return new OutboxMessage(
+                UUID.randomUUID(),
+                aggregateType,
+                aggregateId,
+                eventType,
+                priority,
+                serializer.contentType(),
+                serializer.serialize(payload),
+                OffsetDateTime.now()
+        );
+    }
+
+    /**
+     * Evento a gravar com {@link #appendAll}.
+     */
+    public record Event(String aggregateType, String aggregateId, String eventType, Object payload) {
+    }
+}
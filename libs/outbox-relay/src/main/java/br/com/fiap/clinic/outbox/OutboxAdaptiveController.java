@@ -0,0 +1,87 @@
+package br.com.fiap.clinic.outbox;
+
+import java.time.Duration;
+
+/**
+ * Controle adaptativo do relay ({@code outbox.relay.adaptive.*}): decide quantos eventos reivindicar
+ * por lote e quanto esperar até o próximo poll.
+ * <p>
+ * O lote dobra enquanto os lotes voltam cheios (há mais fila do que o lote) e o broker
+ * confirma dentro da latência alvo; cai pela metade quando há falhas ou os acks passam do alvo. O poll
+ * volta ao intervalo mínimo sempre que um ciclo encontra eventos e dobra a cada ciclo vazio, até o máximo.
+ * Desligado, as decisões ficam fixas em {@code outbox.batch.size} e {@code outbox.poll.delay}.
+ */
+public class OutboxAdaptiveController {
+
+    private final boolean enabled;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetAckLatencyNanos;
+    private final long minPollDelayMs;
+    private final long maxPollDelayMs;
+
+    private volatile int batchSize;
+    private volatile long pollDelayMs;
+
+    public OutboxAdaptiveController(OutboxProperties properties) {
+        OutboxProperties.Adaptive adaptive = properties.getRelay().getAdaptive();
+        int fixedBatchSize = properties.getBatch().getSize();
+        long fixedPollDelayMs = properties.getPoll().getDelay().toMillis();
+        this.enabled = adaptive.isEnabled();
+        this.minBatchSize = enabled ? adaptive.getMinBatchSize() : fixedBatchSize;
+        this.maxBatchSize = enabled ? Math.max(adaptive.getMaxBatchSize(), minBatchSize) : fixedBatchSize;
+        this.targetAckLatencyNanos = adaptive.getTargetAckLatency().toNanos();
+        this.minPollDelayMs = enabled ? adaptive.getMinPollDelay().toMillis() : fixedPollDelayMs;
+        this.maxPollDelayMs = enabled ? Math.max(adaptive.getMaxPollDelay().toMillis(), minPollDelayMs) : fixedPollDelayMs;
+        this.batchSize = clamp(fixedBatchSize, minBatchSize, maxBatchSize);
+        this.pollDelayMs = clamp(fixedPollDelayMs, minPollDelayMs, maxPollDelayMs);
+    }
+
+    /**
+     * Quantidade de eventos a reivindicar no próximo lote.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Espera até o próximo poll de fallback.
+     */
+    public Duration pollDelay() {
+        return Duration.ofMillis(pollDelayMs);
+    }
+
+    /**
+     * Ajusta o lote a partir do resultado de um lote de {@code limit} eventos.
+     *
+     * @param ackLatencyNanos tempo entre o primeiro envio e o último ack (ou a desistência) do lote
+     */
+    public synchronized void onBatch(int limit, int claimed, int acknowledged, long ackLatencyNanos) {
+        if (!enabled || claimed == 0) {
+            return;
+        }
+        if (acknowledged < claimed || ackLatencyNanos > targetAckLatencyNanos) {
+            batchSize = Math.max(minBatchSize, batchSize / 2);
+        } else if (claimed >= limit) {
+            batchSize = (int) Math.min(maxBatchSize, (long) batchSize * 2);
+        }
+    }
+
+    /**
+     * Ajusta o intervalo do poll ao fim de um ciclo de relay.
+     */
+    public synchronized void onCycle(int claimed) {
+        if (!enabled) {
+            return;
+        }
+        pollDelayMs = claimed > 0 ? minPollDelayMs : Math.min(maxPollDelayMs, pollDelayMs * 2);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.fiap.clinic.outbox;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Retrato da fila de pendentes do Outbox.
+ *
+ * @param pending          quantidade de eventos ainda não publicados (sem contar os estacionados)
+ * @param oldestCreatedAt  criação do pendente mais antigo, ou {@code null} se a fila estiver vazia
+ * @param parked           eventos estacionados após esgotar as tentativas, aguardando intervenção
+ */
+public record OutboxBacklog(long pending, OffsetDateTime oldestCreatedAt, long parked) {
+}
@@ -0,0 +1,71 @@
+package br.com.fiap.clinic.outbox;
+
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Fonte dos gauges de lag do Outbox ({@code outbox.pending}, {@code outbox.pending.oldest.age} e
+ * {@code outbox.parked}).
+ * <p>
+ * Os gauges são lidos a cada scrape; a consulta ao store (coberta pelo índice parcial de pendentes) é feita
+ * no máximo uma vez por {@code outbox.metrics.backlog-refresh}, independente de quantos gauges ou
+ * registries a leem. Se a consulta falhar, os gauges ficam {@code NaN} até a próxima leitura bem-sucedida.
+ */
+@Slf4j
+public class OutboxBacklogMonitor {
+
+    private final OutboxStore store;
+    private final long refreshNanos;
+
+    private OutboxBacklog snapshot;
+    private long snapshotAt;
+    private boolean loaded;
+
+    public OutboxBacklogMonitor(OutboxStore store, Duration refresh) {
+        this.store = store;
+        this.refreshNanos = refresh.toNanos();
+    }
+
+    public double pendingCount() {
+        OutboxBacklog backlog = current();
+        return backlog != null ? backlog.pending() : Double.NaN;
+    }
+
+    public double parkedCount() {
+        OutboxBacklog backlog = current();
+        return backlog != null ? backlog.parked() : Double.NaN;
+    }
+
+    /**
+     * Idade, em segundos, do evento pendente mais antigo; zero com a fila vazia.
+     */
+    public double oldestPendingAgeSeconds() {
+        OutboxBacklog backlog = current();
+        if (backlog == null) {
+            return Double.NaN;
+        }
+        if (backlog.oldestCreatedAt() == null) {
+            return 0;
+        }
+        Duration age = Duration.between(backlog.oldestCreatedAt().toInstant(), Instant.now());
+        return Math.max(0, age.toMillis() / 1000.0);
+    }
+
+    private synchronized OutboxBacklog current() {
+        long now = System.nanoTime();
+        if (!loaded || now - snapshotAt >= refreshNanos) {
+            loaded = true;
+            snapshotAt = now;
+            try {
+                snapshot = store.backlog();
+            } catch (Exception e) {
+                snapshot = null;
+                log.warn("Falha ao consultar a fila de pendentes do Outbox para as métricas: {}", e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.fiap.clinic.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.stream.IntStream;
+
+/**
+ * Distribuição dos agregados entre as raias do relay.
+ * <p>
+ * Cada agregado cai num de {@value #SLOTS} slots fixos, gravados na coluna gerada {@code lane_slot}
+ * ({@code hashtext(aggregate_id)} módulo {@value #SLOTS}) e cobertos pelo índice parcial de pendentes. A raia
+ * {@code lane} de {@code lanes} reúne os slots com {@code slot % lanes == lane}, e o advisory lock é por slot: a
+ * ordem por agregado é preservada mesmo que réplicas diferentes usem quantidades de raias diferentes (ex.: durante
+ * um deploy).
+ */
+@Slf4j
+public final class OutboxLanes {
+
+    /**
+     * Quantidade de slots da coluna {@code lane_slot}; é também o máximo de raias.
+     */
+    public static final int SLOTS = 64;
+
+    private OutboxLanes() {
+    }
+
+    /**
+     * Slots que pertencem à raia {@code lane} de {@code lanes}.
+     */
+    public static Integer[] slots(int lane, int lanes) {
+        return IntStream.range(0, SLOTS).filter(slot -> slot % lanes == lane).boxed().toArray(Integer[]::new);
+    }
+
+    /**
+     * Valida {@code outbox.relay.lanes}. Uma raia só é drenada por um worker por vez (em qualquer réplica), então
+     * workers além das raias ficam ociosos; isso só gera aviso, pois réplicas a mais continuam corretas.
+     *
+     * @throws IllegalStateException se {@code lanes} estiver fora de 1..{@value #SLOTS}
+     */
+    public static int validate(OutboxProperties.Relay relay) {
+        int lanes = relay.getLanes();
+        if (lanes < 1 || lanes > SLOTS) {
+            throw new IllegalStateException("outbox.relay.lanes deve estar entre 1 e " + SLOTS + ": " + lanes);
+        }
+        if (lanes < relay.getWorkers()) {
+            log.warn("outbox.relay.lanes ({}) é menor que outbox.relay.workers ({}); os workers excedentes ficarão ociosos.",
+                    lanes, relay.getWorkers());
+        }
+        return lanes;
+    }
+}
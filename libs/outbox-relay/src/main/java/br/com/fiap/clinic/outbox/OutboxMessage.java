@@ -0,0 +1,28 @@
+package br.com.fiap.clinic.outbox;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Evento gravado no Outbox, já serializado.
+ *
+ * @param id            identificador do evento (também usado para marcar como processado)
+ * @param aggregateType tipo do agregado (ex.: "Appointment")
+ * @param aggregateId   ID do agregado, usado como chave Kafka para preservar a ordem por agregado
+ * @param eventType     tipo do evento (ex.: "AppointmentCreated")
+ * @param priority      prioridade de publicação (interativo ou massa)
+ * @param contentType   formato do payload (ex.: "application/json"), publicado no header {@code content-type}
+ * @param payload       payload serializado, repassado ao broker sem conversão
+ * @param createdAt     momento da gravação
+ */
+public record OutboxMessage(
+        UUID id,
+        String aggregateType,
+        String aggregateId,
+        String eventType,
+        OutboxPriority priority,
+        String contentType,
+        byte[] payload,
+        OffsetDateTime createdAt
+) {
+}
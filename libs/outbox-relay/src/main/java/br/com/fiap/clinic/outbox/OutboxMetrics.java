@@ -0,0 +1,149 @@
+package br.com.fiap.clinic.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas do relay do Outbox, registradas no {@link MeterRegistry} da aplicação.
+ * <p>
+ * Contadores e latência de envio são marcados por {@code event_type}; os timers publicam histograma,
+ * para que o Prometheus calcule percentis agregados entre réplicas.
+ */
+public class OutboxMetrics {
+
+    private static final String EVENT_TYPE_TAG = "event_type";
+
+    private final MeterRegistry registry;
+    private final Timer batchDuration;
+
+    // Medidores por tipo de evento, registrados uma vez; o registro no MeterRegistry não entra no caminho de cada envio
+    private final Map<SendKey, Timer> sendLatency = new ConcurrentHashMap<>();
+    private final Map<String, Counter> published = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failed = new ConcurrentHashMap<>();
+    private final Map<String, Counter> parked = new ConcurrentHashMap<>();
+
+    public OutboxMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.batchDuration = Timer.builder("outbox.relay.batch.duration")
+                .description("Duração de um lote do relay (reivindicação, envio e marcação)")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Registra o resultado de um lote: os eventos confirmados e os que ficaram para o próximo ciclo.
+     */
+    public void recordBatch(List<OutboxMessage> claimed, Collection<UUID> acknowledged, long durationNanos) {
+        Set<UUID> acked = new HashSet<>(acknowledged);
+        for (OutboxMessage message : claimed) {
+            if (acked.contains(message.id())) {
+                published(message.eventType()).increment();
+            } else {
+                failed(message.eventType()).increment();
+            }
+        }
+        batchDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra a latência de um envio, do {@code send} até a resposta do broker (ack ou erro).
+     *
+     * @param error {@code null} quando o broker confirmou o evento
+     */
+    public void recordSend(OutboxMessage message, long startNanos, Throwable error) {
+        sendLatency.computeIfAbsent(new SendKey(message.eventType(), error == null), this::sendLatencyTimer)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gauges da fila de pendentes (modo polling), lidos do {@link OutboxBacklogMonitor}.
+     */
+    public void registerBacklog(OutboxBacklogMonitor monitor) {
+        Gauge.builder("outbox.pending", monitor, OutboxBacklogMonitor::pendingCount)
+                .description("Eventos do Outbox ainda não publicados")
+                .register(registry);
+        Gauge.builder("outbox.pending.oldest.age", monitor, OutboxBacklogMonitor::oldestPendingAgeSeconds)
+                .description("Idade do evento pendente mais antigo (lag do relay)")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("outbox.parked", monitor, OutboxBacklogMonitor::parkedCount)
+                .description("Eventos do Outbox estacionados após esgotar as tentativas")
+                .register(registry);
+    }
+
+    /**
+     * Registra um evento estacionado após esgotar as tentativas de envio.
+     */
+    public void recordParked(OutboxMessage message) {
+        parked(message.eventType()).increment();
+    }
+
+    /**
+     * Gauges das decisões atuais do controle adaptativo do relay.
+     */
+    public void registerAdaptive(OutboxAdaptiveController controller) {
+        Gauge.builder("outbox.relay.batch.limit", controller, OutboxAdaptiveController::batchSize)
+                .description("Eventos reivindicados por lote na decisão atual do relay")
+                .register(registry);
+        Gauge.builder("outbox.relay.poll.delay", controller, c -> c.pollDelay().toMillis() / 1000.0)
+                .description("Intervalo atual do poll de fallback do relay")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /**
+     * Gauge do atraso do slot de replicação (modo CDC): WAL ainda não confirmado pelo relay.
+     */
+    public void registerSlotLag(String slotName, Supplier<Number> lagBytes) {
+        Gauge.builder("outbox.cdc.slot.lag", lagBytes)
+                .description("WAL retido pelo slot do Outbox e ainda não confirmado pelo broker")
+                .tag("slot", slotName)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private Timer sendLatencyTimer(SendKey key) {
+        return Timer.builder("outbox.relay.send.latency")
+                .description("Latência entre o envio do evento e a resposta do broker")
+                .tag(EVENT_TYPE_TAG, key.eventType())
+                .tag("outcome", key.success() ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter published(String eventType) {
+        return published.computeIfAbsent(eventType, type -> Counter.builder("outbox.relay.published")
+                .description("Eventos do Outbox confirmados pelo broker")
+                .tag(EVENT_TYPE_TAG, type)
+                .register(registry));
+    }
+
+    private Counter failed(String eventType) {
+        return failed.computeIfAbsent(eventType, type -> Counter.builder("outbox.relay.failed")
+                .description("Eventos do Outbox sem confirmação do broker (serão reenviados)")
+                .tag(EVENT_TYPE_TAG, type)
+                .register(registry));
+    }
+
+    private Counter parked(String eventType) {
+        return parked.computeIfAbsent(eventType, type -> Counter.builder("outbox.relay.parked")
+                .description("Eventos do Outbox estacionados após esgotar as tentativas de envio")
+                .tag(EVENT_TYPE_TAG, type)
+                .register(registry));
+    }
+
+    private record SendKey(String eventType, boolean success) {
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.clinic.outbox;
+
+/**
+ * Prioridade de publicação de um evento do Outbox (coluna {@code priority}).
+ * <p>
+ * O relay reivindica os eventos interativos primeiro e reserva uma fatia de cada lote para os de massa
+ * ({@code outbox.priority.bulk-share}), para que estes não fiquem sem vazão.
+ */
+public enum OutboxPriority {
+
+    /**
+     * Eventos disparados por uma ação do usuário (ex.: confirmação de consulta).
+     */
+    INTERACTIVE,
+
+    /**
+     * Eventos gerados em massa por jobs (ex.: lembretes diários).
+     */
+    BULK;
+
+    public short level() {
+        return (short) ordinal();
+    }
+
+    public static OutboxPriority fromLevel(int level) {
+        return level > INTERACTIVE.level() ? BULK : INTERACTIVE;
+    }
+}
@@ -0,0 +1,323 @@
+package br.com.fiap.clinic.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Configuração do engine de Outbox (prefixo {@code outbox}).
+ * <p>
+ * Exemplo mínimo para um serviço adotar o Outbox:
+ * <pre>
+ * outbox.topic=appointment-events
+ * outbox.batch.size=50
+ * outbox.relay.workers=4
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxProperties {
+
+    /**
+     * Liga/desliga todo o engine (escrita e relay).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tabela do Outbox.
+     */
+    private String table = "outbox_events";
+
+    /**
+     * Tópico Kafka de destino dos eventos.
+     */
+    private String topic = "outbox-events";
+
+    /**
+     * Implementação do store: {@code jdbc} (padrão) ou {@code jpa}.
+     */
+    private StoreType store = StoreType.JDBC;
+
+    /**
+     * Como os eventos chegam ao broker: {@code polling} (padrão) consulta a tabela com SKIP LOCKED;
+     * {@code cdc} lê os INSERTs do WAL por replicação lógica (requer {@code wal_level=logical}).
+     */
+    private Mode mode = Mode.POLLING;
+
+    /**
+     * Formato dos payloads: {@code json} (padrão) ou {@code smile} (binário, mais compacto).
+     */
+    private Encoding encoding = Encoding.JSON;
+
+    private final Batch batch = new Batch();
+    private final Poll poll = new Poll();
+    private final Relay relay = new Relay();
+    private final Partition partition = new Partition();
+    private final Retention retention = new Retention();
+    private final Cdc cdc = new Cdc();
+    private final Metrics metrics = new Metrics();
+    private final Kafka kafka = new Kafka();
+    private final Priority priority = new Priority();
+
+    public enum StoreType {
+        JDBC, JPA
+    }
+
+    public enum Mode {
+        POLLING, CDC
+    }
+
+    public enum Encoding {
+        JSON, SMILE
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        /**
+         * Quantidade máxima de eventos reivindicados por lote.
+         */
+        private int size = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Poll {
+        /**
+         * Intervalo do poll de fallback (o caminho principal é o LISTEN/NOTIFY).
+         */
+        private Duration delay = Duration.ofSeconds(30);
+
+        /**
+         * Atraso do primeiro poll após a subida da aplicação.
+         */
+        private Duration initialDelay = Duration.ofSeconds(15);
+    }
+
+    @Getter
+    @Setter
+    public static class Relay {
+        /**
+         * Liga/desliga o relay (um serviço pode apenas escrever no Outbox).
+         */
+        private boolean enabled = true;
+
+        /**
+         * Threads por réplica que drenam as raias em paralelo.
+         */
+        private int workers = 4;
+
+        /**
+         * Raias de publicação: cada agregado (hash do aggregateId) pertence a uma raia, publicada e confirmada
+         * de forma independente. A ordem só é garantida dentro do agregado, então uma raia lenta ou com falha
+         * não segura os eventos das demais. Entre 1 e {@value br.com.fiap.clinic.outbox.OutboxLanes#SLOTS},
+         * senão a subida falha.
+         */
+        private int lanes = 8;
+
+        /**
+         * Tempo máximo aguardando os acks do broker para um lote.
+         */
+        private Duration ackTimeout = Duration.ofSeconds(10);
+
+        private final Notify notify = new Notify();
+        private final Adaptive adaptive = new Adaptive();
+        private final Retry retry = new Retry();
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        /**
+         * Envios rejeitados pelo broker antes de o evento ser estacionado ({@code parked_at}) e sair da fila.
+         */
+        private int maxAttempts = 10;
+
+        /**
+         * Espera antes da primeira nova tentativa; dobra a cada falha.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(5);
+
+        /**
+         * Teto da espera entre tentativas.
+         */
+        private Duration maxBackoff = Duration.ofMinutes(15);
+    }
+
+    @Getter
+    @Setter
+    public static class Adaptive {
+        /**
+         * Ajusta o tamanho do lote e o intervalo do poll conforme a fila e a latência dos acks; desligado,
+         * o relay usa os valores fixos de {@code outbox.batch.size} e {@code outbox.poll.delay}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Menor lote reivindicado (o lote encolhe até aqui quando o broker fica lento ou falha).
+         */
+        private int minBatchSize = 10;
+
+        /**
+         * Maior lote reivindicado (o lote cresce até aqui enquanto a fila estiver cheia e o broker rápido).
+         */
+        private int maxBatchSize = 1000;
+
+        /**
+         * Latência de ack por lote acima da qual o lote deixa de crescer e passa a encolher.
+         */
+        private Duration targetAckLatency = Duration.ofMillis(500);
+
+        /**
+         * Intervalo do poll enquanto houver eventos chegando.
+         */
+        private Duration minPollDelay = Duration.ofSeconds(1);
+
+        /**
+         * Intervalo máximo do poll com o sistema ocioso (dobra a cada ciclo vazio até aqui).
+         */
+        private Duration maxPollDelay = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    public static class Notify {
+        /**
+         * Acorda o relay via LISTEN/NOTIFY do Postgres.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Canal do NOTIFY disparado pelo trigger da tabela.
+         */
+        private String channel = "outbox_events";
+
+        /**
+         * Espera antes de reconectar quando a conexão LISTEN cai.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Partition {
+        /**
+         * Habilita a manutenção de partições (requer as funções outbox_create_partitions /
+         * outbox_drop_processed_partitions no banco).
+         */
+        private boolean enabled = false;
+
+        /**
+         * Quantos meses à frente manter partições criadas.
+         */
+        private int monthsAhead = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class Retention {
+        /**
+         * Dias que uma partição encerrada e totalmente processada é mantida antes de ser descartada.
+         */
+        private int days = 7;
+    }
+
+    @Getter
+    @Setter
+    public static class Cdc {
+        /**
+         * Slot de replicação lógica; guarda o LSN confirmado entre reinícios.
+         */
+        private String slotName = "outbox_slot";
+
+        /**
+         * Publicação com a tabela do Outbox.
+         */
+        private String publicationName = "outbox_publication";
+
+        /**
+         * Cria a publicação na subida, se ainda não existir.
+         */
+        private boolean createPublication = true;
+
+        /**
+         * Intervalo de envio do LSN confirmado ao servidor.
+         */
+        private Duration statusInterval = Duration.ofSeconds(10);
+
+        /**
+         * Espera antes de reabrir o stream após uma falha (do banco ou do broker).
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+        /**
+         * Registra os gauges de lag ({@code outbox.pending}, {@code outbox.pending.oldest.age}) no modo polling.
+         */
+        private boolean backlogEnabled = true;
+
+        /**
+         * Intervalo mínimo entre consultas à fila de pendentes para alimentar os gauges.
+         */
+        private Duration backlogRefresh = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Kafka {
+        /**
+         * Publica cada lote do relay numa transação Kafka (consumidores devem usar {@code read_committed}).
+         */
+        private boolean transactional = false;
+
+        /**
+         * Prefixo do {@code transactional.id}; cada réplica acrescenta o seu {@code instanceId}, para que uma
+         * não cerque (fence) os produtores da outra.
+         */
+        private String transactionIdPrefix = "outbox-";
+
+        /**
+         * Identificador estável da réplica no {@code transactional.id}; vazio usa o hostname (no Kubernetes, o
+         * nome do pod). Deve ser único entre as réplicas e se manter entre reinícios da mesma réplica.
+         */
+        private String instanceId;
+
+        /**
+         * Compressão dos lotes do produtor.
+         */
+        private String compressionType = "zstd";
+
+        /**
+         * Espera do produtor para juntar mais registros no mesmo lote de rede.
+         */
+        private Duration linger = Duration.ofMillis(20);
+
+        /**
+         * Tamanho máximo (bytes) de um lote do produtor por partição.
+         */
+        private int batchSize = 64 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Priority {
+        /**
+         * Tipos de evento gravados com prioridade de massa (ex.: lembretes gerados por job).
+         */
+        private Set<String> bulkEventTypes = new HashSet<>();
+
+        /**
+         * Fração mínima de cada lote reservada aos eventos de massa, para que não fiquem sem vazão
+         * enquanto houver eventos interativos na fila.
+         */
+        private double bulkShare = 0.2;
+    }
+}
@@ -0,0 +1,407 @@
+package br.com.fiap.clinic.outbox;
+
+import br.com.fiap.clinic.outbox.spi.OutboxPublisher;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import br.com.fiap.clinic.outbox.spi.TransactionalOutboxPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.InvalidRecordException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Relay do padrão Outbox: publica no broker os eventos gravados pelo {@link Outbox}.
+ * <p>
+ * Os eventos são distribuídos em {@code outbox.relay.lanes} raias pelo hash do aggregateId ({@link OutboxLanes}).
+ * Cada raia é drenada em suas próprias transações, travada por advisory locks (uma réplica por vez), e publicada e
+ * confirmada de forma independente: a ordem é preservada por agregado, e um agregado lento ou com falha
+ * não atrasa os demais. As raias são executadas por {@code outbox.relay.workers} threads por réplica.
+ * <p>
+ * Dentro de cada lote, os eventos interativos têm preferência e os de massa ({@link OutboxPriority#BULK})
+ * têm uma fatia garantida de {@code outbox.priority.bulk-share}.
+ * <p>
+ * Um evento rejeitado pelo broker não trava a fila: ele volta a ser tentado com backoff exponencial
+ * ({@code outbox.relay.retry}) e, esgotadas as tentativas, é estacionado ({@code parked_at}) para análise,
+ * enquanto o restante da fila segue normalmente.
+ * <p>
+ * O relay é acordado pelo LISTEN/NOTIFY (quando habilitado) e por um poll de fallback próprio,
+ * sem depender do {@code @EnableScheduling} da aplicação.
+ */
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxStore store;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxMetrics metrics;
+    private final OutboxAdaptiveController controller;
+    private final OutboxRetryPolicy retryPolicy;
+
+    private final int workers;
+    private final int lanes;
+    private final double bulkShare;
+    private final long ackTimeoutNanos;
+    private final long pollInitialDelayMs;
+
+    private ExecutorService workerPool;
+    private ScheduledExecutorService poller;
+    private volatile boolean running;
+
+    private final AtomicBoolean relaying = new AtomicBoolean(false);
+    private final AtomicBoolean rerunRequested = new AtomicBoolean(false);
+
+    public OutboxRelay(OutboxStore store,
+                       OutboxPublisher publisher,
+                       TransactionTemplate transactionTemplate,
+                       OutboxMetrics metrics,
+                       OutboxProperties properties) {
+        this.store = store;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.controller = new OutboxAdaptiveController(properties);
+        this.retryPolicy = OutboxRetryPolicy.of(properties.getRelay().getRetry());
+        this.workers = properties.getRelay().getWorkers();
+        this.lanes = OutboxLanes.validate(properties.getRelay());
+        this.bulkShare = properties.getPriority().getBulkShare();
+        this.ackTimeoutNanos = properties.getRelay().getAckTimeout().toNanos();
+        this.pollInitialDelayMs = properties.getPoll().getInitialDelay().toMillis();
+        metrics.registerAdaptive(controller);
+    }
+
+    @Override
+    public void start() {
+        workerPool = Executors.newFixedThreadPool(workers, daemonThreads("outbox-relay-"));
+        poller = Executors.newSingleThreadScheduledExecutor(daemonThreads("outbox-poll-"));
+        running = true;
+        // Poll de segurança: com o LISTEN/NOTIFY ativo ele só cobre notificações perdidas
+        // (ex.: reconexão do listener), por isso pode rodar com intervalo longo.
+        poller.schedule(this::poll, pollInitialDelayMs, TimeUnit.MILLISECONDS);
+        log.info("Outbox relay iniciado com {} raias em {} workers (lote de {} eventos).",
+                lanes, workers, controller.batchSize());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        poller.shutdownNow();
+        workerPool.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Inicia antes do listener de NOTIFY (fase padrão) e para depois dele.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    /**
+     * Executa um ciclo e agenda o próximo com o intervalo decidido pelo controle adaptativo.
+     */
+    private void poll() {
+        try {
+            relayPending();
+        } catch (Exception e) {
+            log.error("Falha no poll do relay do Outbox: {}", e.getMessage());
+        } finally {
+            if (running) {
+                poller.schedule(this::poll, controller.pollDelay().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Drena todas as raias do Outbox. Chamadas concorrentes (poll e NOTIFY) são aglutinadas:
+     * se um ciclo já estiver em andamento, ele apenas é repetido ao terminar, em vez de disparar
+     * um segundo conjunto de workers.
+     */
+    public void relayPending() {
+        do {
+            if (!relaying.compareAndSet(false, true)) {
+                rerunRequested.set(true);
+                return;
+            }
+            try {
+                do {
+                    rerunRequested.set(false);
+                    controller.onCycle(runWorkers());
+                } while (rerunRequested.get() && running);
+            } finally {
+                relaying.set(false);
+            }
+        } while (rerunRequested.get() && running);
+    }
+
+    /**
+     * @return total de eventos confirmados ou adiados no ciclo, somando todas as raias
+     */
+    private int runWorkers() {
+        log.debug("Iniciando poll para eventos do Outbox em {} raias...", lanes);
+
+        List<CompletableFuture<Integer>> drains = IntStream.range(0, lanes)
+                .mapToObj(lane -> CompletableFuture.supplyAsync(() -> drain(lane), workerPool)
+                        .exceptionally(e -> {
+                            // As demais raias seguem normalmente; o lote que falhou (ex.: erro de banco)
+                            // sofreu rollback e será reivindicado novamente no próximo poll.
+                            log.error("Falha na raia {} do relay do Outbox: {}", lane, e.getMessage());
+                            return 0;
+                        }))
+                .toList();
+
+        return drains.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    /**
+     * Reivindica e publica lotes sucessivos da raia até encontrar um lote incompleto (raia drenada).
+     * Cada lote roda em sua própria transação, liberando os locks assim que é confirmado.
+     */
+    private int drain(int lane) {
+        int total = 0;
+        int limit;
+        int relayed;
+        do {
+            limit = controller.batchSize();
+            int batchLimit = limit;
+            Integer count = transactionTemplate.execute(status -> relayBatch(lane, batchLimit));
+            relayed = count != null ? count : 0;
+            total += relayed;
+            // Só segue drenando se o lote veio cheio e foi todo confirmado ou adiado (os adiados não são
+            // reivindicados de novo até o backoff); com o broker instável, aguarda o próximo ciclo em vez
+            // de reivindicar as mesmas linhas em laço.
+        } while (relayed >= limit && running);
+        return total;
+    }
+
+    /**
+     * Publica um lote em pipeline: dispara todos os envios sem bloquear, aguarda os acks do broker
+     * em grupo e marca como processados apenas os eventos confirmados, com um único UPDATE em lote.
+     * Eventos sem ack permanecem pendentes e são reivindicados de novo no próximo ciclo.
+     * <p>
+     * Quando um evento falha, os eventos seguintes do mesmo agregado no lote não são enviados nem marcados,
+     * para que sejam reenviados depois dele, na ordem original. Com um {@link TransactionalOutboxPublisher},
+     * o lote inteiro é publicado numa transação do broker e confirmado (ou reenviado) como uma unidade.
+     * <p>
+     * Os eventos rejeitados pelo broker têm a tentativa registrada e são adiados; ver {@link #deferFailures}.
+     *
+     * @return quantidade de eventos confirmados pelo broker ou adiados para nova tentativa
+     */
+    private int relayBatch(int lane, int limit) {
+        long start = System.nanoTime();
+        int bulkReserve = (int) Math.ceil(limit * bulkShare);
+        List<OutboxMessage> messages = store.claimPending(lane, lanes, limit, bulkReserve);
+
+        if (messages.isEmpty()) {
+            log.debug("Nenhum evento encontrado.");
+            return 0;
+        }
+
+        log.info("Encontrados {} eventos para retransmitir na raia {}.", messages.size(), lane);
+
+        long publishStart = System.nanoTime();
+        PublishOutcome outcome = publisher instanceof TransactionalOutboxPublisher transactional
+                ? publishInTransaction(transactional, messages)
+                : publishPipelined(messages);
+        List<UUID> acknowledged = outcome.acknowledged();
+        controller.onBatch(limit, messages.size(), acknowledged.size(), System.nanoTime() - publishStart);
+        store.markProcessed(acknowledged);
+        int deferred = deferFailures(messages, outcome);
+        metrics.recordBatch(messages, acknowledged, System.nanoTime() - start);
+
+        if (acknowledged.size() < messages.size()) {
+            log.warn("Relay parcial: {} de {} eventos confirmados pelo broker; os demais serão reenviados.",
+                    acknowledged.size(), messages.size());
+        } else {
+            log.info("Relay de {} eventos concluído com sucesso.", messages.size());
+        }
+        return acknowledged.size() + deferred;
+    }
+
+    /**
+     * Registra a tentativa dos eventos rejeitados pelo broker, que passam a aguardar o backoff sem segurar
+     * o restante da raia, e estaciona os que esgotaram as tentativas.
+     * <p>
+     * Só chegam aqui as falhas atribuídas ao evento (ver {@link #isEventFailure}); as demais não contam
+     * tentativa e o evento volta no próximo ciclo.
+     *
+     * @return quantidade de eventos adiados
+     */
+    private int deferFailures(List<OutboxMessage> messages, PublishOutcome outcome) {
+        if (outcome.failures().isEmpty()) {
+            return 0;
+        }
+        List<UUID> parked = store.markFailed(outcome.failures(), retryPolicy);
+        if (!parked.isEmpty()) {
+            Set<UUID> parkedIds = new HashSet<>(parked);
+            for (OutboxMessage message : messages) {
+                if (parkedIds.contains(message.id())) {
+                    metrics.recordParked(message);
+                    log.error("Evento {} ({}) estacionado após {} tentativas. Último erro: {}",
+                            message.id(), message.eventType(), retryPolicy.maxAttempts(),
+                            outcome.failures().get(message.id()));
+                }
+            }
+        }
+        return outcome.failures().size();
+    }
+
+    /**
+     * Dispara todos os envios sem bloquear e aguarda os acks em grupo. Quando um evento é rejeitado,
+     * os seguintes do mesmo agregado no lote não são enviados.
+     */
+    private PublishOutcome publishPipelined(List<OutboxMessage> messages) {
+        Map<UUID, CompletableFuture<?>> inFlight = new HashMap<>();
+        Map<UUID, String> failures = new LinkedHashMap<>();
+        Set<String> rejectedAggregates = new HashSet<>();
+        for (OutboxMessage message : messages) {
+            if (rejectedAggregates.contains(message.aggregateId())) {
+                continue;
+            }
+            long sentAt = System.nanoTime();
+            try {
+                CompletableFuture<?> future = publisher.publish(message);
+                future.whenComplete((result, error) -> metrics.recordSend(message, sentAt, error));
+                inFlight.put(message.id(), future);
+            } catch (Exception e) {
+                rejectedAggregates.add(message.aggregateId());
+                if (isEventFailure(e)) {
+                    failures.put(message.id(), describe(e));
+                }
+                metrics.recordSend(message, sentAt, e);
+                log.error("Falha ao enviar evento {} ao broker. Erro: {}", message.id(), e.getMessage());
+            }
+        }
+        return new PublishOutcome(awaitAcks(messages, inFlight, failures), failures);
+    }
+
+    /**
+     * Publica o lote numa transação do broker: tudo ou nada. A transação do broker é confirmada aqui,
+     * antes do commit da transação do banco; se o banco falhar depois disso, o lote é reenviado
+     * (duplicado, nunca perdido).
+     * <p>
+     * Se a transação abortar porque o broker rejeitou algum evento, o lote é reenviado evento a evento
+     * (uma transação por evento) para isolar o culpado; os demais abortos (broker fora do ar, producer cercado
+     * por outra instância, falta de permissão) não são repetidos.
+     */
+    private PublishOutcome publishInTransaction(TransactionalOutboxPublisher transactional, List<OutboxMessage> messages) {
+        long sentAt = System.nanoTime();
+        try {
+            transactional.publishInTransaction(messages, ackTimeoutNanos);
+            messages.forEach(message -> metrics.recordSend(message, sentAt, null));
+            return new PublishOutcome(messages.stream().map(OutboxMessage::id).toList(), Map.of());
+        } catch (Exception e) {
+            log.error("Transação do broker abortada para o lote de {} eventos. Erro: {}", messages.size(), e.getMessage());
+            if (isEventFailure(e)) {
+                // O reenvio registra o resultado final de cada evento; a transação abortada não conta
+                log.warn("Reenviando o lote de {} eventos um a um para isolar a falha.", messages.size());
+                return publishPipelined(messages);
+            }
+            messages.forEach(message -> metrics.recordSend(message, sentAt, e));
+            return new PublishOutcome(List.of(), Map.of());
+        }
+    }
+
+    /**
+     * Percorre o lote na ordem de criação: a partir do primeiro evento sem ack de um agregado, os eventos
+     * seguintes desse agregado deixam de ser confirmados, mesmo que o broker os tenha aceitado.
+     * <p>
+     * Só as falhas do evento ({@link #isEventFailure}) entram em {@code failures}; timeout ou falha do broker
+     * não indicam evento defeituoso, e o evento apenas volta no próximo ciclo.
+     */
+    private List<UUID> awaitAcks(List<OutboxMessage> messages, Map<UUID, CompletableFuture<?>> inFlight,
+                                 Map<UUID, String> failures) {
+        List<UUID> acknowledged = new ArrayList<>(inFlight.size());
+        Set<String> failedAggregates = new HashSet<>();
+        long deadline = System.nanoTime() + ackTimeoutNanos;
+
+        for (OutboxMessage message : messages) {
+            CompletableFuture<?> future = inFlight.get(message.id());
+            if (future == null || failedAggregates.contains(message.aggregateId())) {
+                failedAggregates.add(message.aggregateId());
+                continue;
+            }
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                future.get(remaining, TimeUnit.NANOSECONDS);
+                acknowledged.add(message.id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                failedAggregates.add(message.aggregateId());
+                if (isEventFailure(e.getCause())) {
+                    failures.put(message.id(), describe(e.getCause()));
+                }
+                log.error("Evento {} rejeitado pelo broker. Erro: {}", message.id(), e.getMessage());
+            } catch (TimeoutException e) {
+                failedAggregates.add(message.aggregateId());
+                log.error("Evento {} não confirmado pelo broker dentro do prazo.", message.id());
+            }
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Decide pelo tipo da exceção se a falha é do próprio evento: registro grande demais, registro inválido ou
+     * erro de serialização. Só essas contam tentativa e podem estacionar o evento.
+     * <p>
+     * Qualquer outro erro (broker fora do ar, timeout, producer cercado, falta de permissão no tópico, producer
+     * fechado) atinge todos os eventos do lote igualmente e não diz nada sobre o evento; contá-lo estacionaria
+     * eventos saudáveis.
+     */
+    private static boolean isEventFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RecordTooLargeException || cause instanceof InvalidRecordException
+                    || cause instanceof SerializationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error != null ? error : new IllegalStateException("erro desconhecido");
+        return cause.getClass().getName() + ": " + cause.getMessage();
+    }
+
+    /**
+     * Resultado da publicação de um lote: os eventos confirmados e o erro de cada evento rejeitado.
+     */
+    private record PublishOutcome(List<UUID> acknowledged, Map<UUID, String> failures) {
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
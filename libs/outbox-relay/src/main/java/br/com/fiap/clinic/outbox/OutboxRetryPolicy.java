@@ -0,0 +1,20 @@
+package br.com.fiap.clinic.outbox;
+
+import java.time.Duration;
+
+/**
+ * Política de novas tentativas de um evento rejeitado pelo broker ({@code outbox.relay.retry}).
+ * <p>
+ * A cada falha o evento espera {@code initialBackoff * 2^(tentativas - 1)}, limitado a {@code maxBackoff};
+ * na tentativa {@code maxAttempts} ele é estacionado e deixa de ser reivindicado pelo relay.
+ *
+ * @param maxAttempts    falhas até o evento ser estacionado
+ * @param initialBackoff espera após a primeira falha
+ * @param maxBackoff     teto da espera entre tentativas
+ */
+public record OutboxRetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+
+    public static OutboxRetryPolicy of(OutboxProperties.Retry retry) {
+        return new OutboxRetryPolicy(retry.getMaxAttempts(), retry.getInitialBackoff(), retry.getMaxBackoff());
+    }
+}
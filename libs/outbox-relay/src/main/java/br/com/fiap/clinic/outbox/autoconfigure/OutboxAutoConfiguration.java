@@ -0,0 +1,194 @@
+package br.com.fiap.clinic.outbox.autoconfigure;
+
+import br.com.fiap.clinic.outbox.Outbox;
+import br.com.fiap.clinic.outbox.OutboxBacklogMonitor;
+import br.com.fiap.clinic.outbox.OutboxMetrics;
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.OutboxRelay;
+import br.com.fiap.clinic.outbox.jackson.JacksonOutboxSerializer;
+import br.com.fiap.clinic.outbox.jackson.SmileOutboxSerializer;
+import br.com.fiap.clinic.outbox.jdbc.JdbcOutboxStore;
+import br.com.fiap.clinic.outbox.jdbc.OutboxPartitionMaintenance;
+import br.com.fiap.clinic.outbox.jpa.JpaOutboxStore;
+import br.com.fiap.clinic.outbox.kafka.KafkaOutboxPublisher;
+import br.com.fiap.clinic.outbox.kafka.KafkaTransactionalOutboxPublisher;
+import br.com.fiap.clinic.outbox.spi.OutboxPublisher;
+import br.com.fiap.clinic.outbox.spi.OutboxSerializer;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Auto-configuração do Outbox.
+ * <p>
+ * Para adotar o Outbox basta declarar a dependência {@code outbox-relay}, criar a tabela
+ * (ver {@code outbox-schema.sql}) e configurar o bloco {@code outbox.*}. Qualquer SPI
+ * ({@link OutboxStore}, {@link OutboxSerializer}, {@link OutboxPublisher}) pode ser substituída
+ * declarando um bean próprio.
+ */
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+        "org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration",
+        "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+        "org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration",
+        "org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration",
+        "org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+})
+@EnableConfigurationProperties(OutboxProperties.class)
+@ConditionalOnProperty(prefix = "outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxSerializer outboxSerializer(ObjectProvider<ObjectMapper> objectMapper, OutboxProperties properties) {
+        ObjectMapper mapper = objectMapper.getIfAvailable(ObjectMapper::new);
+        return switch (properties.getEncoding()) {
+            case JSON -> new JacksonOutboxSerializer(mapper);
+            case SMILE -> new SmileOutboxSerializer(mapper);
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxStore.class)
+    @ConditionalOnProperty(prefix = "outbox", name = "store", havingValue = "jdbc", matchIfMissing = true)
+    public OutboxStore jdbcOutboxStore(JdbcTemplate jdbcTemplate, OutboxProperties properties) {
+        return new JdbcOutboxStore(jdbcTemplate, properties.getTable(), appendProcessed(properties));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxStore.class)
+    @ConditionalOnProperty(prefix = "outbox", name = "store", havingValue = "jpa")
+    public OutboxStore jpaOutboxStore(EntityManagerFactory entityManagerFactory, OutboxProperties properties) {
+        return new JpaOutboxStore(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                properties.getTable(), appendProcessed(properties));
+    }
+
+    /**
+     * O publisher usa um produtor próprio (chave String, valor binário) com as mesmas propriedades
+     * {@code spring.kafka.producer.*} da aplicação, sem impor o serializer de valores do template padrão.
+     * O produtor é sempre idempotente e usa a compressão, o linger e o batch de {@code outbox.kafka.*};
+     * com {@code outbox.kafka.transactional=true}, cada lote do relay vira uma transação Kafka.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(KafkaProperties.class)
+    public OutboxPublisher outboxPublisher(KafkaProperties kafkaProperties,
+                                           ObjectProvider<SslBundles> sslBundles,
+                                           OutboxProperties properties) {
+        OutboxProperties.Kafka kafka = properties.getKafka();
+        Map<String, Object> producerProperties = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        producerProperties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProperties.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerProperties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, kafka.getCompressionType());
+        producerProperties.put(ProducerConfig.LINGER_MS_CONFIG, (int) kafka.getLinger().toMillis());
+        producerProperties.put(ProducerConfig.BATCH_SIZE_CONFIG, kafka.getBatchSize());
+
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(
+                producerProperties, new StringSerializer(), new ByteArraySerializer());
+        if (!kafka.isTransactional()) {
+            return new KafkaOutboxPublisher(new KafkaTemplate<>(producerFactory), properties.getTopic());
+        }
+        // Sufixo estável por réplica: transactional.id iguais entre réplicas fariam uma cercar os produtores da
+        // outra; já a mesma réplica, ao reiniciar, reaproveita os seus e cerca os produtores da execução anterior
+        producerFactory.setTransactionIdPrefix(kafka.getTransactionIdPrefix() + instanceId(kafka) + "-");
+        return new KafkaTransactionalOutboxPublisher(new KafkaTemplate<>(producerFactory), properties.getTopic());
+    }
+
+    /**
+     * {@code outbox.kafka.instance-id} ou, sem ele, o hostname (no Kubernetes, o nome do pod).
+     */
+    private static String instanceId(OutboxProperties.Kafka kafka) {
+        if (StringUtils.hasText(kafka.getInstanceId())) {
+            return kafka.getInstanceId();
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Hostname indisponível para o transactional.id do Outbox;"
+                    + " configure outbox.kafka.instance-id", e);
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Outbox outbox(OutboxStore store, OutboxSerializer serializer, OutboxProperties properties) {
+        return new Outbox(store, serializer, Set.copyOf(properties.getPriority().getBulkEventTypes()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxMetrics outboxMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OutboxMetrics(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(OutboxPublisher.class)
+    @ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+    @ConditionalOnProperty(prefix = "outbox", name = "mode", havingValue = "polling", matchIfMissing = true)
+    public OutboxRelay outboxRelay(OutboxStore store,
+                                   OutboxPublisher publisher,
+                                   PlatformTransactionManager transactionManager,
+                                   OutboxMetrics metrics,
+                                   OutboxProperties properties) {
+        return new OutboxRelay(store, publisher, new TransactionTemplate(transactionManager), metrics, properties);
+    }
+
+    /**
+     * No modo CDC os eventos já nascem processados; o lag aparece em {@code outbox.cdc.slot.lag}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "outbox.metrics", name = "backlog-enabled", havingValue = "true", matchIfMissing = true)
+    @ConditionalOnProperty(prefix = "outbox", name = "mode", havingValue = "polling", matchIfMissing = true)
+    public OutboxBacklogMonitor outboxBacklogMonitor(OutboxStore store,
+                                                     OutboxMetrics metrics,
+                                                     OutboxProperties properties) {
+        OutboxBacklogMonitor monitor = new OutboxBacklogMonitor(store, properties.getMetrics().getBacklogRefresh());
+        metrics.registerBacklog(monitor);
+        return monitor;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "outbox.partition", name = "enabled", havingValue = "true")
+    public OutboxPartitionMaintenance outboxPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                                                 OutboxProperties properties) {
+        return new OutboxPartitionMaintenance(jdbcTemplate, properties);
+    }
+
+    /**
+     * No modo CDC a entrega é controlada pelo LSN do slot; gravar já como processado mantém o índice
+     * parcial de pendentes vazio e permite o descarte das partições antigas.
+     */
+    private static boolean appendProcessed(OutboxProperties properties) {
+        return properties.getMode() == OutboxProperties.Mode.CDC;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.fiap.clinic.outbox.autoconfigure;
+
+import br.com.fiap.clinic.outbox.OutboxMetrics;
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.cdc.OutboxCdcRelay;
+import br.com.fiap.clinic.outbox.spi.OutboxPublisher;
+import org.postgresql.PGProperty;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Properties;
+
+/**
+ * Relay por replicação lógica ({@code outbox.mode=cdc}), no lugar do polling.
+ */
+@AutoConfiguration(after = OutboxAutoConfiguration.class)
+@ConditionalOnClass(name = "org.postgresql.PGConnection")
+@ConditionalOnProperty(prefix = "outbox", name = "mode", havingValue = "cdc")
+public class OutboxCdcAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean({OutboxPublisher.class, DataSourceProperties.class})
+    @ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxCdcRelay outboxCdcRelay(DataSourceProperties dataSourceProperties,
+                                         JdbcTemplate jdbcTemplate,
+                                         OutboxPublisher publisher,
+                                         OutboxMetrics metrics,
+                                         OutboxProperties properties) {
+        // Conexão de replicação dedicada e fora do pool
+        Properties replication = new Properties();
+        PGProperty.REPLICATION.set(replication, "database");
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(replication, "10");
+        PGProperty.PREFER_QUERY_MODE.set(replication, "simple");
+
+        DriverManagerDataSource replicationSource = new DriverManagerDataSource(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        replicationSource.setConnectionProperties(replication);
+        return new OutboxCdcRelay(replicationSource, jdbcTemplate, publisher, metrics, properties);
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.fiap.clinic.outbox.autoconfigure;
+
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.OutboxRelay;
+import br.com.fiap.clinic.outbox.jdbc.PostgresOutboxNotificationListener;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Acorda o relay via LISTEN/NOTIFY quando o driver do Postgres está no classpath.
+ */
+@AutoConfiguration(after = OutboxAutoConfiguration.class)
+@ConditionalOnClass(name = "org.postgresql.PGConnection")
+@ConditionalOnBean({OutboxRelay.class, DataSourceProperties.class})
+@ConditionalOnProperty(prefix = "outbox.relay.notify", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxNotificationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PostgresOutboxNotificationListener outboxNotificationListener(OutboxRelay relay,
+                                                                         DataSourceProperties dataSourceProperties,
+                                                                         OutboxProperties properties) {
+        // Conexão dedicada e fora do pool: cada getConnection() abre uma nova
+        DriverManagerDataSource connectionSource = new DriverManagerDataSource(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        return new PostgresOutboxNotificationListener(relay, connectionSource, properties);
+    }
+}
@@ -0,0 +1,338 @@
+package br.com.fiap.clinic.outbox.cdc;
+
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.OutboxMetrics;
+import br.com.fiap.clinic.outbox.OutboxPriority;
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.jdbc.OutboxTables;
+import br.com.fiap.clinic.outbox.spi.OutboxPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.replication.LogSequenceNumber;
+import org.postgresql.replication.PGReplicationStream;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relay do Outbox por CDC: lê os INSERTs de {@code outbox_events} direto do WAL, por um slot de
+ * replicação lógica ({@code pgoutput}), em vez de consultar a tabela.
+ * <p>
+ * Cada transação confirmada é publicada em pipeline e o LSN do slot só avança quando o broker
+ * confirma todos os eventos dela (e das anteriores). Se a aplicação cair ou o broker falhar, o Postgres
+ * reenvia a partir do último LSN confirmado: a entrega continua sendo "ao menos uma vez", como no polling,
+ * mas sem consultas periódicas nem o UPDATE de {@code processed}.
+ */
+@Slf4j
+public class OutboxCdcRelay implements SmartLifecycle {
+
+    private static final long IDLE_WAIT_MS = 10;
+
+    private final DataSource replicationSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxPublisher publisher;
+    private final OutboxMetrics metrics;
+
+    private final String table;
+    private final String slotName;
+    private final String publicationName;
+    private final boolean createPublication;
+    private final long statusIntervalMs;
+    private final long reconnectDelayMs;
+    private final long ackTimeoutNanos;
+    private final int maxInFlight;
+
+    private volatile boolean running;
+    private Thread streamThread;
+
+    /**
+     * @param replicationSource fonte de conexões de replicação ({@code replication=database}), fora do pool
+     * @param jdbcTemplate      usado apenas para verificar/criar a publicação e o slot
+     */
+    public OutboxCdcRelay(DataSource replicationSource,
+                          JdbcTemplate jdbcTemplate,
+                          OutboxPublisher publisher,
+                          OutboxMetrics metrics,
+                          OutboxProperties properties) {
+        OutboxProperties.Cdc cdc = properties.getCdc();
+        this.replicationSource = replicationSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.publisher = publisher;
+        this.metrics = metrics;
+        this.table = OutboxTables.validate(properties.getTable());
+        this.slotName = OutboxTables.validate(cdc.getSlotName());
+        this.publicationName = OutboxTables.validate(cdc.getPublicationName());
+        this.createPublication = cdc.isCreatePublication();
+        this.statusIntervalMs = cdc.getStatusInterval().toMillis();
+        this.reconnectDelayMs = cdc.getReconnectDelay().toMillis();
+        this.ackTimeoutNanos = properties.getRelay().getAckTimeout().toNanos();
+        this.maxInFlight = properties.getBatch().getSize();
+        metrics.registerSlotLag(slotName, this::slotLagBytes);
+    }
+
+    @Override
+    public void start() {
+        ensurePublication();
+        running = true;
+        streamThread = new Thread(this::stream, "outbox-cdc");
+        streamThread.setDaemon(true);
+        streamThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        streamThread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * A publicação usa {@code publish_via_partition_root} para que os INSERTs nas partições mensais
+     * cheguem como se fossem na tabela pai.
+     */
+    private void ensurePublication() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_publication WHERE pubname = ?", Integer.class, publicationName);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        if (!createPublication) {
+            throw new IllegalStateException("Publicação do Outbox não encontrada: " + publicationName);
+        }
+        jdbcTemplate.execute("CREATE PUBLICATION " + publicationName + " FOR TABLE " + table +
+                " WITH (publish = 'insert', publish_via_partition_root = true)");
+        log.info("Publicação '{}' criada para a tabela {}.", publicationName, table);
+    }
+
+    private void ensureSlot(PGConnection connection) throws SQLException {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_replication_slots WHERE slot_name = ?", Integer.class, slotName);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        connection.getReplicationAPI()
+                .createReplicationSlot()
+                .logical()
+                .withSlotName(slotName)
+                .withOutputPlugin("pgoutput")
+                .make();
+        log.info("Slot de replicação '{}' criado.", slotName);
+    }
+
+    /**
+     * WAL retido pelo slot desde o último LSN confirmado; cresce quando o broker ou o relay ficam para trás.
+     */
+    private double slotLagBytes() {
+        try {
+            Long lag = jdbcTemplate.queryForObject(
+                    "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), confirmed_flush_lsn)::bigint" +
+                            " FROM pg_replication_slots WHERE slot_name = ?", Long.class, slotName);
+            return lag != null ? lag : Double.NaN;
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private void stream() {
+        while (running) {
+            try (Connection connection = replicationSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                ensureSlot(pgConnection);
+
+                PGReplicationStream stream = pgConnection.getReplicationAPI()
+                        .replicationStream()
+                        .logical()
+                        .withSlotName(slotName)
+                        .withSlotOption("proto_version", 1)
+                        .withSlotOption("publication_names", publicationName)
+                        .withStatusInterval((int) statusIntervalMs, TimeUnit.MILLISECONDS)
+                        .start();
+                log.info("Lendo o Outbox por replicação lógica (slot '{}', publicação '{}').", slotName, publicationName);
+
+                consume(stream);
+            } catch (SQLException | PublishFailedException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Relay CDC do Outbox interrompido, retomando do último LSN confirmado em {} ms. Erro: {}",
+                        reconnectDelayMs, e.getMessage());
+                sleep(reconnectDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void consume(PGReplicationStream stream) throws SQLException, InterruptedException {
+        PgOutputDecoder decoder = new PgOutputDecoder();
+        Deque<PendingCommit> inFlight = new ArrayDeque<>();
+        List<Sent> transaction = new ArrayList<>();
+        long transactionStart = System.nanoTime();
+
+        while (running) {
+            ByteBuffer buffer = stream.readPending();
+            if (buffer == null) {
+                confirmAcked(stream, inFlight);
+                TimeUnit.MILLISECONDS.sleep(IDLE_WAIT_MS);
+                continue;
+            }
+
+            switch (decoder.decode(buffer)) {
+                case PgOutputEvent.Begin begin -> {
+                    transaction = new ArrayList<>();
+                    transactionStart = System.nanoTime();
+                }
+                case PgOutputEvent.Insert insert when isOutboxTable(insert) -> {
+                    OutboxMessage message = toMessage(insert.values());
+                    transaction.add(new Sent(message, publish(message)));
+                }
+                case PgOutputEvent.Commit commit -> {
+                    // Transações sem eventos também entram na fila, para que o slot avance e o WAL seja liberado
+                    inFlight.add(new PendingCommit(LogSequenceNumber.valueOf(commit.endLsn()), transaction, transactionStart));
+                    transaction = new ArrayList<>();
+                }
+                default -> {
+                    // UPDATE/DELETE/TYPE/ORIGIN e INSERTs de outras tabelas não interessam ao Outbox
+                }
+            }
+            confirmAcked(stream, inFlight);
+        }
+    }
+
+    private CompletableFuture<?> publish(OutboxMessage message) {
+        long sentAt = System.nanoTime();
+        try {
+            CompletableFuture<?> future = publisher.publish(message);
+            future.whenComplete((result, error) -> metrics.recordSend(message, sentAt, error));
+            return future;
+        } catch (Exception e) {
+            metrics.recordSend(message, sentAt, e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Confirma no slot o LSN da transação mais recente cujos eventos (e os de todas as anteriores)
+     * já foram confirmados pelo broker. Bloqueia apenas quando há eventos demais aguardando ack.
+     */
+    private void confirmAcked(PGReplicationStream stream, Deque<PendingCommit> inFlight) throws InterruptedException {
+        LogSequenceNumber confirmed = null;
+        while (!inFlight.isEmpty()) {
+            PendingCommit head = inFlight.peek();
+            boolean backPressure = pendingEvents(inFlight) > maxInFlight;
+            if (!backPressure && !head.isDone()) {
+                break;
+            }
+            head.await(ackTimeoutNanos);
+            List<OutboxMessage> messages = head.sends().stream().map(Sent::message).toList();
+            metrics.recordBatch(messages, messages.stream().map(OutboxMessage::id).toList(),
+                    System.nanoTime() - head.startNanos());
+            confirmed = head.lsn();
+            inFlight.poll();
+        }
+        if (confirmed != null) {
+            // O status é enviado ao servidor no próximo intervalo de status do stream
+            stream.setFlushedLSN(confirmed);
+            stream.setAppliedLSN(confirmed);
+        }
+    }
+
+    private static int pendingEvents(Deque<PendingCommit> inFlight) {
+        return inFlight.stream().mapToInt(commit -> commit.sends().size()).sum();
+    }
+
+    private boolean isOutboxTable(PgOutputEvent.Insert insert) {
+        return table.equals(insert.table()) || table.equals(insert.namespace() + "." + insert.table());
+    }
+
+    private static OutboxMessage toMessage(Map<String, String> values) {
+        return new OutboxMessage(
+                UUID.fromString(values.get("id")),
+                values.get("aggregate_type"),
+                values.get("aggregate_id"),
+                values.get("event_type"),
+                values.get("priority") != null
+                        ? OutboxPriority.fromLevel(Integer.parseInt(values.get("priority")))
+                        : OutboxPriority.INTERACTIVE,
+                values.get("content_type"),
+                decodeBytea(values.get("payload")),
+                parseTimestamp(values.get("created_at"))
+        );
+    }
+
+    /**
+     * Converte a saída de texto do {@code bytea} (formato hex: {@code \x3a290a...}) para bytes.
+     */
+    static byte[] decodeBytea(String text) {
+        return HexFormat.of().parseHex(text, 2, text.length());
+    }
+
+    /**
+     * Converte a saída de texto do {@code timestamptz} (ex.: {@code 2025-01-10 09:00:00.123+00}) para ISO-8601.
+     */
+    static OffsetDateTime parseTimestamp(String text) {
+        String iso = text.replace(' ', 'T');
+        if (iso.matches(".*[+-]\\d{2}$")) {
+            iso = iso + ":00";
+        }
+        return OffsetDateTime.parse(iso);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private record Sent(OutboxMessage message, CompletableFuture<?> future) {
+    }
+
+    private record PendingCommit(LogSequenceNumber lsn, List<Sent> sends, long startNanos) {
+
+        boolean isDone() {
+            return sends.stream().allMatch(sent -> sent.future().isDone());
+        }
+
+        void await(long timeoutNanos) throws InterruptedException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            for (Sent sent : sends) {
+                try {
+                    sent.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    throw new PublishFailedException("Evento " + sent.message().id() +
+                            " não confirmado pelo broker: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private static class PublishFailedException extends RuntimeException {
+        PublishFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
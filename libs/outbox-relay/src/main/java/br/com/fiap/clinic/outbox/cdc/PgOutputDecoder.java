@@ -0,0 +1,96 @@
+package br.com.fiap.clinic.outbox.cdc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodificador do protocolo {@code pgoutput} (versão 1) da replicação lógica do Postgres.
+ * <p>
+ * Interpreta apenas o necessário para o Outbox: BEGIN, COMMIT, RELATION (para saber os nomes das colunas)
+ * e INSERT em formato texto. As demais mensagens (UPDATE, DELETE, TRUNCATE, TYPE, ORIGIN) são ignoradas.
+ * Mantém estado (as relações já anunciadas), então deve existir uma instância por stream de replicação.
+ */
+public class PgOutputDecoder {
+
+    private final Map<Integer, Relation> relations = new HashMap<>();
+
+    public PgOutputEvent decode(ByteBuffer buffer) {
+        char type = (char) buffer.get();
+        return switch (type) {
+            case 'B' -> new PgOutputEvent.Begin(buffer.getLong());
+            case 'C' -> {
+                buffer.get(); // flags
+                long commitLsn = buffer.getLong();
+                long endLsn = buffer.getLong();
+                yield new PgOutputEvent.Commit(commitLsn, endLsn);
+            }
+            case 'R' -> {
+                decodeRelation(buffer);
+                yield PgOutputEvent.Ignored.INSTANCE;
+            }
+            case 'I' -> decodeInsert(buffer);
+            default -> PgOutputEvent.Ignored.INSTANCE;
+        };
+    }
+
+    private void decodeRelation(ByteBuffer buffer) {
+        int relationId = buffer.getInt();
+        String namespace = readString(buffer);
+        String name = readString(buffer);
+        buffer.get(); // replica identity
+        short columnCount = buffer.getShort();
+
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            buffer.get(); // flags (coluna da chave)
+            columns.add(readString(buffer));
+            buffer.getInt(); // OID do tipo
+            buffer.getInt(); // modificador do tipo
+        }
+        relations.put(relationId, new Relation(namespace, name, columns));
+    }
+
+    private PgOutputEvent decodeInsert(ByteBuffer buffer) {
+        int relationId = buffer.getInt();
+        buffer.get(); // 'N': nova tupla
+        Relation relation = relations.get(relationId);
+        if (relation == null) {
+            throw new IllegalStateException("INSERT recebido para relação não anunciada: " + relationId);
+        }
+
+        short columnCount = buffer.getShort();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            char kind = (char) buffer.get();
+            String value = switch (kind) {
+                case 'n', 'u' -> null;
+                case 't' -> {
+                    byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    yield new String(bytes, StandardCharsets.UTF_8);
+                }
+                default -> throw new IllegalStateException("Formato de coluna não suportado: " + kind);
+            };
+            values.put(relation.columns().get(i), value);
+        }
+        return new PgOutputEvent.Insert(relation.namespace(), relation.name(), values);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int start = buffer.position();
+        while (buffer.get() != 0) {
+            // avança até o terminador nulo
+        }
+        byte[] bytes = new byte[buffer.position() - start - 1];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Relation(String namespace, String name, List<String> columns) {
+    }
+}
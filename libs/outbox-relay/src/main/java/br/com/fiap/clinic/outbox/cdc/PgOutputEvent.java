@@ -0,0 +1,25 @@
+package br.com.fiap.clinic.outbox.cdc;
+
+import java.util.Map;
+
+/**
+ * Mensagens do {@code pgoutput} relevantes para o Outbox.
+ */
+public sealed interface PgOutputEvent {
+
+    record Begin(long finalLsn) implements PgOutputEvent {
+    }
+
+    /**
+     * @param endLsn LSN a confirmar no slot quando todos os eventos da transação forem publicados
+     */
+    record Commit(long commitLsn, long endLsn) implements PgOutputEvent {
+    }
+
+    record Insert(String namespace, String table, Map<String, String> values) implements PgOutputEvent {
+    }
+
+    enum Ignored implements PgOutputEvent {
+        INSTANCE
+    }
+}
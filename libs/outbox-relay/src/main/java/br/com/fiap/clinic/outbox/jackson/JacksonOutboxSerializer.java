@@ -0,0 +1,36 @@
+package br.com.fiap.clinic.outbox.jackson;
+
+import br.com.fiap.clinic.outbox.spi.OutboxSerializer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link OutboxSerializer} padrão: JSON (UTF-8) com o {@link ObjectMapper} da aplicação.
+ */
+@RequiredArgsConstructor
+public class JacksonOutboxSerializer implements OutboxSerializer {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] serialize(Object payload) {
+        if (payload instanceof String json) {
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Erro ao serializar payload do evento do Outbox", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.fiap.clinic.outbox.jackson;
+
+import br.com.fiap.clinic.outbox.spi.OutboxSerializer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * {@link OutboxSerializer} binário com Jackson Smile ({@code outbox.encoding=smile}).
+ * <p>
+ * Mesmo modelo de dados do JSON, porém mais compacto e mais barato de decodificar. Usa a configuração do
+ * {@link ObjectMapper} da aplicação (módulos, formatos de data) e mantém o cabeçalho {@code :)\n} do Smile,
+ * que permite aos consumidores distinguir o formato sem depender de headers.
+ */
+public class SmileOutboxSerializer implements OutboxSerializer {
+
+    public static final String CONTENT_TYPE = "application/x-jackson-smile";
+
+    private final ObjectMapper smileMapper;
+
+    public SmileOutboxSerializer(ObjectMapper objectMapper) {
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] serialize(Object payload) {
+        try {
+            return smileMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Erro ao serializar payload do evento do Outbox", e);
+        }
+    }
+}
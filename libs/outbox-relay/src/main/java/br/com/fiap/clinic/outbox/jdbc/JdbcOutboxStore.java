@@ -0,0 +1,194 @@
+package br.com.fiap.clinic.outbox.jdbc;
+
+import br.com.fiap.clinic.outbox.OutboxBacklog;
+import br.com.fiap.clinic.outbox.OutboxLanes;
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.OutboxPriority;
+import br.com.fiap.clinic.outbox.OutboxRetryPolicy;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Array;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * {@link OutboxStore} em JDBC puro para Postgres.
+ * <p>
+ * O {@link JdbcTemplate} participa da transação gerenciada pelo Spring (inclusive a do
+ * {@code JpaTransactionManager}), então o evento é gravado atomicamente com as entidades de domínio.
+ */
+public class JdbcOutboxStore implements OutboxStore {
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getObject("id", UUID.class),
+            rs.getString("aggregate_type"),
+            rs.getString("aggregate_id"),
+            rs.getString("event_type"),
+            OutboxPriority.fromLevel(rs.getShort("priority")),
+            rs.getString("content_type"),
+            rs.getBytes("payload"),
+            rs.getObject("created_at", OffsetDateTime.class)
+    );
+
+    // Advisory lock por slot da raia, liberado no fim da transação do lote; devolve os slots travados
+    private static final String LOCK_SLOTS_SQL =
+            "SELECT slot FROM unnest(?::int[]) AS slot WHERE pg_try_advisory_xact_lock(?, slot)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int lockKey;
+    private final String insertSql;
+    private final String claimInteractiveSql;
+    private final String claimBulkSql;
+    private final String markProcessedSql;
+    private final String markFailedSql;
+    private final String backlogSql;
+
+    public JdbcOutboxStore(JdbcTemplate jdbcTemplate, String table) {
+        this(jdbcTemplate, table, false);
+    }
+
+    /**
+     * @param appendProcessed grava os eventos já como processados; usado no modo CDC, em que o relay
+     *                        lê do WAL e o controle de entrega fica no LSN do slot
+     */
+    public JdbcOutboxStore(JdbcTemplate jdbcTemplate, String table, boolean appendProcessed) {
+        this.jdbcTemplate = jdbcTemplate;
+        String outboxTable = OutboxTables.validate(table);
+        this.lockKey = outboxTable.hashCode();
+        this.insertSql = "INSERT INTO " + outboxTable +
+                " (id, aggregate_type, aggregate_id, event_type, priority, content_type, payload, created_at, processed)" +
+                " VALUES (?, ?, ?, ?, ?, ?, ?, ?, " + appendProcessed + ")";
+        this.claimInteractiveSql = claimSql(outboxTable, "e.priority = " + OutboxPriority.INTERACTIVE.level());
+        this.claimBulkSql = claimSql(outboxTable, "e.priority <> " + OutboxPriority.INTERACTIVE.level());
+        this.markProcessedSql = "UPDATE " + outboxTable + " SET processed = true WHERE id = ANY(?)";
+        this.markFailedSql = "WITH failed AS (" +
+                "UPDATE " + outboxTable + " e SET attempts = e.attempts + 1, last_error = left(f.error, 2000)," +
+                " next_attempt_at = now() + least(make_interval(secs => ? * power(2, least(e.attempts, 20))), make_interval(secs => ?))," +
+                " parked_at = CASE WHEN e.attempts + 1 >= ? THEN now() END" +
+                " FROM unnest(?::uuid[], ?::text[]) AS f(id, error)" +
+                " WHERE e.id = f.id AND e.processed = false" +
+                " RETURNING e.id, e.parked_at)" +
+                " SELECT id FROM failed WHERE parked_at IS NOT NULL";
+        this.backlogSql = "SELECT count(*) FILTER (WHERE parked_at IS NULL), min(created_at) FILTER (WHERE parked_at IS NULL)," +
+                " count(*) FILTER (WHERE parked_at IS NOT NULL) FROM " + outboxTable + " WHERE processed = false";
+    }
+
+    @Override
+    public void append(OutboxMessage message) {
+        jdbcTemplate.update(insertSql,
+                message.id(),
+                message.aggregateType(),
+                message.aggregateId(),
+                message.eventType(),
+                message.priority().level(),
+                message.contentType(),
+                message.payload(),
+                message.createdAt());
+    }
+
+    @Override
+    public void appendAll(List<OutboxMessage> messages) {
+        jdbcTemplate.batchUpdate(insertSql, messages.stream()
+                .map(message -> new Object[]{
+                        message.id(),
+                        message.aggregateType(),
+                        message.aggregateId(),
+                        message.eventType(),
+                        message.priority().level(),
+                        message.contentType(),
+                        message.payload(),
+                        message.createdAt()})
+                .toList());
+    }
+
+    @Override
+    public List<OutboxMessage> claimPending(int lane, int lanes, int limit, int bulkReserve) {
+        Integer[] slots = jdbcTemplate.query(LOCK_SLOTS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("integer", OutboxLanes.slots(lane, lanes)));
+            ps.setInt(2, lockKey);
+        }, (rs, rowNum) -> rs.getInt(1)).toArray(Integer[]::new);
+        if (slots.length == 0) {
+            return List.of();
+        }
+        List<OutboxMessage> interactive = claim(claimInteractiveSql, slots, Math.max(0, limit - bulkReserve));
+        List<OutboxMessage> bulk = claim(claimBulkSql, slots, limit - interactive.size());
+        return Stream.concat(interactive.stream(), bulk.stream())
+                .sorted(Comparator.comparing(OutboxMessage::createdAt))
+                .toList();
+    }
+
+    private List<OutboxMessage> claim(String sql, Integer[] slots, int limit) {
+        return jdbcTemplate.query(sql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("integer", slots));
+            ps.setInt(2, limit);
+        }, ROW_MAPPER);
+    }
+
+    /**
+     * Pendentes dos slots travados com a prioridade informada, dos mais antigos para os mais novos, sem os estacionados e os
+     * que aguardam nova tentativa. O NOT EXISTS impede que um evento passe à frente de um pendente mais antigo do
+     * mesmo agregado com outra prioridade ou em espera (coberto pelo índice parcial de pendentes por agregado). O
+     * filtro por {@code lane_slot} usa o índice parcial de pendentes, que começa pela coluna.
+     */
+    private static String claimSql(String table, String priorityFilter) {
+        return "SELECT e.id, e.aggregate_type, e.aggregate_id, e.event_type, e.priority, e.content_type, e.payload, e.created_at" +
+                " FROM " + table + " e" +
+                " WHERE e.processed = false AND e.parked_at IS NULL" +
+                " AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= now())" +
+                " AND e.lane_slot = ANY(?)" +
+                " AND " + priorityFilter +
+                " AND NOT EXISTS (SELECT 1 FROM " + table + " o" +
+                " WHERE o.processed = false AND o.parked_at IS NULL AND o.aggregate_id = e.aggregate_id" +
+                " AND o.created_at < e.created_at AND (o.priority <> e.priority OR o.next_attempt_at > now()))" +
+                " ORDER BY e.created_at ASC" +
+                " LIMIT ?" +
+                " FOR UPDATE OF e SKIP LOCKED";
+    }
+
+    /**
+     * Um único UPDATE com {@code id = ANY(?)} em vez de um UPDATE por evento.
+     */
+    @Override
+    public int markProcessed(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(markProcessedSql, ps -> {
+            Array array = ps.getConnection().createArrayOf("uuid", ids.toArray());
+            ps.setArray(1, array);
+        });
+    }
+
+    /**
+     * Um único UPDATE sobre {@code unnest} dos ids e erros; o backoff é calculado no banco a partir do
+     * contador de tentativas da própria linha.
+     */
+    @Override
+    public List<UUID> markFailed(Map<UUID, String> errors, OutboxRetryPolicy policy) {
+        if (errors.isEmpty()) {
+            return List.of();
+        }
+        UUID[] ids = errors.keySet().toArray(UUID[]::new);
+        String[] messages = Stream.of(ids).map(errors::get).toArray(String[]::new);
+        return jdbcTemplate.query(markFailedSql, ps -> {
+            ps.setDouble(1, policy.initialBackoff().toMillis() / 1000.0);
+            ps.setDouble(2, policy.maxBackoff().toMillis() / 1000.0);
+            ps.setInt(3, policy.maxAttempts());
+            ps.setArray(4, ps.getConnection().createArrayOf("uuid", ids));
+            ps.setArray(5, ps.getConnection().createArrayOf("text", messages));
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    @Override
+    public OutboxBacklog backlog() {
+        return jdbcTemplate.queryForObject(backlogSql, (rs, rowNum) ->
+                new OutboxBacklog(rs.getLong(1), rs.getObject(2, OffsetDateTime.class), rs.getLong(3)));
+    }
+}
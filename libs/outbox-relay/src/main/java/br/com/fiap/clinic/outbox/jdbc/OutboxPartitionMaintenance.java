@@ -0,0 +1,47 @@
+package br.com.fiap.clinic.outbox.jdbc;
+
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Manutenção das partições mensais do Outbox.
+ * <p>
+ * Cria as partições dos próximos meses antes de serem necessárias (evitando que eventos caiam na
+ * partição default) e descarta as partições antigas já totalmente processadas com DETACH + DROP,
+ * em vez de DELETEs linha a linha. Requer as funções {@code outbox_create_partitions} e
+ * {@code outbox_drop_processed_partitions} criadas pela migration do serviço.
+ * <p>
+ * O agendamento fica a cargo do serviço (ex.: um job com ShedLock), para que apenas uma réplica execute.
+ */
+@Slf4j
+public class OutboxPartitionMaintenance {
+
+    private static final String CREATE_PARTITIONS_SQL =
+            "SELECT outbox_create_partitions(?, ?)";
+    private static final String DROP_PARTITIONS_SQL =
+            "SELECT outbox_drop_processed_partitions(make_interval(days => ?))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionDays;
+
+    public OutboxPartitionMaintenance(JdbcTemplate jdbcTemplate, OutboxProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = properties.getPartition().getMonthsAhead();
+        this.retentionDays = properties.getRetention().getDays();
+    }
+
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+        Integer created = jdbcTemplate.queryForObject(CREATE_PARTITIONS_SQL, Integer.class,
+                Date.valueOf(today), Date.valueOf(today.plusMonths(monthsAhead)));
+        Integer dropped = jdbcTemplate.queryForObject(DROP_PARTITIONS_SQL, Integer.class, retentionDays);
+
+        log.info("Manutenção do Outbox concluída: {} partições criadas, {} partições removidas (retenção de {} dias)",
+                created, dropped, retentionDays);
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.fiap.clinic.outbox.jdbc;
+
+import java.util.regex.Pattern;
+
+/**
+ * Validação do nome da tabela do Outbox, que é concatenado nas consultas.
+ */
+public final class OutboxTables {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private OutboxTables() {
+    }
+
+    public static String validate(String table) {
+        if (table == null || !IDENTIFIER.matcher(table).matches()) {
+            throw new IllegalArgumentException("Nome de tabela do Outbox inválido: " + table);
+        }
+        return table;
+    }
+}
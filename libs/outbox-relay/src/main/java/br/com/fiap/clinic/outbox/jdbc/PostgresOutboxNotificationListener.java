@@ -0,0 +1,107 @@
+package br.com.fiap.clinic.outbox.jdbc;
+
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.OutboxRelay;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Escuta o canal do Outbox no Postgres (LISTEN/NOTIFY) e acorda o {@link OutboxRelay}
+ * assim que uma transação com novos eventos faz commit.
+ * <p>
+ * Usa uma conexão dedicada, fora do pool do Hikari, pois ela fica presa ao LISTEN durante toda a vida
+ * da aplicação. Enquanto não há notificações, a única carga no banco é a espera no socket.
+ * O poll periódico do relay continua como fallback.
+ */
+@Slf4j
+public class PostgresOutboxNotificationListener implements SmartLifecycle {
+
+    private static final int WAIT_TIMEOUT_MS = 10_000;
+
+    private final OutboxRelay relay;
+    private final DataSource connectionSource;
+    private final String channel;
+    private final long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    /**
+     * @param connectionSource fonte de conexões não pooladas (cada {@code getConnection()} abre uma nova)
+     */
+    public PostgresOutboxNotificationListener(OutboxRelay relay,
+                                              DataSource connectionSource,
+                                              OutboxProperties properties) {
+        this.relay = relay;
+        this.connectionSource = connectionSource;
+        this.channel = OutboxTables.validate(properties.getRelay().getNotify().getChannel());
+        this.reconnectDelayMs = properties.getRelay().getNotify().getReconnectDelay().toMillis();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "outbox-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connectionSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Escutando notificações do canal '{}' para acordar o relay do Outbox.", channel);
+
+                // Cobre eventos inseridos enquanto o listener estava desconectado
+                relay.relayPending();
+
+                while (running) {
+                    // Espera no socket (sem consultar o banco) até chegar uma notificação ou estourar o timeout,
+                    // o que permite reavaliar 'running' e detectar conexões mortas periodicamente
+                    PGNotification[] notifications = pgConnection.getNotifications(WAIT_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        log.debug("Recebidas {} notificações do Outbox.", notifications.length);
+                        relay.relayPending();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexão LISTEN do Outbox perdida, reconectando em {} ms. Erro: {}",
+                        reconnectDelayMs, e.getMessage());
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
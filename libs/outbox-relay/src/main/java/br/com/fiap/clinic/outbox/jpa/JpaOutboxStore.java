@@ -0,0 +1,201 @@
+package br.com.fiap.clinic.outbox.jpa;
+
+import br.com.fiap.clinic.outbox.OutboxBacklog;
+import br.com.fiap.clinic.outbox.OutboxLanes;
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.OutboxPriority;
+import br.com.fiap.clinic.outbox.OutboxRetryPolicy;
+import br.com.fiap.clinic.outbox.jdbc.OutboxTables;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import jakarta.persistence.EntityManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * {@link OutboxStore} sobre o {@link EntityManager} da aplicação, para serviços que preferem que
+ * toda a escrita passe pelo contexto de persistência (ex.: mesma ordem de flush das entidades).
+ * <p>
+ * Usa consultas nativas, então não exige que o serviço mapeie uma entidade para a tabela do Outbox.
+ */
+public class JpaOutboxStore implements OutboxStore {
+
+    // Advisory lock por slot da raia, liberado no fim da transação do lote; devolve os slots travados
+    private static final String LOCK_SLOTS_SQL =
+            "SELECT slot FROM unnest(CAST(:slots AS int[])) AS slot WHERE pg_try_advisory_xact_lock(:key, slot)";
+
+    private final EntityManager entityManager;
+    private final int lockKey;
+    private final String insertSql;
+    private final String claimInteractiveSql;
+    private final String claimBulkSql;
+    private final String markProcessedSql;
+    private final String markFailedSql;
+    private final String parkedSql;
+    private final String backlogSql;
+
+    /**
+     * @param entityManager EntityManager compartilhado (transacional), ex.: criado pelo
+     *                      {@code SharedEntityManagerCreator}
+     */
+    public JpaOutboxStore(EntityManager entityManager, String table) {
+        this(entityManager, table, false);
+    }
+
+    /**
+     * @param appendProcessed grava os eventos já como processados (modo CDC)
+     */
+    public JpaOutboxStore(EntityManager entityManager, String table, boolean appendProcessed) {
+        this.entityManager = entityManager;
+        String outboxTable = OutboxTables.validate(table);
+        this.lockKey = outboxTable.hashCode();
+        this.insertSql = "INSERT INTO " + outboxTable +
+                " (id, aggregate_type, aggregate_id, event_type, priority, content_type, payload, created_at, processed)" +
+                " VALUES (:id, :aggregateType, :aggregateId, :eventType, :priority, :contentType, :payload, :createdAt, " + appendProcessed + ")";
+        this.claimInteractiveSql = claimSql(outboxTable, "e.priority = " + OutboxPriority.INTERACTIVE.level());
+        this.claimBulkSql = claimSql(outboxTable, "e.priority <> " + OutboxPriority.INTERACTIVE.level());
+        this.markProcessedSql = "UPDATE " + outboxTable + " SET processed = true WHERE id IN (:ids)";
+        this.markFailedSql = "UPDATE " + outboxTable + " SET attempts = attempts + 1, last_error = left(:error, 2000)," +
+                " next_attempt_at = now() + least(make_interval(secs => :initialBackoff * power(2, least(attempts, 20)))," +
+                " make_interval(secs => :maxBackoff))," +
+                " parked_at = CASE WHEN attempts + 1 >= :maxAttempts THEN now() END" +
+                " WHERE id = :id AND processed = false";
+        this.parkedSql = "SELECT id FROM " + outboxTable + " WHERE id IN (:ids) AND processed = false AND parked_at IS NOT NULL";
+        this.backlogSql = "SELECT count(*) FILTER (WHERE parked_at IS NULL), min(created_at) FILTER (WHERE parked_at IS NULL)," +
+                " count(*) FILTER (WHERE parked_at IS NOT NULL) FROM " + outboxTable + " WHERE processed = false";
+    }
+
+    @Override
+    public void append(OutboxMessage message) {
+        entityManager.createNativeQuery(insertSql)
+                .setParameter("id", message.id())
+                .setParameter("aggregateType", message.aggregateType())
+                .setParameter("aggregateId", message.aggregateId())
+                .setParameter("eventType", message.eventType())
+                .setParameter("priority", message.priority().level())
+                .setParameter("contentType", message.contentType())
+                .setParameter("payload", message.payload())
+                .setParameter("createdAt", message.createdAt())
+                .executeUpdate();
+    }
+
+    @Override
+    public List<OutboxMessage> claimPending(int lane, int lanes, int limit, int bulkReserve) {
+        Integer[] slots = ((List<?>) entityManager.createNativeQuery(LOCK_SLOTS_SQL)
+                .setParameter("slots", OutboxLanes.slots(lane, lanes))
+                .setParameter("key", lockKey)
+                .getResultList()).stream()
+                .map(slot -> ((Number) slot).intValue())
+                .toArray(Integer[]::new);
+        if (slots.length == 0) {
+            return List.of();
+        }
+        List<OutboxMessage> interactive = claim(claimInteractiveSql, slots, Math.max(0, limit - bulkReserve));
+        List<OutboxMessage> bulk = claim(claimBulkSql, slots, limit - interactive.size());
+        return Stream.concat(interactive.stream(), bulk.stream())
+                .sorted(Comparator.comparing(OutboxMessage::createdAt))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxMessage> claim(String sql, Integer[] slots, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("slots", slots)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new OutboxMessage(
+                        UUID.fromString(String.valueOf(row[0])),
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        OutboxPriority.fromLevel(((Number) row[4]).intValue()),
+                        (String) row[5],
+                        (byte[]) row[6],
+                        toOffsetDateTime(row[7])))
+                .toList();
+    }
+
+    /**
+     * Mesma consulta do {@code JdbcOutboxStore}, com parâmetros nomeados.
+     */
+    private static String claimSql(String table, String priorityFilter) {
+        return "SELECT e.id, e.aggregate_type, e.aggregate_id, e.event_type, e.priority, e.content_type, e.payload, e.created_at" +
+                " FROM " + table + " e" +
+                " WHERE e.processed = false AND e.parked_at IS NULL" +
+                " AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= now())" +
+                " AND e.lane_slot = ANY(CAST(:slots AS int[]))" +
+                " AND " + priorityFilter +
+                " AND NOT EXISTS (SELECT 1 FROM " + table + " o" +
+                " WHERE o.processed = false AND o.parked_at IS NULL AND o.aggregate_id = e.aggregate_id" +
+                " AND o.created_at < e.created_at AND (o.priority <> e.priority OR o.next_attempt_at > now()))" +
+                " ORDER BY e.created_at ASC" +
+                " LIMIT :limit" +
+                " FOR UPDATE OF e SKIP LOCKED";
+    }
+
+    @Override
+    public int markProcessed(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createNativeQuery(markProcessedSql)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * Um UPDATE por evento (falhas são raras) e uma consulta para descobrir quais foram estacionados.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> markFailed(Map<UUID, String> errors, OutboxRetryPolicy policy) {
+        if (errors.isEmpty()) {
+            return List.of();
+        }
+        errors.forEach((id, error) -> entityManager.createNativeQuery(markFailedSql)
+                .setParameter("error", error)
+                .setParameter("initialBackoff", policy.initialBackoff().toMillis() / 1000.0)
+                .setParameter("maxBackoff", policy.maxBackoff().toMillis() / 1000.0)
+                .setParameter("maxAttempts", policy.maxAttempts())
+                .setParameter("id", id)
+                .executeUpdate());
+        List<Object> parked = entityManager.createNativeQuery(parkedSql)
+                .setParameter("ids", errors.keySet())
+                .getResultList();
+        return parked.stream()
+                .map(id -> UUID.fromString(String.valueOf(id)))
+                .toList();
+    }
+
+    @Override
+    public OutboxBacklog backlog() {
+        Object[] row = (Object[]) entityManager.createNativeQuery(backlogSql).getSingleResult();
+        return new OutboxBacklog(((Number) row[0]).longValue(), row[1] != null ? toOffsetDateTime(row[1]) : null,
+                ((Number) row[2]).longValue());
+    }
+
+    /**
+     * O tipo retornado para {@code timestamptz} em consultas nativas depende do driver e da versão do Hibernate.
+     */
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime;
+        }
+        if (value instanceof Instant instant) {
+            return instant.atOffset(ZoneOffset.UTC);
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant().atOffset(ZoneOffset.UTC);
+        }
+        throw new IllegalStateException("Tipo inesperado para created_at: " + value);
+    }
+}
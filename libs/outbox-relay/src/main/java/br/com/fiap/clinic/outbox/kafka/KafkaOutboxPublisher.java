@@ -0,0 +1,52 @@
+package br.com.fiap.clinic.outbox.kafka;
+
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.spi.OutboxPublisher;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link OutboxPublisher} sobre um {@link KafkaTemplate} de valores binários.
+ * <p>
+ * Usa o aggregateId como chave para garantir particionamento e ordem por agregado. O payload vai como
+ * está gravado no Outbox (JSON ou Smile) e os headers {@value #CONTENT_TYPE_HEADER} e
+ * {@value #EVENT_TYPE_HEADER} permitem ao consumidor escolher o decoder sem abrir o corpo.
+ * <p>
+ * O template é exclusivo do Outbox (criado pela auto-configuração); ao encerrar, a factory de
+ * produtores é destruída junto.
+ */
+@RequiredArgsConstructor
+public class KafkaOutboxPublisher implements OutboxPublisher, DisposableBean {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String topic;
+
+    @Override
+    public CompletableFuture<?> publish(OutboxMessage message) {
+        return kafkaTemplate.send(toRecord(message));
+    }
+
+    protected ProducerRecord<String, byte[]> toRecord(OutboxMessage message) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, message.aggregateId(), message.payload());
+        record.headers()
+                .add(CONTENT_TYPE_HEADER, message.contentType().getBytes(StandardCharsets.UTF_8))
+                .add(EVENT_TYPE_HEADER, message.eventType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    @Override
+    public void destroy() {
+        if (kafkaTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory<String, byte[]> factory) {
+            factory.destroy();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.fiap.clinic.outbox.kafka;
+
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.spi.TransactionalOutboxPublisher;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publisher transacional ({@code outbox.kafka.transactional=true}): cada lote do relay vira uma
+ * transação Kafka, com produtor idempotente.
+ * <p>
+ * O template precisa usar uma factory com {@code transactionIdPrefix}. Os workers do relay obtêm
+ * produtores distintos do cache da factory, então as raias continuam publicando em paralelo.
+ */
+public class KafkaTransactionalOutboxPublisher extends KafkaOutboxPublisher implements TransactionalOutboxPublisher {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    public KafkaTransactionalOutboxPublisher(KafkaTemplate<String, byte[]> kafkaTemplate, String topic) {
+        super(kafkaTemplate, topic);
+        if (!kafkaTemplate.isTransactional()) {
+            throw new IllegalArgumentException("O KafkaTemplate do Outbox transacional precisa de transactionIdPrefix");
+        }
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Envio avulso (ex.: relay CDC) numa transação de um único evento.
+     */
+    @Override
+    public CompletableFuture<?> publish(OutboxMessage message) {
+        return kafkaTemplate.executeInTransaction(operations -> operations.send(toRecord(message)));
+    }
+
+    @Override
+    public void publishInTransaction(List<OutboxMessage> messages, long timeoutNanos) {
+        kafkaTemplate.executeInTransaction(operations -> {
+            List<CompletableFuture<SendResult<String, byte[]>>> sends = messages.stream()
+                    .map(message -> operations.send(toRecord(message)))
+                    .toList();
+            awaitAll(sends, timeoutNanos);
+            return null;
+        });
+    }
+
+    /**
+     * Falha de qualquer envio propaga a exceção e faz o template abortar a transação.
+     */
+    private static void awaitAll(List<? extends CompletableFuture<?>> sends, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        try {
+            for (CompletableFuture<?> send : sends) {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Publicação transacional interrompida", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Lote do Outbox não confirmado pelo broker: " + e.getMessage(), e);
+        }
+    }
+}
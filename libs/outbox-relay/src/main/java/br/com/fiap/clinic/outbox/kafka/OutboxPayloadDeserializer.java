@@ -0,0 +1,68 @@
+package br.com.fiap.clinic.outbox.kafka;
+
+import br.com.fiap.clinic.outbox.jackson.SmileOutboxSerializer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Deserializer Kafka para os eventos publicados pelo Outbox, em JSON ou Smile.
+ * <p>
+ * O formato vem do header {@value KafkaOutboxPublisher#CONTENT_TYPE_HEADER}; sem ele (mensagens antigas ou
+ * produtores externos), o cabeçalho {@code :)\n} do Smile identifica o binário e o resto é tratado como JSON.
+ * Assim os consumidores aceitam os dois formatos durante a troca de {@code outbox.encoding}.
+ */
+public class OutboxPayloadDeserializer<T> implements Deserializer<T> {
+
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private final Class<T> targetType;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+
+    public OutboxPayloadDeserializer(Class<T> targetType) {
+        this(targetType, new ObjectMapper().findAndRegisterModules());
+    }
+
+    public OutboxPayloadDeserializer(Class<T> targetType, ObjectMapper objectMapper) {
+        this.targetType = targetType;
+        this.jsonMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.smileMapper = jsonMapper.copyWith(new SmileFactory());
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ObjectMapper mapper = isSmile(headers, data) ? smileMapper : jsonMapper;
+        try {
+            return mapper.readValue(data, targetType);
+        } catch (IOException e) {
+            throw new SerializationException("Erro ao desserializar evento do tópico " + topic, e);
+        }
+    }
+
+    private static boolean isSmile(Headers headers, byte[] data) {
+        Header contentType = headers != null ? headers.lastHeader(KafkaOutboxPublisher.CONTENT_TYPE_HEADER) : null;
+        if (contentType != null) {
+            return SmileOutboxSerializer.CONTENT_TYPE.equals(new String(contentType.value(), StandardCharsets.UTF_8));
+        }
+        return data.length >= SMILE_HEADER.length
+                && data[0] == SMILE_HEADER[0]
+                && data[1] == SMILE_HEADER[1]
+                && data[2] == SMILE_HEADER[2];
+    }
+}
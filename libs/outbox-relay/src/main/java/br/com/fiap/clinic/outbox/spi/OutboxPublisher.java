@@ -0,0 +1,16 @@
+package br.com.fiap.clinic.outbox.spi;
+
+import br.com.fiap.clinic.outbox.OutboxMessage;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publica eventos do Outbox no broker.
+ * <p>
+ * O envio deve ser assíncrono: o relay dispara todos os eventos do lote e só depois aguarda
+ * os futures, marcando como processados apenas os que completarem com sucesso.
+ */
+public interface OutboxPublisher {
+
+    CompletableFuture<?> publish(OutboxMessage message);
+}
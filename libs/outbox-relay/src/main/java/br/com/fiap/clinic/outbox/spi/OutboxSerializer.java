@@ -0,0 +1,17 @@
+package br.com.fiap.clinic.outbox.spi;
+
+/**
+ * Converte o payload de domínio no formato armazenado no Outbox e publicado no broker.
+ * <p>
+ * Os bytes produzidos são gravados como estão ({@code bytea}) e enviados ao broker sem conversão;
+ * o {@link #contentType()} acompanha cada evento para que os consumidores saibam decodificá-lo.
+ */
+public interface OutboxSerializer {
+
+    String contentType();
+
+    /**
+     * @throws IllegalArgumentException se o payload não puder ser serializado
+     */
+    byte[] serialize(Object payload);
+}
@@ -0,0 +1,71 @@
+package br.com.fiap.clinic.outbox.spi;
+
+import br.com.fiap.clinic.outbox.OutboxBacklog;
+import br.com.fiap.clinic.outbox.OutboxLanes;
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.OutboxRetryPolicy;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persistência do Outbox.
+ * <p>
+ * Todas as operações participam da transação corrente: {@link #append} deve rodar na mesma transação
+ * da regra de negócio, e {@link #claimPending} mantém os locks das linhas até o commit do lote.
+ */
+public interface OutboxStore {
+
+    /**
+     * Grava um novo evento no Outbox.
+     */
+    void append(OutboxMessage message);
+
+    /**
+     * Grava vários eventos na transação corrente. A implementação padrão grava um por um; stores que
+     * suportam lote devem sobrescrever.
+     */
+    default void appendAll(List<OutboxMessage> messages) {
+        messages.forEach(this::append);
+    }
+
+    /**
+     * Reivindica até {@code limit} eventos pendentes da raia {@code lane}, devolvidos na ordem de criação.
+     * <p>
+     * Cada agregado pertence a um único slot e, por ele, a uma única raia ({@link OutboxLanes}). Os slots da raia
+     * são travados até o fim da transação, para que apenas um worker (em qualquer réplica) publique cada slot por
+     * vez e a ordem por agregado seja preservada; os já travados ficam de fora, e se todos estiverem travados
+     * retorna uma lista vazia.
+     * <p>
+     * Os eventos interativos são reivindicados primeiro, até {@code limit - bulkReserve}; os de massa completam
+     * o lote, com no mínimo {@code bulkReserve} vagas. Um evento nunca passa à frente de um pendente mais antigo
+     * do mesmo agregado com outra prioridade ou aguardando nova tentativa.
+     * <p>
+     * Eventos em espera ({@code next_attempt_at} no futuro) e estacionados não são reivindicados.
+     */
+    List<OutboxMessage> claimPending(int lane, int lanes, int limit, int bulkReserve);
+
+    /**
+     * Marca os eventos informados como processados.
+     *
+     * @return quantidade de linhas atualizadas
+     */
+    int markProcessed(Collection<UUID> ids);
+
+    /**
+     * Registra uma tentativa rejeitada para cada evento informado: incrementa o contador, guarda o erro e
+     * agenda a próxima tentativa conforme a política. Os que atingirem {@code maxAttempts} são estacionados.
+     *
+     * @param errors mensagem de erro por id de evento
+     * @return ids dos eventos estacionados nesta chamada
+     */
+    List<UUID> markFailed(Map<UUID, String> errors, OutboxRetryPolicy policy);
+
+    /**
+     * Quantidade de pendentes, criação do mais antigo e estacionados, para as métricas de lag do relay.
+     * Roda fora de transação e não trava linhas.
+     */
+    OutboxBacklog backlog();
+}
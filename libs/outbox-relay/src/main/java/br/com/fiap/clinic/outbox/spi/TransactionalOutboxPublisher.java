@@ -0,0 +1,21 @@
+package br.com.fiap.clinic.outbox.spi;
+
+import br.com.fiap.clinic.outbox.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * {@link OutboxPublisher} capaz de publicar um lote inteiro numa transação do broker.
+ * <p>
+ * Quando o publisher implementa esta interface, o relay publica cada lote de uma vez: ou todos os eventos
+ * ficam visíveis para consumidores {@code read_committed}, ou nenhum. A transação do broker é confirmada
+ * antes do commit da transação do banco que marca o lote como processado.
+ */
+public interface TransactionalOutboxPublisher extends OutboxPublisher {
+
+    /**
+     * Envia o lote e confirma a transação do broker, aguardando os acks por no máximo {@code timeoutNanos}.
+     * Qualquer falha aborta a transação inteira e é propagada.
+     */
+    void publishInTransaction(List<OutboxMessage> messages, long timeoutNanos);
+}
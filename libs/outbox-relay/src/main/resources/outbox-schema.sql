@@ -0,0 +1,42 @@
+-- outbox-schema.sql
+-- Esquema mínimo esperado pela lib outbox-relay. Copie para uma migration do serviço que adotar o Outbox.
+-- Para particionamento mensal (outbox.partition.enabled=true) veja a V5 e a V15 do scheduler-service.
+-- O payload é binário (JSON UTF-8 ou Smile, conforme outbox.encoding) e o formato fica em content_type.
+-- Eventos rejeitados pelo broker são reagendados (attempts/next_attempt_at) e, esgotadas as tentativas,
+-- estacionados (parked_at); para reenviar um estacionado: UPDATE ... SET parked_at = NULL, attempts = 0.
+
+CREATE TABLE outbox_events (
+                               id UUID PRIMARY KEY,
+                               aggregate_type VARCHAR(255) NOT NULL,
+                               aggregate_id VARCHAR(255) NOT NULL,
+                               event_type VARCHAR(255) NOT NULL,
+                               priority SMALLINT NOT NULL DEFAULT 0,
+                               content_type VARCHAR(100) NOT NULL DEFAULT 'application/json',
+                               payload BYTEA NOT NULL,
+                               processed BOOLEAN NOT NULL DEFAULT false,
+                               attempts INT NOT NULL DEFAULT 0,
+                               next_attempt_at TIMESTAMPTZ,
+                               last_error TEXT,
+                               parked_at TIMESTAMPTZ,
+                               created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                               -- Slot da raia do agregado (ver OutboxLanes): o relay filtra por ele sem recalcular o hash
+                               lane_slot SMALLINT GENERATED ALWAYS AS ((hashtext(aggregate_id) & 2147483647) % 64) STORED
+);
+
+-- Índices parciais: cobrem apenas os pendentes, que é o que o relay consulta
+-- (slots da raia, ordem por prioridade/criação e guarda de ordem por agregado)
+CREATE INDEX idx_outbox_events_pending ON outbox_events (lane_slot, priority, created_at) WHERE processed = false;
+CREATE INDEX idx_outbox_events_pending_aggregate ON outbox_events (aggregate_id, created_at) WHERE processed = false;
+
+-- Acorda o relay via LISTEN/NOTIFY (outbox.relay.notify.enabled=true)
+CREATE OR REPLACE FUNCTION notify_outbox_events() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('outbox_events', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_outbox_events_notify
+    AFTER INSERT ON outbox_events
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_outbox_events();
@@ -0,0 +1,164 @@
+package br.com.fiap.clinic.outbox.integration;
+
+import br.com.fiap.clinic.outbox.Outbox;
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.OutboxMetrics;
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.cdc.OutboxCdcRelay;
+import br.com.fiap.clinic.outbox.jackson.JacksonOutboxSerializer;
+import br.com.fiap.clinic.outbox.jdbc.JdbcOutboxStore;
+import br.com.fiap.clinic.outbox.spi.OutboxPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Testes de Integração - Relay CDC do Outbox")
+class OutboxCdcRelayTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withCommand("postgres", "-c", "wal_level=logical");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private final List<OutboxMessage> published = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean brokerAvailable = new AtomicBoolean(true);
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    private OutboxProperties properties;
+    private Outbox outbox;
+    private OutboxCdcRelay relay;
+
+    @BeforeAll
+    static void createSchema() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        jdbcTemplate.execute("""
+                CREATE TABLE outbox_events (
+                    id UUID PRIMARY KEY,
+                    aggregate_type VARCHAR(255) NOT NULL,
+                    aggregate_id VARCHAR(255) NOT NULL,
+                    event_type VARCHAR(255) NOT NULL,
+                    priority SMALLINT NOT NULL DEFAULT 0,
+                    content_type VARCHAR(100) NOT NULL DEFAULT 'application/json',
+                    payload BYTEA NOT NULL,
+                    processed BOOLEAN NOT NULL DEFAULT false,
+                    attempts INT NOT NULL DEFAULT 0,
+                    next_attempt_at TIMESTAMPTZ,
+                    last_error TEXT,
+                    parked_at TIMESTAMPTZ,
+                    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )""");
+    }
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setMode(OutboxProperties.Mode.CDC);
+        properties.getCdc().setStatusInterval(Duration.ofMillis(200));
+        properties.getCdc().setReconnectDelay(Duration.ofMillis(200));
+        properties.getRelay().setAckTimeout(Duration.ofSeconds(1));
+
+        outbox = new Outbox(new JdbcOutboxStore(jdbcTemplate, "outbox_events", true),
+                new JacksonOutboxSerializer(new ObjectMapper()));
+        relay = newRelay();
+        relay.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    private OutboxCdcRelay newRelay() {
+        Properties replication = new Properties();
+        PGProperty.REPLICATION.set(replication, "database");
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(replication, "10");
+        PGProperty.PREFER_QUERY_MODE.set(replication, "simple");
+        DriverManagerDataSource replicationSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        replicationSource.setConnectionProperties(replication);
+
+        OutboxPublisher publisher = message -> {
+            if (!brokerAvailable.get()) {
+                rejected.incrementAndGet();
+                return CompletableFuture.failedFuture(new IllegalStateException("broker indisponível"));
+            }
+            published.add(message);
+            return CompletableFuture.completedFuture(null);
+        };
+        return new OutboxCdcRelay(replicationSource, jdbcTemplate, publisher,
+                new OutboxMetrics(new SimpleMeterRegistry()), properties);
+    }
+
+    private String confirmedFlushLsn() {
+        return jdbcTemplate.queryForObject(
+                "SELECT confirmed_flush_lsn::text FROM pg_replication_slots WHERE slot_name = 'outbox_slot'",
+                String.class);
+    }
+
+    @Test
+    @DisplayName("Deve publicar os eventos lidos do WAL e confirmar o LSN após o ack")
+    void devePublicarEventosDoWalEConfirmarLsn() {
+        // Arrange
+        await().atMost(Duration.ofSeconds(10)).until(() -> confirmedFlushLsn() != null);
+        String lsnBefore = confirmedFlushLsn();
+
+        // Act
+        OutboxMessage appended = outbox.append("Appointment", "a1", "AppointmentCreated", Map.of("status", "SCHEDULED"));
+
+        // Assert
+        await().atMost(Duration.ofSeconds(10)).until(() -> published.stream().anyMatch(m -> m.id().equals(appended.id())));
+        OutboxMessage received = published.stream().filter(m -> m.id().equals(appended.id())).findFirst().orElseThrow();
+        assertThat(received.aggregateId()).isEqualTo("a1");
+        assertThat(received.eventType()).isEqualTo("AppointmentCreated");
+        assertThat(new String(received.payload(), StandardCharsets.UTF_8)).isEqualTo("{\"status\":\"SCHEDULED\"}");
+        await().atMost(Duration.ofSeconds(10)).until(() -> !confirmedFlushLsn().equals(lsnBefore));
+        // No modo CDC o evento já é gravado como processado: nada para o polling nem para o índice de pendentes
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_events WHERE processed = false",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve reenviar a partir do último LSN confirmado quando o broker falhar")
+    void deveReenviarQuandoBrokerFalhar() {
+        // Arrange
+        await().atMost(Duration.ofSeconds(10)).until(() -> confirmedFlushLsn() != null);
+        brokerAvailable.set(false);
+
+        // Act
+        OutboxMessage appended = outbox.append("Appointment", "a2", "AppointmentCancelled", Map.of("status", "CANCELLED"));
+        await().atMost(Duration.ofSeconds(10)).until(() -> rejected.get() > 0);
+        String lsnWhileDown = confirmedFlushLsn();
+        brokerAvailable.set(true);
+
+        // Assert
+        assertThat(published).noneMatch(m -> m.id().equals(appended.id()));
+        await().atMost(Duration.ofSeconds(15)).until(() -> published.stream().anyMatch(m -> m.id().equals(appended.id())));
+        await().atMost(Duration.ofSeconds(10)).until(() -> !confirmedFlushLsn().equals(lsnWhileDown));
+    }
+}
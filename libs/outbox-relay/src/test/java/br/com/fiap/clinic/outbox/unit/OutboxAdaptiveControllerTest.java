@@ -0,0 +1,117 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.OutboxAdaptiveController;
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - OutboxAdaptiveController")
+class OutboxAdaptiveControllerTest {
+
+    private static final long FAST_ACK = Duration.ofMillis(50).toNanos();
+    private static final long SLOW_ACK = Duration.ofSeconds(2).toNanos();
+
+    private OutboxProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.getBatch().setSize(50);
+        properties.getPoll().setDelay(Duration.ofSeconds(30));
+        OutboxProperties.Adaptive adaptive = properties.getRelay().getAdaptive();
+        adaptive.setEnabled(true);
+        adaptive.setMinBatchSize(10);
+        adaptive.setMaxBatchSize(400);
+        adaptive.setTargetAckLatency(Duration.ofMillis(500));
+        adaptive.setMinPollDelay(Duration.ofSeconds(1));
+        adaptive.setMaxPollDelay(Duration.ofSeconds(60));
+    }
+
+    @Test
+    @DisplayName("Deve dobrar o lote até o máximo enquanto os lotes voltarem cheios e rápidos")
+    void deveCrescerLoteComFilaCheia() {
+        // Arrange
+        OutboxAdaptiveController controller = new OutboxAdaptiveController(properties);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            int limit = controller.batchSize();
+            controller.onBatch(limit, limit, limit, FAST_ACK);
+        }
+
+        // Assert
+        assertThat(controller.batchSize()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("Deve reduzir o lote pela metade quando os acks passarem da latência alvo ou falharem")
+    void deveEncolherLoteComBrokerLento() {
+        // Arrange
+        OutboxAdaptiveController controller = new OutboxAdaptiveController(properties);
+
+        // Act
+        controller.onBatch(50, 50, 50, SLOW_ACK);
+        int afterSlowAck = controller.batchSize();
+        controller.onBatch(25, 25, 20, FAST_ACK);
+        int afterFailure = controller.batchSize();
+        controller.onBatch(12, 12, 0, FAST_ACK);
+
+        // Assert
+        assertThat(afterSlowAck).isEqualTo(25);
+        assertThat(afterFailure).isEqualTo(12);
+        assertThat(controller.batchSize()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Deve manter o lote quando a fila couber em um lote incompleto")
+    void deveManterLoteComFilaPequena() {
+        // Arrange
+        OutboxAdaptiveController controller = new OutboxAdaptiveController(properties);
+
+        // Act
+        controller.onBatch(50, 7, 7, FAST_ACK);
+
+        // Assert
+        assertThat(controller.batchSize()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Deve espaçar o poll em ciclos vazios e voltar ao mínimo quando houver eventos")
+    void deveAjustarIntervaloDoPoll() {
+        // Arrange
+        OutboxAdaptiveController controller = new OutboxAdaptiveController(properties);
+
+        // Act
+        controller.onCycle(0);
+        Duration afterIdle = controller.pollDelay();
+        controller.onCycle(0);
+        Duration atMax = controller.pollDelay();
+        controller.onCycle(120);
+
+        // Assert
+        assertThat(afterIdle).isEqualTo(Duration.ofSeconds(60));
+        assertThat(atMax).isEqualTo(Duration.ofSeconds(60));
+        assertThat(controller.pollDelay()).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Deve usar os valores fixos quando o controle adaptativo estiver desligado")
+    void deveUsarValoresFixosQuandoDesligado() {
+        // Arrange
+        properties.getRelay().getAdaptive().setEnabled(false);
+        OutboxAdaptiveController controller = new OutboxAdaptiveController(properties);
+
+        // Act
+        controller.onBatch(50, 50, 50, FAST_ACK);
+        controller.onCycle(0);
+
+        // Assert
+        assertThat(controller.batchSize()).isEqualTo(50);
+        assertThat(controller.pollDelay()).isEqualTo(Duration.ofSeconds(30));
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.OutboxBacklog;
+import br.com.fiap.clinic.outbox.OutboxBacklogMonitor;
+import br.com.fiap.clinic.outbox.OutboxMetrics;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - OutboxBacklogMonitor")
+class OutboxBacklogMonitorTest {
+
+    @Mock
+    private OutboxStore store;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        new OutboxMetrics(meterRegistry).registerBacklog(new OutboxBacklogMonitor(store, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("Deve expor pendentes, idade do mais antigo e estacionados com uma única consulta")
+    void deveExporLagComUmaConsulta() {
+        // Arrange
+        when(store.backlog()).thenReturn(new OutboxBacklog(12, OffsetDateTime.now().minusMinutes(5), 3));
+
+        // Act
+        double pending = meterRegistry.get("outbox.pending").gauge().value();
+        double age = meterRegistry.get("outbox.pending.oldest.age").gauge().value();
+        double parked = meterRegistry.get("outbox.parked").gauge().value();
+
+        // Assert
+        assertThat(pending).isEqualTo(12);
+        assertThat(age).isBetween(300.0, 310.0);
+        assertThat(parked).isEqualTo(3);
+        verify(store, times(1)).backlog();
+    }
+
+    @Test
+    @DisplayName("Deve reportar idade zero quando não há pendentes")
+    void deveReportarIdadeZeroSemPendentes() {
+        // Arrange
+        when(store.backlog()).thenReturn(new OutboxBacklog(0, null, 0));
+
+        // Act
+        double age = meterRegistry.get("outbox.pending.oldest.age").gauge().value();
+
+        // Assert
+        assertThat(age).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve reportar NaN quando a consulta ao store falhar")
+    void deveReportarNaNQuandoConsultaFalhar() {
+        // Arrange
+        when(store.backlog()).thenThrow(new IllegalStateException("banco indisponível"));
+
+        // Act
+        double pending = meterRegistry.get("outbox.pending").gauge().value();
+
+        // Assert
+        assertThat(pending).isNaN();
+    }
+}
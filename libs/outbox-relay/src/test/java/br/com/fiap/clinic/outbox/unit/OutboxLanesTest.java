@@ -0,0 +1,46 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.OutboxLanes;
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - OutboxLanes")
+class OutboxLanesTest {
+
+    @Test
+    @DisplayName("Deve colocar cada slot em exatamente uma raia, qualquer que seja a quantidade de raias")
+    void deveColocarCadaSlotEmUmaUnicaRaia() {
+        for (int lanes = 1; lanes <= OutboxLanes.SLOTS; lanes++) {
+            // Act
+            List<Integer> assigned = new ArrayList<>();
+            for (int lane = 0; lane < lanes; lane++) {
+                assigned.addAll(Arrays.asList(OutboxLanes.slots(lane, lanes)));
+            }
+
+            // Assert
+            // Um agregado (um slot) nunca é drenado por duas raias ao mesmo tempo: é isso que mantém a ordem
+            assertThat(assigned).containsExactlyInAnyOrderElementsOf(
+                    IntStream.range(0, OutboxLanes.SLOTS).boxed().toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aceitar menos raias do que workers, que apenas ficam ociosos")
+    void deveAceitarMenosRaiasQueWorkers() {
+        // Arrange
+        OutboxProperties.Relay relay = new OutboxProperties().getRelay();
+        relay.setWorkers(4);
+        relay.setLanes(2);
+
+        // Act & Assert
+        assertThat(OutboxLanes.validate(relay)).isEqualTo(2);
+    }
+}
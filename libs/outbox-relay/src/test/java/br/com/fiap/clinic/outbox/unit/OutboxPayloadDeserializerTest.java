@@ -0,0 +1,68 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.jackson.JacksonOutboxSerializer;
+import br.com.fiap.clinic.outbox.jackson.SmileOutboxSerializer;
+import br.com.fiap.clinic.outbox.kafka.KafkaOutboxPublisher;
+import br.com.fiap.clinic.outbox.kafka.OutboxPayloadDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - OutboxPayloadDeserializer")
+class OutboxPayloadDeserializerTest {
+
+    record Event(String appointmentId, String status) {
+    }
+
+    private final OutboxPayloadDeserializer<Event> deserializer = new OutboxPayloadDeserializer<>(Event.class);
+
+    @Test
+    @DisplayName("Deve desserializar JSON ignorando campos desconhecidos")
+    void deveDesserializarJson() {
+        // Arrange
+        byte[] data = "{\"appointmentId\":\"42\",\"status\":\"SCHEDULED\",\"extra\":1}".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        Event event = deserializer.deserialize("appointment-events", new RecordHeaders(), data);
+
+        // Assert
+        assertThat(event).isEqualTo(new Event("42", "SCHEDULED"));
+    }
+
+    @Test
+    @DisplayName("Deve detectar Smile pelo cabeçalho binário quando não houver header content-type")
+    void deveDetectarSmileSemHeader() {
+        // Arrange
+        byte[] data = new SmileOutboxSerializer(new ObjectMapper())
+                .serialize(Map.of("appointmentId", "42", "status", "CONFIRMED"));
+
+        // Act
+        Event event = deserializer.deserialize("appointment-events", data);
+
+        // Assert
+        assertThat(event).isEqualTo(new Event("42", "CONFIRMED"));
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o header content-type publicado pelo Outbox")
+    void deveRespeitarHeaderContentType() {
+        // Arrange
+        byte[] data = new JacksonOutboxSerializer(new ObjectMapper())
+                .serialize(Map.of("appointmentId", "42", "status", "CANCELLED"));
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaOutboxPublisher.CONTENT_TYPE_HEADER,
+                JacksonOutboxSerializer.CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        Event event = deserializer.deserialize("appointment-events", headers, data);
+
+        // Assert
+        assertThat(event).isEqualTo(new Event("42", "CANCELLED"));
+    }
+}
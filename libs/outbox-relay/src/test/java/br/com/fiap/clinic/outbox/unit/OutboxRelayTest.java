@@ -0,0 +1,458 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.OutboxLanes;
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.OutboxMetrics;
+import br.com.fiap.clinic.outbox.OutboxPriority;
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.OutboxRelay;
+import br.com.fiap.clinic.outbox.jackson.JacksonOutboxSerializer;
+import br.com.fiap.clinic.outbox.spi.OutboxPublisher;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import br.com.fiap.clinic.outbox.spi.TransactionalOutboxPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.BufferExhaustedException;
+import org.apache.kafka.common.InvalidRecordException;
+import org.apache.kafka.common.errors.NetworkException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.errors.TopicAuthorizationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - OutboxRelay")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxStore store;
+
+    @Mock
+    private OutboxPublisher publisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.getBatch().setSize(2);
+        properties.getRelay().setWorkers(1);
+        properties.getRelay().setLanes(1);
+        meterRegistry = new SimpleMeterRegistry();
+
+        relay = new OutboxRelay(store, publisher, new TransactionTemplate(transactionManager),
+                new OutboxMetrics(meterRegistry), properties);
+        relay.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    private void restartWithLanes(int lanes) {
+        relay.stop();
+        OutboxProperties properties = new OutboxProperties();
+        properties.getBatch().setSize(2);
+        properties.getRelay().setWorkers(2);
+        properties.getRelay().setLanes(lanes);
+        relay = new OutboxRelay(store, publisher, new TransactionTemplate(transactionManager),
+                new OutboxMetrics(meterRegistry), properties);
+        relay.start();
+    }
+
+    private void restartWith(OutboxPublisher otherPublisher) {
+        relay.stop();
+        OutboxProperties properties = new OutboxProperties();
+        properties.getBatch().setSize(2);
+        properties.getRelay().setWorkers(1);
+        properties.getRelay().setLanes(1);
+        relay = new OutboxRelay(store, otherPublisher, new TransactionTemplate(transactionManager),
+                new OutboxMetrics(meterRegistry), properties);
+        relay.start();
+    }
+
+    private OutboxMessage message(String aggregateId) {
+        return new OutboxMessage(UUID.randomUUID(), "Appointment", aggregateId, "AppointmentCreated",
+                OutboxPriority.INTERACTIVE, JacksonOutboxSerializer.CONTENT_TYPE, "{}".getBytes(StandardCharsets.UTF_8), OffsetDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Deve drenar lotes sucessivos até encontrar um lote incompleto")
+    void deveDrenarLotesAteEsvaziar() {
+        // Arrange
+        OutboxMessage first = message("a1");
+        OutboxMessage second = message("a2");
+        OutboxMessage third = message("a3");
+        when(store.claimPending(0, 1, 2, 1))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(any());
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store, times(2)).claimPending(0, 1, 2, 1);
+        verify(publisher).publish(first);
+        verify(publisher).publish(second);
+        verify(publisher).publish(third);
+        verify(store).markProcessed(List.of(first.id(), second.id()));
+        verify(store).markProcessed(List.of(third.id()));
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(meterRegistry.counter("outbox.relay.published", "event_type", "AppointmentCreated").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Não deve publicar nada quando não há eventos pendentes")
+    void naoDevePublicarSemEventosPendentes() {
+        // Arrange
+        when(store.claimPending(anyInt(), anyInt(), anyInt(), anyInt())).thenReturn(Collections.emptyList());
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verifyNoInteractions(publisher);
+        verify(store, never()).markProcessed(any());
+    }
+
+    @Test
+    @DisplayName("Deve marcar como processados apenas os eventos confirmados pelo broker")
+    void deveMarcarApenasEventosConfirmados() {
+        // Arrange
+        OutboxMessage acked = message("a1");
+        OutboxMessage rejected = message("a2");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(acked, rejected)).thenReturn(Collections.emptyList());
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(acked);
+        doReturn(CompletableFuture.failedFuture(new SerializationException("payload inválido")))
+                .when(publisher).publish(rejected);
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store).markProcessed(List.of(acked.id()));
+        verify(store).markFailed(eq(Map.of(rejected.id(), "org.apache.kafka.common.errors.SerializationException: payload inválido")), any());
+        // O rejeitado foi adiado pelo backoff, então a raia segue drenando no mesmo ciclo
+        verify(store, times(2)).claimPending(0, 1, 2, 1);
+        assertThat(meterRegistry.counter("outbox.relay.failed", "event_type", "AppointmentCreated").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("outbox.relay.send.latency",
+                "event_type", "AppointmentCreated", "outcome", "failure").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("outbox.relay.send.latency",
+                "event_type", "AppointmentCreated", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve marcar evento quando o envio falhar de forma síncrona")
+    void naoDeveMarcarEventoQuandoEnvioFalhar() {
+        // Arrange
+        OutboxMessage failing = message("a1");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(failing));
+        when(publisher.publish(any())).thenThrow(new BufferExhaustedException("buffer cheio"));
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store).markProcessed(Collections.emptyList());
+        // Buffer cheio é falha retriável do broker: não conta tentativa
+        verify(store, never()).markFailed(anyMap(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve confirmar eventos posteriores do mesmo agregado após uma falha")
+    void naoDeveConfirmarEventosPosterioresDoAgregadoComFalha() {
+        // Arrange
+        OutboxMessage failed = message("a1");
+        OutboxMessage other = message("a2");
+        OutboxMessage afterFailure = message("a1");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(failed, other, afterFailure)).thenReturn(Collections.emptyList());
+        doReturn(CompletableFuture.failedFuture(new InvalidRecordException("registro inválido")))
+                .when(publisher).publish(failed);
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(other);
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(afterFailure);
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        // O agregado a2 segue normalmente; o segundo evento de a1 fica pendente para ser reenviado depois do primeiro
+        verify(store).markProcessed(List.of(other.id()));
+        verify(store).markFailed(eq(Map.of(failed.id(), "org.apache.kafka.common.InvalidRecordException: registro inválido")), any());
+    }
+
+    @Test
+    @DisplayName("Deve estacionar o evento que esgotou as tentativas")
+    void deveEstacionarEventoQueEsgotouTentativas() {
+        // Arrange
+        OutboxMessage acked = message("a1");
+        OutboxMessage poison = message("a2");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(acked, poison)).thenReturn(Collections.emptyList());
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(acked);
+        doReturn(CompletableFuture.failedFuture(new SerializationException("payload inválido")))
+                .when(publisher).publish(poison);
+        when(store.markFailed(anyMap(), any())).thenReturn(List.of(poison.id()));
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store).markProcessed(List.of(acked.id()));
+        assertThat(meterRegistry.counter("outbox.relay.parked", "event_type", "AppointmentCreated").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve estacionar evento defeituoso sozinho no lote, mesmo sem nenhum ack")
+    void deveEstacionarEventoDefeituosoSozinhoNoLote() {
+        // Arrange
+        OutboxMessage poison = message("a1");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(poison));
+        doReturn(CompletableFuture.failedFuture(new RecordTooLargeException("registro grande demais")))
+                .when(publisher).publish(poison);
+        when(store.markFailed(anyMap(), any())).thenReturn(List.of(poison.id()));
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store).markFailed(eq(Map.of(poison.id(),
+                "org.apache.kafka.common.errors.RecordTooLargeException: registro grande demais")), any());
+        assertThat(meterRegistry.counter("outbox.relay.parked", "event_type", "AppointmentCreated").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve enviar eventos posteriores do agregado quando o envio falhar de forma síncrona")
+    void naoDeveEnviarEventosPosterioresDoAgregadoRejeitado() {
+        // Arrange
+        OutboxMessage rejected = message("a1");
+        OutboxMessage afterRejection = message("a1");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(rejected, afterRejection));
+        when(publisher.publish(rejected)).thenThrow(new RuntimeException("buffer cheio"));
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(publisher, never()).publish(afterRejection);
+        verify(store).markProcessed(Collections.emptyList());
+    }
+
+    @Test
+    @DisplayName("Deve recusar mais raias do que slots")
+    void deveRecusarMaisRaiasQueSlots() {
+        // Arrange
+        OutboxProperties properties = new OutboxProperties();
+        properties.getRelay().setLanes(OutboxLanes.SLOTS + 1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        OutboxMetrics metrics = new OutboxMetrics(meterRegistry);
+
+        // Act & Assert
+        assertThatThrownBy(() -> new OutboxRelay(store, publisher, transactionTemplate, metrics, properties))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("entre 1 e 64");
+    }
+
+    @Test
+    @DisplayName("Deve drenar cada raia em sua própria transação")
+    void deveDrenarCadaRaiaIndependentemente() {
+        // Arrange
+        restartWithLanes(3);
+        OutboxMessage first = message("a1");
+        OutboxMessage second = message("a2");
+        when(store.claimPending(anyInt(), eq(3), eq(2), eq(1))).thenReturn(Collections.emptyList());
+        when(store.claimPending(0, 3, 2, 1)).thenReturn(List.of(first));
+        when(store.claimPending(2, 3, 2, 1)).thenReturn(List.of(second));
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(any());
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store).claimPending(0, 3, 2, 1);
+        verify(store).claimPending(1, 3, 2, 1);
+        verify(store).claimPending(2, 3, 2, 1);
+        verify(store).markProcessed(List.of(first.id()));
+        verify(store).markProcessed(List.of(second.id()));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve publicar o lote numa transação do broker e marcar todos os eventos")
+    void devePublicarLoteEmTransacaoDoBroker() {
+        // Arrange
+        TransactionalOutboxPublisher transactional = mock(TransactionalOutboxPublisher.class);
+        restartWith(transactional);
+        OutboxMessage first = message("a1");
+        OutboxMessage second = message("a1");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(first, second)).thenReturn(Collections.emptyList());
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(transactional).publishInTransaction(eq(List.of(first, second)), anyLong());
+        verify(transactional, never()).publish(any());
+        verify(store).markProcessed(List.of(first.id(), second.id()));
+    }
+
+    @Test
+    @DisplayName("Não deve marcar nenhum evento do lote quando a transação do broker for abortada")
+    void naoDeveMarcarLoteQuandoTransacaoAbortar() {
+        // Arrange
+        TransactionalOutboxPublisher transactional = mock(TransactionalOutboxPublisher.class);
+        restartWith(transactional);
+        OutboxMessage first = message("a1");
+        OutboxMessage second = message("a2");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(first, second));
+        doThrow(new IllegalStateException("transação abortada", new NetworkException("broker indisponível")))
+                .when(transactional).publishInTransaction(anyList(), anyLong());
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        // Falha do broker: o lote não é reenviado evento a evento nem conta tentativa
+        verify(transactional, never()).publish(any());
+        verify(store).markProcessed(Collections.emptyList());
+        verify(store, times(1)).claimPending(0, 1, 2, 1);
+        verify(store, never()).markFailed(anyMap(), any());
+        assertThat(meterRegistry.counter("outbox.relay.failed", "event_type", "AppointmentCreated").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Não deve contar tentativa quando o producer transacional for cercado por outra instância")
+    void naoDeveContarTentativaComProducerCercado() {
+        // Arrange
+        TransactionalOutboxPublisher transactional = mock(TransactionalOutboxPublisher.class);
+        restartWith(transactional);
+        OutboxMessage first = message("a1");
+        OutboxMessage second = message("a2");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(first, second));
+        doThrow(new IllegalStateException("transação abortada", new ProducerFencedException("producer cercado")))
+                .when(transactional).publishInTransaction(anyList(), anyLong());
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        // Atinge o lote todo: não é reenviado evento a evento nem conta tentativa
+        verify(transactional, never()).publish(any());
+        verify(store).markProcessed(Collections.emptyList());
+        verify(store, never()).markFailed(anyMap(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve contar tentativa quando faltar permissão de escrita no tópico")
+    void naoDeveContarTentativaSemPermissaoNoTopico() {
+        // Arrange
+        OutboxMessage first = message("a1");
+        OutboxMessage second = message("a2");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(first, second));
+        doReturn(CompletableFuture.failedFuture(new TopicAuthorizationException("sem permissão no tópico")))
+                .when(publisher).publish(any());
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store).markProcessed(Collections.emptyList());
+        verify(store, never()).markFailed(anyMap(), any());
+        verify(store, times(1)).claimPending(0, 1, 2, 1);
+    }
+
+    @Test
+    @DisplayName("Deve reenviar evento a evento para isolar a falha quando a transação do broker for abortada")
+    void deveIsolarEventoRejeitadoQuandoTransacaoAbortar() {
+        // Arrange
+        TransactionalOutboxPublisher transactional = mock(TransactionalOutboxPublisher.class);
+        restartWith(transactional);
+        OutboxMessage valid = message("a1");
+        OutboxMessage poison = message("a2");
+        when(store.claimPending(0, 1, 2, 1)).thenReturn(List.of(valid, poison)).thenReturn(Collections.emptyList());
+        doThrow(new IllegalStateException("transação abortada", new RecordTooLargeException("registro grande demais")))
+                .when(transactional).publishInTransaction(anyList(), anyLong());
+        doReturn(CompletableFuture.completedFuture(null)).when(transactional).publish(valid);
+        doReturn(CompletableFuture.failedFuture(new RecordTooLargeException("registro grande demais")))
+                .when(transactional).publish(poison);
+
+        // Act
+        relay.relayPending();
+
+        // Assert
+        verify(store).markProcessed(List.of(valid.id()));
+        verify(store).markFailed(eq(Map.of(poison.id(), "org.apache.kafka.common.errors.RecordTooLargeException: registro grande demais")), any());
+        // Uma latência por evento, do reenvio: a transação abortada não entra na conta
+        assertThat(meterRegistry.timer("outbox.relay.send.latency",
+                "event_type", "AppointmentCreated", "outcome", "success").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("outbox.relay.send.latency",
+                "event_type", "AppointmentCreated", "outcome", "failure").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve aglutinar chamadas concorrentes repetindo o ciclo em vez de disparar outros workers")
+    void deveAglutinarChamadasConcorrentes() throws Exception {
+        // Arrange
+        CountDownLatch claiming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger claims = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(store.claimPending(0, 1, 2, 1)).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            if (claims.incrementAndGet() == 1) {
+                claiming.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            inFlight.decrementAndGet();
+            return Collections.emptyList();
+        });
+        CompletableFuture<Void> running = CompletableFuture.runAsync(relay::relayPending);
+        assertThat(claiming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        // Com um ciclo em andamento, a segunda chamada só pede a repetição e retorna sem esperar
+        relay.relayPending();
+        boolean returnedWhileRunning = !running.isDone();
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(returnedWhileRunning).isTrue();
+        assertThat(maxInFlight.get()).isEqualTo(1);
+        verify(store, times(2)).claimPending(0, 1, 2, 1);
+    }
+}
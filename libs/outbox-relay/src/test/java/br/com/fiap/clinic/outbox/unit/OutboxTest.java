@@ -0,0 +1,115 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.Outbox;
+import br.com.fiap.clinic.outbox.OutboxMessage;
+import br.com.fiap.clinic.outbox.OutboxPriority;
+import br.com.fiap.clinic.outbox.jackson.JacksonOutboxSerializer;
+import br.com.fiap.clinic.outbox.jackson.SmileOutboxSerializer;
+import br.com.fiap.clinic.outbox.spi.OutboxStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - Outbox")
+class OutboxTest {
+
+    @Mock
+    private OutboxStore store;
+
+    private Outbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new Outbox(store, new JacksonOutboxSerializer(new ObjectMapper()));
+    }
+
+    @Test
+    @DisplayName("Deve serializar o payload e gravar o evento no store")
+    void deveSerializarEGravarEvento() {
+        // Act
+        OutboxMessage appended = outbox.append("Appointment", "42", "AppointmentCreated", Map.of("status", "SCHEDULED"));
+
+        // Assert
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(store).append(captor.capture());
+        OutboxMessage stored = captor.getValue();
+        assertThat(stored).isEqualTo(appended);
+        assertThat(stored.id()).isNotNull();
+        assertThat(stored.aggregateType()).isEqualTo("Appointment");
+        assertThat(stored.aggregateId()).isEqualTo("42");
+        assertThat(stored.eventType()).isEqualTo("AppointmentCreated");
+        assertThat(stored.priority()).isEqualTo(OutboxPriority.INTERACTIVE);
+        assertThat(stored.contentType()).isEqualTo(JacksonOutboxSerializer.CONTENT_TYPE);
+        assertThat(new String(stored.payload(), StandardCharsets.UTF_8)).isEqualTo("{\"status\":\"SCHEDULED\"}");
+        assertThat(stored.createdAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve gravar o payload em Smile quando o encoding binário estiver ativo")
+    void deveGravarPayloadEmSmile() throws Exception {
+        // Arrange
+        outbox = new Outbox(store, new SmileOutboxSerializer(new ObjectMapper()));
+
+        // Act
+        OutboxMessage appended = outbox.append("Appointment", "42", "AppointmentCreated", Map.of("status", "SCHEDULED"));
+
+        // Assert
+        assertThat(appended.contentType()).isEqualTo(SmileOutboxSerializer.CONTENT_TYPE);
+        assertThat(appended.payload()).startsWith(':', ')', '\n');
+        JsonNode decoded = new ObjectMapper(new SmileFactory()).readTree(appended.payload());
+        assertThat(decoded.get("status").asText()).isEqualTo("SCHEDULED");
+    }
+
+    @Test
+    @DisplayName("Deve gravar com prioridade de massa os tipos configurados como bulk")
+    void deveGravarTiposBulkComPrioridadeDeMassa() {
+        // Arrange
+        outbox = new Outbox(store, new JacksonOutboxSerializer(new ObjectMapper()), Set.of("AppointmentReminderRequested"));
+
+        // Act
+        OutboxMessage reminder = outbox.append("Appointment", "42", "AppointmentReminderRequested", Map.of());
+        OutboxMessage confirmation = outbox.append("Appointment", "42", "AppointmentConfirmed", Map.of());
+
+        // Assert
+        assertThat(reminder.priority()).isEqualTo(OutboxPriority.BULK);
+        assertThat(confirmation.priority()).isEqualTo(OutboxPriority.INTERACTIVE);
+    }
+
+    @Test
+    @DisplayName("Deve gravar vários eventos em uma única chamada ao store")
+    void deveGravarVariosEventosEmLote() {
+        // Arrange
+        outbox = new Outbox(store, new JacksonOutboxSerializer(new ObjectMapper()), Set.of("AppointmentReminderRequested"));
+
+        // Act
+        List<OutboxMessage> appended = outbox.appendAll(List.of(
+                new Outbox.Event("Appointment", "1", "AppointmentCreated", Map.of("status", "SCHEDULED")),
+                new Outbox.Event("Appointment", "2", "AppointmentReminderRequested", Map.of())));
+
+        // Assert
+        verify(store).appendAll(appended);
+        verify(store, never()).append(any());
+        assertThat(appended).extracting(OutboxMessage::aggregateId).containsExactly("1", "2");
+        assertThat(appended).extracting(OutboxMessage::priority)
+                .containsExactly(OutboxPriority.INTERACTIVE, OutboxPriority.BULK);
+        assertThat(new String(appended.get(0).payload(), StandardCharsets.UTF_8)).isEqualTo("{\"status\":\"SCHEDULED\"}");
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.cdc.PgOutputDecoder;
+import br.com.fiap.clinic.outbox.cdc.PgOutputEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes Unitários - PgOutputDecoder")
+class PgOutputDecoderTest {
+
+    private PgOutputDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new PgOutputDecoder();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.write(value.getBytes(StandardCharsets.UTF_8));
+        out.writeByte(0);
+    }
+
+    private static ByteBuffer relation(int relationId, String table, String... columns) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte('R');
+        out.writeInt(relationId);
+        writeString(out, "public");
+        writeString(out, table);
+        out.writeByte('d');
+        out.writeShort(columns.length);
+        for (String column : columns) {
+            out.writeByte(0);
+            writeString(out, column);
+            out.writeInt(25);
+            out.writeInt(-1);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static ByteBuffer insert(int relationId, String... values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte('I');
+        out.writeInt(relationId);
+        out.writeByte('N');
+        out.writeShort(values.length);
+        for (String value : values) {
+            if (value == null) {
+                out.writeByte('n');
+            } else {
+                byte[] data = value.getBytes(StandardCharsets.UTF_8);
+                out.writeByte('t');
+                out.writeInt(data.length);
+                out.write(data);
+            }
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Deve decodificar INSERT usando os nomes de colunas da relação anunciada")
+    void deveDecodificarInsert() throws IOException {
+        // Arrange
+        decoder.decode(relation(16384, "outbox_events", "id", "event_type", "payload"));
+
+        // Act
+        PgOutputEvent event = decoder.decode(insert(16384, "7d9f0a52-4c5e-4a53-9a1e-0f6c3b8f1a11", "AppointmentCreated", null));
+
+        // Assert
+        assertThat(event).isInstanceOf(PgOutputEvent.Insert.class);
+        PgOutputEvent.Insert insert = (PgOutputEvent.Insert) event;
+        assertThat(insert.table()).isEqualTo("outbox_events");
+        assertThat(insert.values())
+                .containsEntry("id", "7d9f0a52-4c5e-4a53-9a1e-0f6c3b8f1a11")
+                .containsEntry("event_type", "AppointmentCreated")
+                .containsEntry("payload", null);
+    }
+
+    @Test
+    @DisplayName("Deve decodificar o LSN final do COMMIT")
+    void deveDecodificarCommit() throws IOException {
+        // Arrange
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte('C');
+        out.writeByte(0);
+        out.writeLong(100L);
+        out.writeLong(200L);
+        out.writeLong(0L);
+
+        // Act
+        PgOutputEvent event = decoder.decode(ByteBuffer.wrap(bytes.toByteArray()));
+
+        // Assert
+        assertThat(event).isEqualTo(new PgOutputEvent.Commit(100L, 200L));
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção para INSERT de relação não anunciada")
+    void deveLancarExcecaoParaRelacaoDesconhecida() {
+        assertThatThrownBy(() -> decoder.decode(insert(99, "x")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("relação não anunciada");
+    }
+}
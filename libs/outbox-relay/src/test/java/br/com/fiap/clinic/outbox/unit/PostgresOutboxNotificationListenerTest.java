@@ -0,0 +1,109 @@
+package br.com.fiap.clinic.outbox.unit;
+
+import br.com.fiap.clinic.outbox.OutboxProperties;
+import br.com.fiap.clinic.outbox.OutboxRelay;
+import br.com.fiap.clinic.outbox.jdbc.PostgresOutboxNotificationListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - PostgresOutboxNotificationListener")
+class PostgresOutboxNotificationListenerTest {
+
+    @Mock
+    private OutboxRelay relay;
+
+    @Mock
+    private DataSource dataSource;
+
+    private PostgresOutboxNotificationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.getRelay().getNotify().setReconnectDelay(Duration.ofMillis(10));
+        listener = new PostgresOutboxNotificationListener(relay, dataSource, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (listener.isRunning()) {
+            listener.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reconectar e drenar os pendentes quando a conexão LISTEN cair")
+    void deveReconectarQuandoConexaoCair() throws Exception {
+        // Arrange
+        Connection dropped = connection();
+        when(dropped.unwrap(PGConnection.class).getNotifications(anyInt()))
+                .thenThrow(new SQLException("An I/O error occurred while sending to the backend."));
+        Connection reconnected = connection();
+        when(reconnected.unwrap(PGConnection.class).getNotifications(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return new PGNotification[0];
+        });
+        when(dataSource.getConnection()).thenReturn(dropped, reconnected);
+
+        // Act
+        listener.start();
+
+        // Assert
+        verify(dataSource, timeout(2_000).times(2)).getConnection();
+        verify(dropped, timeout(2_000)).close();
+        verify(reconnected.createStatement(), timeout(2_000)).execute("LISTEN outbox_events");
+        // Uma drenagem por conexão, para cobrir o que foi inserido enquanto o listener estava fora
+        verify(relay, timeout(2_000).times(2)).relayPending();
+    }
+
+    @Test
+    @DisplayName("Deve tentar de novo quando o banco recusar a conexão")
+    void deveTentarDeNovoQuandoBancoRecusarConexao() throws Exception {
+        // Arrange
+        Connection connection = connection();
+        when(connection.unwrap(PGConnection.class).getNotifications(anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return new PGNotification[0];
+        });
+        when(dataSource.getConnection())
+                .thenThrow(new SQLException("Connection refused"))
+                .thenReturn(connection);
+
+        // Act
+        listener.start();
+
+        // Assert
+        verify(dataSource, timeout(2_000).times(2)).getConnection();
+        verify(relay, timeout(2_000).times(1)).relayPending();
+    }
+
+    private Connection connection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.createStatement()).thenReturn(statement);
+        return connection;
+    }
+}
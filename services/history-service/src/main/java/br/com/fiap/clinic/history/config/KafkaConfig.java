@@ -1,6 +1,7 @@
 package br.com.fiap.clinic.history.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -10,10 +11,15 @@ public class KafkaConfig {
 
     public static final String TOPIC_NAME = "appointment-events";
 
+    // Mesmo valor (APPOINTMENT_EVENTS_PARTITIONS) em todos os serviços; a chave é o id da consulta,
+    // então a ordem por consulta se mantém. Se o tópico já existir com menos partições, o KafkaAdmin as aumenta.
+    @Value("${kafka.appointment-events.partitions}")
+    private int partitions;
+
     @Bean
     public NewTopic appointmentEventsTopic() {
         return TopicBuilder.name(TOPIC_NAME)
-                .partitions(1)
+                .partitions(partitions)
                 .replicas(1)
                 .build();
     }
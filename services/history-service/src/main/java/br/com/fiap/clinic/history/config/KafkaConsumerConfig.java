@@ -1,6 +1,7 @@
 package br.com.fiap.clinic.history.config;
 
 import br.com.fiap.clinic.history.listener.AppointmentEventConsumer;
+import br.com.fiap.clinic.outbox.kafka.OutboxPayloadDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,7 +12,6 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +26,9 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${kafka.appointment-events.consumer-concurrency}")
+    private int concurrency;
+
     @Bean
     public ConsumerFactory<String, AppointmentEventConsumer> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -34,14 +37,14 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, AppointmentEventConsumer.class.getName());
-        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed"); // Ignora lotes abortados do Outbox transacional
+
+        // Aceita JSON ou Smile, conforme o outbox.encoding do scheduler-service
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new OutboxPayloadDeserializer<>(AppointmentEventConsumer.class))
+        );
     }
 
     @Bean
@@ -49,6 +52,7 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, AppointmentEventConsumer> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency); // Um consumidor por partição (ordem mantida por consulta)
         return factory;
     }
 }
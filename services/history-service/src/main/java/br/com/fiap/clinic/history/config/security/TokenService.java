@@ -1,42 +1,92 @@
 package br.com.fiap.clinic.history.config.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 
+/**
+ * Validação dos tokens JWT (RS256) emitidos pelo scheduler-service.
+ * <p>
+ * A chave pública é lida uma única vez; o {@link JWTVerifier} é imutável e thread-safe. O mesmo token chega em
+ * toda requisição durante a sua validade, então os tokens já verificados ficam em cache (pelo hash SHA-256, não
+ * pelo token em si) até o {@code exp}: as repetições dispensam a verificação RSA. Tokens inválidos não entram
+ * no cache.
+ */
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.public-key}")
-    private String publicKeyContent;
+    static final String ISSUER = "clinicfiap-scheduler";
+
+    private final JWTVerifier verifier;
+    private final Cache<String, DecodedJWT> verifiedTokens;
+
+    public TokenService(@Value("${api.security.token.public-key}") String publicKeyContent,
+                        @Value("${api.security.token.cache.max-size:10000}") long cacheMaxSize) {
+        try {
+            this.verifier = JWT.require(Algorithm.RSA256(parsePublicKey(publicKeyContent), null))
+                    .withIssuer(ISSUER)
+                    .build();
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Erro ao processar chave pública", e);
+        }
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.creating((String hash, DecodedJWT jwt) ->
+                        Duration.between(Instant.now(), jwt.getExpiresAtAsInstant())))
+                .build();
+    }
 
     public DecodedJWT validateToken(String token) {
+        String hash = hash(token);
+        DecodedJWT cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            Algorithm algorithm = Algorithm.RSA256(getPublicKey(), null);
-            return JWT.require(algorithm)
-                    .withIssuer("clinicfiap-scheduler")
-                    .build()
-                    .verify(token);
-        } catch (JWTVerificationException exception){
+            DecodedJWT decoded = verifier.verify(token);
+            // Sem exp não há até quando guardar: esses tokens são sempre verificados
+            if (decoded.getExpiresAtAsInstant() != null) {
+                verifiedTokens.put(hash, decoded);
+            }
+            return decoded;
+        } catch (JWTVerificationException exception) {
             return null;
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao processar chave pública", e);
         }
     }
 
-    private RSAPublicKey getPublicKey() throws Exception {
-        String key = publicKeyContent.replaceAll("\\s", "");
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static RSAPublicKey parsePublicKey(String publicKeyContent) throws GeneralSecurityException {
+        // Aceita a chave em Base64 puro ou em PEM (com cabeçalho e rodapé)
+        String key = publicKeyContent.replaceAll("-----(BEGIN|END) PUBLIC KEY-----", "").replaceAll("\\s", "");
         byte[] keyBytes = Base64.getDecoder().decode(key);
         X509EncodedKeySpec spec = new X509EncodedKeySpec(keyBytes);
         KeyFactory kf = KeyFactory.getInstance("RSA");
         return (RSAPublicKey) kf.generatePublic(spec);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package br.com.fiap.clinic.history.unit.security;
+
+import br.com.fiap.clinic.history.config.security.TokenService;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenService - Testes Unitários")
+class TokenServiceTest {
+
+    private static KeyPair keyPair;
+    private static TokenService tokenService;
+
+    @BeforeAll
+    static void setUpKeys() throws Exception {
+        keyPair = generateKeyPair();
+        tokenService = new TokenService(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()), 100);
+    }
+
+    @Test
+    @DisplayName("Deve devolver do cache o token já verificado")
+    void deveDevolverDoCacheTokenJaVerificado() {
+        // Arrange
+        String token = token((RSAPrivateKey) keyPair.getPrivate(), Instant.now().plus(2, ChronoUnit.HOURS));
+
+        // Act
+        DecodedJWT first = tokenService.validateToken(token);
+        DecodedJWT second = tokenService.validateToken(token);
+
+        // Assert
+        assertThat(first).isNotNull();
+        assertThat(first.getClaim("role").asString()).isEqualTo("patient");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token assinado com outra chave")
+    void deveRejeitarTokenAssinadoComOutraChave() throws Exception {
+        // Arrange
+        String token = token((RSAPrivateKey) generateKeyPair().getPrivate(), Instant.now().plus(2, ChronoUnit.HOURS));
+
+        // Act & Assert
+        assertThat(tokenService.validateToken(token)).isNull();
+        assertThat(tokenService.validateToken(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token expirado")
+    void deveRejeitarTokenExpirado() {
+        // Arrange
+        String token = token((RSAPrivateKey) keyPair.getPrivate(), Instant.now().minus(1, ChronoUnit.MINUTES));
+
+        // Act & Assert
+        assertThat(tokenService.validateToken(token)).isNull();
+    }
+
+    private static String token(RSAPrivateKey privateKey, Instant expiresAt) {
+        return JWT.create()
+                .withIssuer("clinicfiap-scheduler")
+                .withSubject("paciente.teste")
+                .withClaim("userId", UUID.randomUUID().toString())
+                .withClaim("role", "patient")
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.RSA256(null, privateKey));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
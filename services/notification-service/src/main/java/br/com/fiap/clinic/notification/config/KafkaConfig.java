@@ -1,6 +1,7 @@
 package br.com.fiap.clinic.notification.config;
 
 import br.com.fiap.clinic.notification.domain.dto.AppointmentEvent;
+import br.com.fiap.clinic.outbox.kafka.OutboxPayloadDeserializer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -13,7 +14,6 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.FixedBackOff;
 
@@ -31,6 +31,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${kafka.appointment-events.consumer-concurrency}")
+    private int concurrency;
+
     @Bean
     public ConsumerFactory<String, AppointmentEvent> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -38,15 +41,13 @@ public class KafkaConfig {
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Commit manual para garantir processamento
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed"); // Ignora lotes abortados do Outbox transacional
 
-        JsonDeserializer<AppointmentEvent> jsonDeserializer =
-                new JsonDeserializer<>(AppointmentEvent.class);
-        jsonDeserializer.addTrustedPackages("*");
-
+        // Aceita JSON ou Smile, conforme o outbox.encoding do scheduler-service
         return new DefaultKafkaConsumerFactory<>(
                 props,
                 new StringDeserializer(),
-                jsonDeserializer
+                new OutboxPayloadDeserializer<>(AppointmentEvent.class)
         );
     }
 
@@ -106,6 +107,7 @@ public class KafkaConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
 
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency); // Um consumidor por partição (ordem mantida por consulta)
         factory.setCommonErrorHandler(errorHandler); // Configura o error handler com retry
         factory.getContainerProperties().setAckMode(
                 org.springframework.kafka.listener.ContainerProperties.AckMode.RECORD
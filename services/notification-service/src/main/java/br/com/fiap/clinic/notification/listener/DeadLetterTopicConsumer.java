@@ -20,7 +20,8 @@ public class DeadLetterTopicConsumer {
     @KafkaListener(
             topics = "appointment-events-dlt",
             groupId = "notification-dlt-consumers",
-            containerFactory = "kafkaListenerContainerFactory")
+            containerFactory = "kafkaListenerContainerFactory",
+            concurrency = "1") // DLT de baixo volume: não herda a concorrência do appointment-events
     public void handleDeadLetter(
             @Payload AppointmentEvent event,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
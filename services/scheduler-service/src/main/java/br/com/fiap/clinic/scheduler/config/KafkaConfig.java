@@ -1,20 +1,103 @@
 package br.com.fiap.clinic.scheduler.config;
 
+import br.com.fiap.clinic.outbox.kafka.OutboxPayloadDeserializer;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentEvent;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 @Configuration
 public class KafkaConfig {
 
     public static final String TOPIC_NAME = "appointment-events";
+    // Tópico interno do scheduler: o valor é só o id do usuário alterado, para as réplicas limparem o UserCache
+    public static final String USER_CACHE_TOPIC_NAME = "scheduler-user-cache-invalidation";
+
+    // Mesmo valor (APPOINTMENT_EVENTS_PARTITIONS) em todos os serviços; a chave é o id da consulta,
+    // então a ordem por consulta se mantém. Se o tópico já existir com menos partições, o KafkaAdmin as aumenta.
+    @Value("${kafka.appointment-events.partitions}")
+    private int partitions;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
 
     @Bean
     public NewTopic appointmentEventsTopic() {
         return TopicBuilder.name(TOPIC_NAME)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic userCacheInvalidationTopic() {
+        return TopicBuilder.name(USER_CACHE_TOPIC_NAME)
                 .partitions(1)
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Consumidor das invalidações do cache de usuários: como no índice de conflitos, cada réplica se atribui a
+     * partição única do tópico, sem grupo e sem commit de offsets, e lê a partir do fim (o cache começa vazio).
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> userCacheListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new StringDeserializer()));
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Partições do tópico appointment-events, para o consumidor do índice de conflitos se atribuir todas.
+     */
+    public String[] appointmentEventPartitions() {
+        return IntStream.range(0, partitions).mapToObj(String::valueOf).toArray(String[]::new);
+    }
+
+    /**
+     * Consumidor do índice de conflitos de horário: cada réplica se atribui todas as partições, sem grupo e sem
+     * commit de offsets (nada fica para trás no broker quando a réplica sai), e começa do fim do tópico, já que
+     * o índice é carregado do banco na subida.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "appointment.conflict-index.enabled", havingValue = "true", matchIfMissing = true)
+    public ConcurrentKafkaListenerContainerFactory<String, AppointmentEvent> conflictIndexListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed"); // Ignora lotes abortados do Outbox transacional
+
+        ConcurrentKafkaListenerContainerFactory<String, AppointmentEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new OutboxPayloadDeserializer<>(AppointmentEvent.class))
+        ));
+        // Sem grupo não há onde gravar offsets: o ack manual nunca é chamado
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
@@ -32,7 +32,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/", "/graphiql", "/actuator/health").permitAll()
+                        .requestMatchers("/", "/graphiql", "/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/auth/login").permitAll()
                         .requestMatchers("/graphql").permitAll()
                         .anyRequest().authenticated()
@@ -1,21 +1,24 @@
 package br.com.fiap.clinic.scheduler.config.security;
 
-import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Carrega o usuário do login e do Basic Auth pelo {@link UserCache}, evitando o SELECT a cada requisição.
+ */
 @Service
 @RequiredArgsConstructor
 public class AuthorizationService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByLogin(username)
+        return userCache.findByLogin(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 }
\ No newline at end of file
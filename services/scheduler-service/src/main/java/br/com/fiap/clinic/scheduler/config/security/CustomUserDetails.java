@@ -0,0 +1,64 @@
+package br.com.fiap.clinic.scheduler.config.security;
+
+import br.com.fiap.clinic.scheduler.domain.entity.Role;
+import br.com.fiap.clinic.scheduler.domain.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Usuário autenticado montado a partir das claims do token ({@code sub}, {@code userId} e {@code role}),
+ * sem consulta ao banco.
+ */
+public record CustomUserDetails(UUID userId, String username, Role role) implements UserDetails {
+
+    /**
+     * Usuário não persistido, só com id, login e papel, para os serviços que recebem o usuário logado.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(userId);
+        user.setLogin(username);
+        user.setRole(role);
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
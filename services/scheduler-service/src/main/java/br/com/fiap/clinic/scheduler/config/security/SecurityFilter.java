@@ -1,8 +1,7 @@
 package br.com.fiap.clinic.scheduler.config.security;
 
-import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
-import br.com.fiap.clinic.scheduler.domain.entity.User;
-import br.com.fiap.clinic.scheduler.config.security.TokenService;
+import br.com.fiap.clinic.scheduler.domain.entity.Role;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,13 +13,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class SecurityFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
-    private final UserRepository userRepository;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -28,11 +27,11 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         // Se tiver token, tentamos autenticar via JWT
         if (token != null) {
-            var login = tokenService.validateToken(token);
+            DecodedJWT decodedJWT = tokenService.validateToken(token);
 
-            if (login != null) {
-                // Token válido! Buscamos o usuário no banco para ter o objeto completo (authorities, etc)
-                User user = userRepository.findByLogin(login).orElse(null);
+            if (decodedJWT != null) {
+                // Token válido! O usuário vem das claims assinadas, sem ir ao banco
+                CustomUserDetails user = toUserDetails(decodedJWT);
 
                 if (user != null) {
                     var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
@@ -45,9 +44,23 @@ public class SecurityFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Token assinado mas sem as claims esperadas é tratado como inválido
+    private CustomUserDetails toUserDetails(DecodedJWT decodedJWT) {
+        String userId = decodedJWT.getClaim("userId").asString();
+        String role = decodedJWT.getClaim("role").asString();
+        if (userId == null || role == null) {
+            return null;
+        }
+        try {
+            return new CustomUserDetails(UUID.fromString(userId), decodedJWT.getSubject(), Role.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private String recoverToken(HttpServletRequest request) {
         var authHeader = request.getHeader("Authorization");
         if (authHeader == null) return null;
         return authHeader.replace("Bearer ", "");
     }
-}
\ No newline at end of file
+}
@@ -2,12 +2,15 @@ package br.com.fiap.clinic.scheduler.config.security;
 
 import br.com.fiap.clinic.scheduler.domain.entity.User;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
@@ -18,30 +21,56 @@ import java.time.ZoneOffset;
 import java.util.Base64;
 import java.time.Instant;
 
+/**
+ * Emissão e validação dos tokens JWT (RS256).
+ * <p>
+ * As chaves são lidas uma única vez na criação do bean; o {@link JWTVerifier} é imutável e thread-safe, então
+ * a mesma instância atende todas as requisições.
+ */
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.private-key}")
-    private String privateKeyContent;
+    static final String ISSUER = "clinicfiap-scheduler";
 
-    @Value("${api.security.token.public-key}")
-    private String publicKeyContent;
+    private final Algorithm signingAlgorithm;
+    private final JWTVerifier verifier;
 
-    public String generateToken(User user) {
+    public TokenService(@Value("${api.security.token.private-key}") String privateKeyContent,
+                        @Value("${api.security.token.public-key}") String publicKeyContent) {
         try {
-            Algorithm algorithm = Algorithm.RSA256(null, getPrivateKey());
+            this.signingAlgorithm = Algorithm.RSA256(null, parsePrivateKey(privateKeyContent));
+            this.verifier = JWT.require(Algorithm.RSA256(parsePublicKey(publicKeyContent), null))
+                    .withIssuer(ISSUER)
+                    .build();
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Erro ao carregar chaves do token JWT", e);
+        }
+    }
 
+    public String generateToken(User user) {
+        try {
             return JWT.create()
-                    .withIssuer("clinicfiap-scheduler")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getLogin())
                     .withClaim("userId", user.getId().toString())
                     .withClaim("role", user.getRole().name())
                     .withExpiresAt(genExpirationDate())
-                    .sign(algorithm);
+                    .sign(signingAlgorithm);
         } catch (JWTCreationException exception){
             throw new RuntimeException("Erro ao gerar token JWT", exception);
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao carregar chave privada", e);
+        }
+    }
+
+    /**
+     * Valida assinatura, emissor e expiração.
+     *
+     * @return o token decodificado, ou {@code null} se for inválido
+     */
+    public DecodedJWT validateToken(String token) {
+        try {
+            return verifier.verify(token);
+        } catch (JWTVerificationException exception){
+            return null;
         }
     }
 
@@ -49,34 +78,17 @@ public class TokenService {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
 
-    private RSAPrivateKey getPrivateKey() throws Exception {
-        String key = privateKeyContent.replaceAll("\\s", "");
-        byte[] keyBytes = Base64.getDecoder().decode(key);
-        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(keyBytes);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        return (RSAPrivateKey) kf.generatePrivate(spec);
+    private static RSAPrivateKey parsePrivateKey(String content) throws GeneralSecurityException {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decode(content));
+        return (RSAPrivateKey) KeyFactory.getInstance("RSA").generatePrivate(spec);
     }
 
-    private RSAPublicKey getPublicKey() throws Exception {
-        String key = publicKeyContent.replaceAll("\\s", "");
-        byte[] keyBytes = Base64.getDecoder().decode(key);
-        X509EncodedKeySpec spec = new X509EncodedKeySpec(keyBytes);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        return (RSAPublicKey) kf.generatePublic(spec);
+    private static RSAPublicKey parsePublicKey(String content) throws GeneralSecurityException {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(decode(content));
+        return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(spec);
     }
 
-    public String validateToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.RSA256(getPublicKey(), null);
-            var verifier = JWT.require(algorithm)
-                    .withIssuer("clinicfiap-scheduler")
-                    .build();
-            var decodedJWT = verifier.verify(token);
-            return decodedJWT.getSubject();
-        } catch (JWTVerificationException exception){
-            return null;
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao validar token JWT", e);
-        }
+    private static byte[] decode(String content) {
+        return Base64.getDecoder().decode(content.replaceAll("\\s", ""));
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,50 @@
 package br.com.fiap.clinic.scheduler.controller.graphql;
 
+import br.com.fiap.clinic.scheduler.config.security.CustomUserDetails;
+import br.com.fiap.clinic.scheduler.domain.dto.AgendaUpdate;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentBatchResult;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentRequest;
+import br.com.fiap.clinic.scheduler.domain.dto.DoctorSlot;
+import br.com.fiap.clinic.scheduler.domain.dto.TimeSlot;
 import br.com.fiap.clinic.scheduler.domain.entity.Appointment;
 import br.com.fiap.clinic.scheduler.domain.entity.AppointmentHistory;
 import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
+import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
+import br.com.fiap.clinic.scheduler.domain.entity.Patient;
 import br.com.fiap.clinic.scheduler.domain.entity.User;
 import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
 import br.com.fiap.clinic.scheduler.domain.service.AppointmentService;
+import br.com.fiap.clinic.scheduler.domain.service.AvailabilityService;
+import br.com.fiap.clinic.scheduler.domain.service.DoctorService;
+import br.com.fiap.clinic.scheduler.domain.service.PatientService;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Controller
@@ -28,7 +52,11 @@ import java.util.UUID;
 public class AppointmentGraphQLController {
 
     private final AppointmentService appointmentService;
+    private final AvailabilityService availabilityService;
+    private final PatientService patientService;
+    private final DoctorService doctorService;
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     // --- Records para Inputs (DTOs) ---
 
@@ -55,6 +83,13 @@ public class AppointmentGraphQLController {
         return appointmentService.findAll(user);
     }
 
+    @QueryMapping
+    @Secured({"ROLE_doctor", "ROLE_nurse", "ROLE_patient"})
+    public Window<Appointment> appointmentsConnection(ScrollSubrange subrange) {
+        User user = getCurrentUser();
+        return appointmentService.findAll(user, ConnectionArguments.position(subrange), ConnectionArguments.pageSize(subrange));
+    }
+
     @QueryMapping
     @Secured({"ROLE_doctor", "ROLE_nurse", "ROLE_patient"})
     public Appointment appointment(@Argument String id) {
@@ -73,6 +108,32 @@ public class AppointmentGraphQLController {
         return appointmentService.findAppointmentHistory(UUID.fromString(appointmentId));
     }
 
+    @QueryMapping
+    @Secured({"ROLE_doctor", "ROLE_nurse", "ROLE_patient"})
+    public List<TimeSlot> availableSlots(@Argument String doctorId, @Argument String from, @Argument String to,
+                                         @Argument int durationMinutes) {
+        return availabilityService.findAvailableSlots(
+                UUID.fromString(doctorId),
+                OffsetDateTime.parse(from, DateTimeFormatter.ISO_DATE_TIME),
+                OffsetDateTime.parse(to, DateTimeFormatter.ISO_DATE_TIME),
+                durationMinutes
+        );
+    }
+
+    @QueryMapping
+    @Secured({"ROLE_doctor", "ROLE_nurse", "ROLE_patient"})
+    public List<DoctorSlot> earliestAvailableDoctors(@Argument String specialty, @Argument String from,
+                                                     @Argument String to, @Argument int durationMinutes,
+                                                     @Argument Integer limit) {
+        return availabilityService.findEarliestAvailableDoctors(
+                specialty,
+                OffsetDateTime.parse(from, DateTimeFormatter.ISO_DATE_TIME),
+                OffsetDateTime.parse(to, DateTimeFormatter.ISO_DATE_TIME),
+                durationMinutes,
+                limit != null ? limit : 5
+        );
+    }
+
     // --- MUTATIONS ---
 
     @MutationMapping
@@ -89,6 +150,56 @@ public class AppointmentGraphQLController {
         );
     }
 
+    @MutationMapping
+    @Secured({"ROLE_nurse", "ROLE_doctor"})
+    public List<AppointmentBatchResult> createAppointments(@Argument List<CreateAppointmentInput> inputs) {
+        User currentUser = getCurrentUser();
+
+        // Item mal formatado é rejeitado sozinho, como os que falham nas regras; o restante do lote segue
+        List<AppointmentBatchResult> results = new ArrayList<>(inputs.size());
+        List<AppointmentRequest> requests = new ArrayList<>(inputs.size());
+        List<Integer> positions = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            try {
+                requests.add(toRequest(inputs.get(i)));
+                positions.add(i);
+            } catch (IllegalArgumentException e) {
+                results.add(AppointmentBatchResult.rejected(i, e.getMessage()));
+            }
+        }
+        if (!requests.isEmpty()) {
+            // O serviço numera os itens que recebeu; volta para a posição no lote original
+            appointmentService.createAppointments(requests, currentUser.getId()).forEach(result -> results.add(
+                    new AppointmentBatchResult(positions.get(result.index()), result.appointment(), result.error())));
+        }
+        results.sort(Comparator.comparingInt(AppointmentBatchResult::index));
+        return results;
+    }
+
+    private static AppointmentRequest toRequest(CreateAppointmentInput input) {
+        return new AppointmentRequest(
+                parseId(input.patientId, "paciente"),
+                parseId(input.doctorId, "médico"),
+                parseDateTime(input.startAt, "início"),
+                parseDateTime(input.endAt, "término"));
+    }
+
+    private static UUID parseId(String value, String field) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("ID do " + field + " inválido: " + value);
+        }
+    }
+
+    private static OffsetDateTime parseDateTime(String value, String field) {
+        try {
+            return OffsetDateTime.parse(value, DateTimeFormatter.ISO_DATE_TIME);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("Data de " + field + " inválida: " + value);
+        }
+    }
+
     @MutationMapping
     @Secured({"ROLE_nurse", "ROLE_doctor"})
     public Appointment confirmAppointment(@Argument String id) {
@@ -117,11 +228,78 @@ public class AppointmentGraphQLController {
         );
     }
 
+    @MutationMapping
+    @Secured({"ROLE_nurse", "ROLE_doctor"})
+    public AgendaUpdate cancelDoctorAppointments(@Argument String doctorId, @Argument String from, @Argument String to) {
+        return appointmentService.cancelDoctorAgenda(
+                UUID.fromString(doctorId),
+                OffsetDateTime.parse(from, DateTimeFormatter.ISO_DATE_TIME),
+                OffsetDateTime.parse(to, DateTimeFormatter.ISO_DATE_TIME)
+        );
+    }
+
+    @MutationMapping
+    @Secured({"ROLE_nurse", "ROLE_doctor"})
+    public AgendaUpdate rescheduleDoctorAppointments(@Argument String doctorId, @Argument String from,
+                                                     @Argument String to, @Argument int shiftMinutes) {
+        return appointmentService.rescheduleDoctorAgenda(
+                UUID.fromString(doctorId),
+                OffsetDateTime.parse(from, DateTimeFormatter.ISO_DATE_TIME),
+                OffsetDateTime.parse(to, DateTimeFormatter.ISO_DATE_TIME),
+                shiftMinutes
+        );
+    }
+
+    // --- Campos de Appointment (carregados em lote) ---
+    // As associações são LAZY: resolver campo a campo faria até três SELECTs por consulta listada.
+    // Com @BatchMapping o DataLoader junta as consultas da resposta e cada campo sai em um único "IN".
+
+    @BatchMapping
+    public Map<Appointment, Patient> patient(List<Appointment> appointments) {
+        return loadByAppointment(appointments, Appointment::getPatient, patientService::findAllById);
+    }
+
+    @BatchMapping
+    public Map<Appointment, Doctor> doctor(List<Appointment> appointments) {
+        return loadByAppointment(appointments, Appointment::getDoctor, doctorService::findAllById);
+    }
+
+    @BatchMapping
+    public Map<Appointment, User> createdBy(List<Appointment> appointments) {
+        return loadByAppointment(appointments, Appointment::getCreatedBy, userRepository::findAllById);
+    }
+
     // --- Helper ---
 
+    /**
+     * Carrega de uma vez os usuários referenciados pelas consultas. Ler o ID da referência LAZY não
+     * inicializa o proxy, então nada é buscado antes do {@code loader}.
+     */
+    private static <T extends User> Map<Appointment, T> loadByAppointment(List<Appointment> appointments,
+                                                                          Function<Appointment, T> reference,
+                                                                          Function<Set<UUID>, List<T>> loader) {
+        Set<UUID> ids = appointments.stream()
+                .map(appointment -> reference.apply(appointment).getId())
+                .collect(Collectors.toSet());
+        Map<UUID, T> loaded = loader.apply(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<Appointment, T> result = new HashMap<>();
+        appointments.forEach(appointment -> result.put(appointment, loaded.get(reference.apply(appointment).getId())));
+        return result;
+    }
+
+    // Requisições com token já trazem id e papel nas claims; os demais principals (ex.: Basic Auth) vêm do cache
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByLogin(username)
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return details.toUser();
+        }
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        String username = authentication.getName();
+        return userCache.findByLogin(username)
                 .orElseThrow(() -> new RuntimeException("Usuário logado não encontrado: " + username));
     }
 }
\ No newline at end of file
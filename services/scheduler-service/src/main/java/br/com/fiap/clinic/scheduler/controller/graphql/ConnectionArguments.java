@@ -0,0 +1,34 @@
+package br.com.fiap.clinic.scheduler.controller.graphql;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.graphql.data.query.ScrollSubrange;
+
+/**
+ * Leitura dos argumentos Relay ({@code first/after}) das queries paginadas por cursor.
+ */
+final class ConnectionArguments {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private ConnectionArguments() {
+    }
+
+    // Sem cursor começa do início da ordenação; só cursores gerados pelas próprias listagens são aceitos
+    static KeysetScrollPosition position(ScrollSubrange subrange) {
+        ScrollPosition position = subrange.position().orElseGet(ScrollPosition::keyset);
+        if (!(position instanceof KeysetScrollPosition keyset) || !subrange.forward()) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return keyset;
+    }
+
+    static int pageSize(ScrollSubrange subrange) {
+        int size = subrange.count().orElse(DEFAULT_PAGE_SIZE);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+}
@@ -2,13 +2,16 @@ package br.com.fiap.clinic.scheduler.controller.graphql;
 
 import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
 import br.com.fiap.clinic.scheduler.domain.entity.Role;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentService;
 import br.com.fiap.clinic.scheduler.domain.service.DoctorService;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -22,6 +25,7 @@ import java.util.UUID;
 public class DoctorGraphQLController {
 
     private final DoctorService doctorService;
+    private final AppointmentService appointmentService;
     private final PasswordEncoder passwordEncoder;
 
     // --- Records para Inputs (DTOs) ---
@@ -53,6 +57,12 @@ public class DoctorGraphQLController {
         return doctorService.findAll();
     }
 
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('doctor', 'nurse')")
+    public Window<Doctor> doctorsConnection(ScrollSubrange subrange) {
+        return doctorService.findAll(ConnectionArguments.position(subrange), ConnectionArguments.pageSize(subrange));
+    }
+
     @QueryMapping
     @PreAuthorize("hasAnyRole('doctor', 'nurse')")
     public Doctor doctor(@Argument String id) {
@@ -112,7 +122,8 @@ public class DoctorGraphQLController {
     @PreAuthorize("hasRole('nurse')")
     public Boolean deactivateDoctor(@Argument String id) {
         log.info("Desativando médico ID: {}", id);
-        doctorService.deactivate(UUID.fromString(id));
+        // Consultas futuras do médico são canceladas junto
+        appointmentService.deactivateDoctor(UUID.fromString(id));
         return true;
     }
 }
@@ -6,9 +6,11 @@ import br.com.fiap.clinic.scheduler.domain.service.NurseService;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -49,6 +51,12 @@ public class NurseGraphQLController {
         return nurseService.findAll();
     }
 
+    @QueryMapping
+    @PreAuthorize("hasRole('nurse')")
+    public Window<Nurse> nursesConnection(ScrollSubrange subrange) {
+        return nurseService.findAll(ConnectionArguments.position(subrange), ConnectionArguments.pageSize(subrange));
+    }
+
     @QueryMapping
     @PreAuthorize("hasRole('nurse')")
     public Nurse nurse(@Argument String id) {
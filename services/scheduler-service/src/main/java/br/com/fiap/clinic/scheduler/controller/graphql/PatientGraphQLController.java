@@ -6,9 +6,11 @@ import br.com.fiap.clinic.scheduler.domain.service.PatientService;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -52,6 +54,12 @@ public class PatientGraphQLController {
         return patientService.findAll();
     }
 
+    @QueryMapping
+    @PreAuthorize("hasAnyRole('nurse', 'doctor')")
+    public Window<Patient> patientsConnection(ScrollSubrange subrange) {
+        return patientService.findAll(ConnectionArguments.position(subrange), ConnectionArguments.pageSize(subrange));
+    }
+
     @QueryMapping
     @PreAuthorize("hasAnyRole('nurse', 'doctor', 'patient')")
     public Patient patient(@Argument String id) {
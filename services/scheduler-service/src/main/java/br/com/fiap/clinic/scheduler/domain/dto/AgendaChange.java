@@ -0,0 +1,31 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Consulta alterada por uma operação em massa na agenda de um médico, já com o novo estado.
+ * Traz os dados do paciente usados no evento, para não recarregar as entidades.
+ */
+public record AgendaChange(
+        UUID appointmentId,
+        UUID patientId,
+        String patientName,
+        String patientEmail,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt,
+        AppointmentStatus status,
+        long version
+) {
+
+    /**
+     * Os mesmos instantes no fuso {@code offset} (o banco devolve as datas em UTC).
+     */
+    public AgendaChange atOffset(ZoneOffset offset) {
+        return new AgendaChange(appointmentId, patientId, patientName, patientEmail,
+                startAt.withOffsetSameInstant(offset), endAt.withOffsetSameInstant(offset), status, version);
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de uma operação em massa na agenda de um médico.
+ */
+public record AgendaUpdate(
+        int count,
+        List<UUID> appointmentIds
+) {
+}
@@ -0,0 +1,23 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import br.com.fiap.clinic.scheduler.domain.entity.Appointment;
+
+/**
+ * Resultado de um item da criação em lote: a consulta criada ou o motivo da rejeição.
+ *
+ * @param index posição do item no lote recebido
+ */
+public record AppointmentBatchResult(
+        int index,
+        Appointment appointment,
+        String error
+) {
+
+    public static AppointmentBatchResult created(int index, Appointment appointment) {
+        return new AppointmentBatchResult(index, appointment, null);
+    }
+
+    public static AppointmentBatchResult rejected(int index, String error) {
+        return new AppointmentBatchResult(index, null, error);
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Campos do evento de appointment-events usados pelo próprio scheduler-service (índice de conflitos).
+ */
+public record AppointmentEvent(
+        UUID appointmentId,
+        String eventType,
+        String status,
+        UUID doctorId,
+        UUID patientId,
+        OffsetDateTime appointmentDate,
+        OffsetDateTime appointmentEndDate,
+        OffsetDateTime timestamp,
+        Long version
+) {
+}
@@ -0,0 +1,28 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import br.com.fiap.clinic.scheduler.domain.entity.Appointment;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Horário ocupado por uma consulta, como guardado no índice de conflitos.
+ */
+public record AppointmentInterval(
+        UUID appointmentId,
+        UUID doctorId,
+        UUID patientId,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt
+) {
+
+    public static AppointmentInterval of(Appointment appointment) {
+        return new AppointmentInterval(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                appointment.getPatient().getId(),
+                appointment.getStartAt(),
+                appointment.getEndAt()
+        );
+    }
+}
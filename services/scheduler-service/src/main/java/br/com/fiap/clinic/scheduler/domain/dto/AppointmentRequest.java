@@ -0,0 +1,15 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Um item da criação de consultas em lote.
+ */
+public record AppointmentRequest(
+        UUID patientId,
+        UUID doctorId,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt
+) {
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Primeiro horário livre de um médico na busca por especialidade.
+ */
+public record DoctorSlot(
+        Doctor doctor,
+        OffsetDateTime startAt,
+        OffsetDateTime endAt
+) {
+}
@@ -0,0 +1,12 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Horário livre na agenda de um médico, pronto para ser usado em {@code createAppointment}.
+ */
+public record TimeSlot(
+        OffsetDateTime startAt,
+        OffsetDateTime endAt
+) {
+}
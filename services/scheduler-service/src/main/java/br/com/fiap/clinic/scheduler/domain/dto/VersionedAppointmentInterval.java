@@ -0,0 +1,19 @@
+package br.com.fiap.clinic.scheduler.domain.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Horário ocupado com a versão da consulta no momento da leitura, usado na carga do índice de conflitos.
+ */
+public record VersionedAppointmentInterval(
+        AppointmentInterval interval,
+        long version
+) {
+
+    // Usado pela projeção da consulta (JPQL não monta o record aninhado)
+    public VersionedAppointmentInterval(UUID appointmentId, UUID doctorId, UUID patientId,
+                                        OffsetDateTime startAt, OffsetDateTime endAt, Long version) {
+        this(new AppointmentInterval(appointmentId, doctorId, patientId, startAt, endAt), version);
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -44,6 +46,11 @@ public class Appointment {
     @Column(name = "is_active")
     private boolean isActive = true;
 
+    // Incrementada pelo banco a cada UPDATE (trigger da V13); ordena os eventos da consulta no índice de conflitos
+    @Generated(event = EventType.UPDATE)
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
+
     @Column(name = "created_at", updatable = false)
     private OffsetDateTime createdAt;
 
@@ -1,54 +0,0 @@
-package br.com.fiap.clinic.scheduler.domain.entity;
-
-import jakarta.persistence.*;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
-
-import java.time.OffsetDateTime;
-import java.util.UUID;
-
-@Entity
-@Table(name = "outbox_events")
-@Getter
-@Setter
-@NoArgsConstructor
-public class OutboxEvent {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private UUID id;
-
-    @Column(nullable = false)
-    private String aggregateType;
-
-    @Column(nullable = false)
-    private String aggregateId;
-
-    @Column(nullable = false)
-    private String eventType;
-
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(columnDefinition = "jsonb", nullable = false)
-    private String payload; // Armazenamos o payload JSON como String
-
-    @Column(nullable = false)
-    private boolean processed = false;
-
-    @Column(nullable = false, updatable = false)
-    private OffsetDateTime createdAt;
-
-    @PrePersist
-    protected void onCreate() {
-        this.createdAt = OffsetDateTime.now();
-    }
-
-    public OutboxEvent(String aggregateType, String aggregateId, String eventType, String payload) {
-        this.aggregateType = aggregateType;
-        this.aggregateId = aggregateId;
-        this.eventType = eventType;
-        this.payload = payload;
-    }
-}
\ No newline at end of file
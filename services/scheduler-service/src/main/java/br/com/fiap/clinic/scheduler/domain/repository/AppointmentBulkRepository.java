@@ -0,0 +1,81 @@
+package br.com.fiap.clinic.scheduler.domain.repository;
+
+import br.com.fiap.clinic.scheduler.domain.dto.AgendaChange;
+import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Operações em massa na agenda de um médico, cada uma em um único {@code UPDATE ... RETURNING}.
+ * <p>
+ * Roda via JDBC na transação corrente, sem carregar as consultas no contexto de persistência; quem chama
+ * não deve ter essas consultas carregadas na mesma transação.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppointmentBulkRepository {
+
+    // Consultas ativas do médico que começam no período (fim aberto; sem fim = todas as futuras)
+    private static final String AGENDA_FILTER =
+            " FROM users p WHERE p.id = a.patient_id AND a.doctor_id = ?" +
+            " AND a.start_at >= ? AND a.start_at < coalesce(?::timestamptz, 'infinity')" +
+            " AND a.is_active AND a.status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED')";
+
+    private static final String RETURNING =
+            " RETURNING a.id, a.patient_id, p.name, p.email, a.start_at, a.end_at, a.status, a.version";
+
+    private static final String CANCEL_SQL =
+            "UPDATE appointments a SET status = 'CANCELLED'" + AGENDA_FILTER + RETURNING;
+
+    private static final String SHIFT_SQL =
+            "UPDATE appointments a SET status = 'RESCHEDULED'," +
+            " start_at = a.start_at + make_interval(mins => ?), end_at = a.end_at + make_interval(mins => ?)" +
+            AGENDA_FILTER + RETURNING;
+
+    private static final String DEFER_OVERLAP_SQL =
+            "SET CONSTRAINTS appointments_doctor_no_overlap, appointments_patient_no_overlap DEFERRED";
+    private static final String CHECK_OVERLAP_SQL =
+            "SET CONSTRAINTS appointments_doctor_no_overlap, appointments_patient_no_overlap IMMEDIATE";
+
+    private static final RowMapper<AgendaChange> ROW_MAPPER = (rs, rowNum) -> new AgendaChange(
+            rs.getObject("id", UUID.class),
+            rs.getObject("patient_id", UUID.class),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getObject("start_at", OffsetDateTime.class),
+            rs.getObject("end_at", OffsetDateTime.class),
+            AppointmentStatus.valueOf(rs.getString("status")),
+            rs.getLong("version")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cancela as consultas ativas do médico que começam em {@code [from, to)}.
+     *
+     * @param to fim do período; {@code null} para todas a partir de {@code from}
+     */
+    public List<AgendaChange> cancelDoctorAgenda(UUID doctorId, OffsetDateTime from, OffsetDateTime to) {
+        return jdbcTemplate.query(CANCEL_SQL, ROW_MAPPER, doctorId, from, to);
+    }
+
+    /**
+     * Desloca em {@code shiftMinutes} as consultas ativas do médico que começam em {@code [from, to)}, marcando-as
+     * como reagendadas. As constraints de sobreposição são verificadas ao fim do comando (não linha a linha), para
+     * que consultas encostadas possam andar juntas; uma sobreposição real lança
+     * {@link org.springframework.dao.DataIntegrityViolationException}.
+     */
+    public List<AgendaChange> shiftDoctorAgenda(UUID doctorId, OffsetDateTime from, OffsetDateTime to,
+                                                int shiftMinutes) {
+        jdbcTemplate.execute(DEFER_OVERLAP_SQL);
+        List<AgendaChange> changes = jdbcTemplate.query(SHIFT_SQL, ROW_MAPPER, shiftMinutes, shiftMinutes, doctorId, from, to);
+        jdbcTemplate.execute(CHECK_OVERLAP_SQL);
+        return changes;
+    }
+}
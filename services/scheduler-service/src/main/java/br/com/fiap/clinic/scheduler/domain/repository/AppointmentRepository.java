@@ -1,13 +1,17 @@
 package br.com.fiap.clinic.scheduler.domain.repository;
 
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.dto.VersionedAppointmentInterval;
 import br.com.fiap.clinic.scheduler.domain.entity.Appointment;
 import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,6 +23,29 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
     List<Appointment> findByPatient_IdAndIsActiveTrue(UUID patientId);
     List<Appointment> findByDoctor_IdAndIsActiveTrue(UUID doctorId);
 
+    // Paginação por cursor em ordem de início; (startAt, id) > cursor é limite dos índices (..., start_at, id) de V12
+    @Query("SELECT a FROM Appointment a ORDER BY a.startAt, a.id")
+    List<Appointment> findPage(Limit limit);
+
+    @Query("SELECT a FROM Appointment a WHERE (a.startAt, a.id) > (:startAt, :id) ORDER BY a.startAt, a.id")
+    List<Appointment> findPageAfter(@Param("startAt") OffsetDateTime startAt, @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.isActive = true ORDER BY a.startAt, a.id")
+    List<Appointment> findPatientPage(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.isActive = true " +
+            "AND (a.startAt, a.id) > (:startAt, :id) ORDER BY a.startAt, a.id")
+    List<Appointment> findPatientPageAfter(@Param("patientId") UUID patientId, @Param("startAt") OffsetDateTime startAt,
+                                           @Param("id") UUID id, Limit limit);
+
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.isActive = true ORDER BY a.startAt, a.id")
+    List<Appointment> findDoctorPage(@Param("doctorId") UUID doctorId, Limit limit);
+
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId AND a.isActive = true " +
+            "AND (a.startAt, a.id) > (:startAt, :id) ORDER BY a.startAt, a.id")
+    List<Appointment> findDoctorPageAfter(@Param("doctorId") UUID doctorId, @Param("startAt") OffsetDateTime startAt,
+                                          @Param("id") UUID id, Limit limit);
+
     @Query("SELECT a FROM Appointment a " +
             "WHERE a.startAt BETWEEN :startDate AND :endDate " +
             "AND a.isActive = true " +
@@ -48,4 +75,55 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
             @Param("endAt") OffsetDateTime endAt
     );
 
+    // Carga do índice de conflitos: só os horários ainda ocupados, com a versão, sem montar as entidades
+    @Query("SELECT new br.com.fiap.clinic.scheduler.domain.dto.VersionedAppointmentInterval(a.id, a.doctor.id, a.patient.id, a.startAt, a.endAt, a.version) " +
+            "FROM Appointment a WHERE a.endAt > :now " +
+            "AND a.status IN (br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.SCHEDULED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.CONFIRMED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.RESCHEDULED) " +
+            "AND a.isActive = true")
+    List<VersionedAppointmentInterval> findActiveIntervals(@Param("now") OffsetDateTime now);
+
+    // Horários ocupados do médico no período, em ordem de início (varredura de horários livres)
+    @Query("SELECT new br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval(a.id, a.doctor.id, a.patient.id, a.startAt, a.endAt) " +
+            "FROM Appointment a WHERE a.doctor.id = :doctorId " +
+            "AND a.startAt < :to AND a.endAt > :from " +
+            "AND a.status IN (br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.SCHEDULED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.CONFIRMED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.RESCHEDULED) " +
+            "AND a.isActive = true " +
+            "ORDER BY a.startAt")
+    List<AppointmentInterval> findDoctorIntervals(
+            @Param("doctorId") UUID doctorId,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
+
+    // Mesma carga para vários médicos de uma vez (busca do primeiro horário livre por especialidade)
+    @Query("SELECT new br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval(a.id, a.doctor.id, a.patient.id, a.startAt, a.endAt) " +
+            "FROM Appointment a WHERE a.doctor.id IN :doctorIds " +
+            "AND a.startAt < :to AND a.endAt > :from " +
+            "AND a.status IN (br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.SCHEDULED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.CONFIRMED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.RESCHEDULED) " +
+            "AND a.isActive = true " +
+            "ORDER BY a.startAt")
+    List<AppointmentInterval> findDoctorsIntervals(
+            @Param("doctorIds") Collection<UUID> doctorIds,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
+
+    // Agenda de vários pacientes de uma vez (criação em lote)
+    @Query("SELECT new br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval(a.id, a.doctor.id, a.patient.id, a.startAt, a.endAt) " +
+            "FROM Appointment a WHERE a.patient.id IN :patientIds " +
+            "AND a.startAt < :to AND a.endAt > :from " +
+            "AND a.status IN (br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.SCHEDULED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.CONFIRMED, br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus.RESCHEDULED) " +
+            "AND a.isActive = true")
+    List<AppointmentInterval> findPatientsIntervals(
+            @Param("patientIds") Collection<UUID> patientIds,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to
+    );
+
+    // Restrições de exclusão de horário (V9/V11), que dão a palavra final sobre conflitos
+    @Query(value = "SELECT count(*) = 2 FROM pg_constraint WHERE conrelid = 'appointments'::regclass " +
+            "AND conname IN ('appointments_doctor_no_overlap', 'appointments_patient_no_overlap')",
+            nativeQuery = true)
+    boolean hasOverlapConstraints();
+
 }
\ No newline at end of file
@@ -2,10 +2,30 @@ package br.com.fiap.clinic.scheduler.domain.repository;
 
 import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, UUID> {
+
+    // Sem diferenciar maiúsculas; usa o índice idx_doctors_specialty (lower(specialty))
+    @Query("SELECT d FROM Doctor d WHERE lower(d.specialty) = lower(:specialty) AND d.isActive = true")
+    List<Doctor> findActiveBySpecialty(@Param("specialty") String specialty);
+
+    // Paginação por cursor em ordem de nome; o recorte pelo índice de users é explicado em KeysetPage
+    @Query("SELECT d FROM Doctor d WHERE d.id IN (" +
+            "SELECT u.id FROM User u WHERE u.role = br.com.fiap.clinic.scheduler.domain.entity.Role.doctor " +
+            "ORDER BY u.name, u.id LIMIT :size) " +
+            "ORDER BY d.name, d.id")
+    List<Doctor> findPage(@Param("size") int size);
+
+    @Query("SELECT d FROM Doctor d WHERE d.id IN (" +
+            "SELECT u.id FROM User u WHERE u.role = br.com.fiap.clinic.scheduler.domain.entity.Role.doctor " +
+            "AND (u.name, u.id) > (:name, :id) ORDER BY u.name, u.id LIMIT :size) " +
+            "ORDER BY d.name, d.id")
+    List<Doctor> findPageAfter(@Param("name") String name, @Param("id") UUID id, @Param("size") int size);
 }
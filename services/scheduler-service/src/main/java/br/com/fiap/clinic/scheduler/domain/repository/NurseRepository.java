@@ -2,11 +2,27 @@ package br.com.fiap.clinic.scheduler.domain.repository;
 
 import br.com.fiap.clinic.scheduler.domain.entity.Nurse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface NurseRepository extends JpaRepository<Nurse, UUID> {
+
+    // Paginação por cursor em ordem de nome; o recorte pelo índice de users é explicado em KeysetPage
+    @Query("SELECT n FROM Nurse n WHERE n.id IN (" +
+            "SELECT u.id FROM User u WHERE u.role = br.com.fiap.clinic.scheduler.domain.entity.Role.nurse " +
+            "ORDER BY u.name, u.id LIMIT :size) " +
+            "ORDER BY n.name, n.id")
+    List<Nurse> findPage(@Param("size") int size);
+
+    @Query("SELECT n FROM Nurse n WHERE n.id IN (" +
+            "SELECT u.id FROM User u WHERE u.role = br.com.fiap.clinic.scheduler.domain.entity.Role.nurse " +
+            "AND (u.name, u.id) > (:name, :id) ORDER BY u.name, u.id LIMIT :size) " +
+            "ORDER BY n.name, n.id")
+    List<Nurse> findPageAfter(@Param("name") String name, @Param("id") UUID id, @Param("size") int size);
 }
 
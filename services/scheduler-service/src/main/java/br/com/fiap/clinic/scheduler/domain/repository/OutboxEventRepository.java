@@ -1,19 +0,0 @@
-package br.com.fiap.clinic.scheduler.domain.repository;
-
-import br.com.fiap.clinic.scheduler.domain.entity.OutboxEvent;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-import java.util.UUID;
-
-@Repository
-public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
-
-    /**
-     * Busca os eventos não processados, ordenados por data de criação (os mais antigos primeiro),
-     * limitado pelo Pageable (para processamento em lote).
-     */
-    List<OutboxEvent> findByProcessedFalseOrderByCreatedAtAsc(Pageable pageable);
-}
\ No newline at end of file
@@ -2,11 +2,27 @@ package br.com.fiap.clinic.scheduler.domain.repository;
 
 import br.com.fiap.clinic.scheduler.domain.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
+
+    // Paginação por cursor em ordem de nome; o recorte pelo índice de users é explicado em KeysetPage
+    @Query("SELECT p FROM Patient p WHERE p.id IN (" +
+            "SELECT u.id FROM User u WHERE u.role = br.com.fiap.clinic.scheduler.domain.entity.Role.patient " +
+            "ORDER BY u.name, u.id LIMIT :size) " +
+            "ORDER BY p.name, p.id")
+    List<Patient> findPage(@Param("size") int size);
+
+    @Query("SELECT p FROM Patient p WHERE p.id IN (" +
+            "SELECT u.id FROM User u WHERE u.role = br.com.fiap.clinic.scheduler.domain.entity.Role.patient " +
+            "AND (u.name, u.id) > (:name, :id) ORDER BY u.name, u.id LIMIT :size) " +
+            "ORDER BY p.name, p.id")
+    List<Patient> findPageAfter(@Param("name") String name, @Param("id") UUID id, @Param("size") int size);
 }
 
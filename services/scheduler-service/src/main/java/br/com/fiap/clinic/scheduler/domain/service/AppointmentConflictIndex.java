@@ -0,0 +1,233 @@
+package br.com.fiap.clinic.scheduler.domain.service;
+
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.dto.VersionedAppointmentInterval;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+/**
+ * Índice em memória dos horários ocupados por médico e por paciente, usado como verificação negativa rápida
+ * antes das consultas de conflito no banco.
+ * <p>
+ * O índice pode ter entradas a mais (ex.: cancelamento feito em outra réplica cujo evento ainda não chegou), mas
+ * não deve ter a menos: um "talvez conflite" é sempre confirmado no banco, e só o "livre" dispensa a consulta.
+ * Até a primeira carga ({@link #rebuild}) terminar, toda verificação vai ao banco. A carga só é feita quando as
+ * restrições de exclusão de horário existem no banco ({@code appointments_*_no_overlap}): são elas que garantem
+ * a agenda se o índice liberar algo que não devia.
+ * <p>
+ * Fica coerente entre réplicas pelos eventos do tópico appointment-events ({@link #apply}) e, na réplica que fez
+ * a alteração, logo após o commit ({@link #applyAfterCommit}). Cada entrada guarda a versão da consulta que a
+ * gerou (coluna {@code version}, incrementada pelo banco a cada UPDATE), inclusive as carregadas do banco;
+ * versões até a da entrada são ignoradas, para que um evento atrasado não devolva a consulta a um horário antigo.
+ * Ao contrário do relógio das réplicas, a versão não regride nem empata entre duas alterações.
+ */
+@Slf4j
+@Component
+public class AppointmentConflictIndex {
+
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final Comparator<Slot> SLOT_ORDER =
+            Comparator.comparingLong(Slot::start).thenComparing(Slot::appointmentId).thenComparingLong(Slot::end);
+
+    private final Object rebuildLock = new Object();
+
+    private volatile State state = new State();
+    private volatile boolean ready;
+
+    // Alterações recebidas durante uma recarga, reaplicadas sobre o retrato do banco (guardado por this)
+    private List<Change> changesDuringRebuild;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param ignoredAppointmentId consulta desconsiderada (a própria, no reagendamento); pode ser {@code null}
+     * @return {@code false} somente se o médico certamente está livre no intervalo
+     */
+    public boolean mayConflictForDoctor(UUID doctorId, OffsetDateTime startAt, OffsetDateTime endAt,
+                                        UUID ignoredAppointmentId) {
+        return !ready || mayConflict(state.doctors, doctorId, startAt, endAt, ignoredAppointmentId);
+    }
+
+    /**
+     * @param ignoredAppointmentId consulta desconsiderada (a própria, no reagendamento); pode ser {@code null}
+     * @return {@code false} somente se o paciente certamente está livre no intervalo
+     */
+    public boolean mayConflictForPatient(UUID patientId, OffsetDateTime startAt, OffsetDateTime endAt,
+                                         UUID ignoredAppointmentId) {
+        return !ready || mayConflict(state.patients, patientId, startAt, endAt, ignoredAppointmentId);
+    }
+
+    /**
+     * Aplica o estado de uma consulta: ativa (agendada, confirmada ou reagendada) ocupa o horário; do contrário,
+     * o libera.
+     *
+     * @param version versão da consulta no banco; alterações anteriores à da entrada atual são ignoradas
+     */
+    public synchronized void apply(AppointmentInterval interval, boolean active, Long version) {
+        Change change = new Change(interval, active, version);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+        state.apply(change);
+    }
+
+    /**
+     * Como {@link #apply}, mas só depois do commit da transação corrente (ou imediatamente, fora de transação).
+     */
+    public void applyAfterCommit(AppointmentInterval interval, boolean active, Long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(interval, active, version);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(interval, active, version);
+            }
+        });
+    }
+
+    /**
+     * Recarrega o índice a partir das consultas ativas no banco. As alterações que chegarem durante a carga são
+     * reaplicadas sobre o retrato antes da troca, para não se perderem.
+     */
+    public void rebuild(Supplier<List<VersionedAppointmentInterval>> loader) {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            try {
+                List<VersionedAppointmentInterval> snapshot = loader.get();
+                synchronized (this) {
+                    State fresh = new State();
+                    snapshot.forEach(loaded -> fresh.apply(new Change(loaded.interval(), true, loaded.version())));
+                    changesDuringRebuild.forEach(fresh::apply);
+                    state = fresh;
+                    ready = true;
+                    log.info("Índice de conflitos de horário carregado com {} consultas ativas.", snapshot.size());
+                }
+            } finally {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    private static boolean mayConflict(Map<UUID, Timeline> timelines, UUID personId,
+                                       OffsetDateTime startAt, OffsetDateTime endAt, UUID ignoredAppointmentId) {
+        Timeline timeline = timelines.get(personId);
+        if (timeline == null) {
+            return false;
+        }
+        long start = startAt.toInstant().toEpochMilli();
+        long end = endAt.toInstant().toEpochMilli();
+        // Só os horários que começam até a maior duração antes do início podem alcançá-lo
+        Slot from = new Slot(start - timeline.maxDurationMillis, 0, MIN_ID);
+        Slot to = new Slot(end, 0, MIN_ID);
+        for (Slot slot : timeline.slots.subSet(from, true, to, false)) {
+            if (slot.end() > start && !slot.appointmentId().equals(ignoredAppointmentId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Change(AppointmentInterval interval, boolean active, Long version) {
+    }
+
+    /**
+     * Último estado conhecido de uma consulta. Consultas liberadas ficam como marca ({@code active = false}) até a
+     * próxima recarga, para que um evento atrasado não volte a ocupar o horário.
+     */
+    private record Entry(AppointmentInterval interval, Long version, boolean active) {
+    }
+
+    private record Slot(long start, long end, UUID appointmentId) {
+
+        static Slot of(AppointmentInterval interval) {
+            return new Slot(interval.startAt().toInstant().toEpochMilli(),
+                    interval.endAt().toInstant().toEpochMilli(),
+                    interval.appointmentId());
+        }
+    }
+
+    /**
+     * Horários de um médico ou paciente, ordenados pelo início. A maior duração já indexada limita a busca
+     * por sobreposição a uma faixa curta antes do intervalo consultado.
+     */
+    private static final class Timeline {
+        private final ConcurrentSkipListSet<Slot> slots = new ConcurrentSkipListSet<>(SLOT_ORDER);
+        private volatile long maxDurationMillis;
+
+        void add(Slot slot) {
+            maxDurationMillis = Math.max(maxDurationMillis, slot.end() - slot.start());
+            slots.add(slot);
+        }
+    }
+
+    /**
+     * Conteúdo do índice; alterado só sob o lock do índice e lido sem lock.
+     */
+    private static final class State {
+        private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<UUID, Timeline> doctors = new ConcurrentHashMap<>();
+        private final Map<UUID, Timeline> patients = new ConcurrentHashMap<>();
+
+        void apply(Change change) {
+            UUID appointmentId = change.interval().appointmentId();
+            Entry current = entries.get(appointmentId);
+            if (current != null && current.version() != null && change.version() != null
+                    && change.version() <= current.version()) {
+                return;
+            }
+            entries.put(appointmentId, new Entry(change.interval(), change.version(), change.active()));
+            boolean occupied = current != null && current.active();
+            if (change.active()) {
+                if (occupied && sameSlot(current.interval(), change.interval())) {
+                    return;
+                }
+                // Inclui o novo horário antes de remover o antigo: leitores concorrentes veem no máximo uma
+                // entrada a mais, nunca a menos
+                add(doctors, change.interval().doctorId(), Slot.of(change.interval()));
+                add(patients, change.interval().patientId(), Slot.of(change.interval()));
+            }
+            if (occupied) {
+                remove(doctors, current.interval().doctorId(), Slot.of(current.interval()));
+                remove(patients, current.interval().patientId(), Slot.of(current.interval()));
+            }
+        }
+
+        private static boolean sameSlot(AppointmentInterval a, AppointmentInterval b) {
+            return Objects.equals(a.doctorId(), b.doctorId())
+                    && Objects.equals(a.patientId(), b.patientId())
+                    && Slot.of(a).equals(Slot.of(b));
+        }
+
+        private static void add(Map<UUID, Timeline> timelines, UUID personId, Slot slot) {
+            timelines.computeIfAbsent(personId, id -> new Timeline()).add(slot);
+        }
+
+        private static void remove(Map<UUID, Timeline> timelines, UUID personId, Slot slot) {
+            Timeline timeline = timelines.get(personId);
+            if (timeline != null && timeline.slots.remove(slot) && timeline.slots.isEmpty()) {
+                timelines.remove(personId);
+            }
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package br.com.fiap.clinic.scheduler.domain.service;
 
+import br.com.fiap.clinic.outbox.Outbox;
 import br.com.fiap.clinic.scheduler.domain.entity.Appointment;
-import br.com.fiap.clinic.scheduler.domain.entity.OutboxEvent;
 import br.com.fiap.clinic.scheduler.domain.enums.NotificationType;
 import br.com.fiap.clinic.scheduler.domain.repository.AppointmentRepository;
-import br.com.fiap.clinic.scheduler.domain.repository.OutboxEventRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,8 +23,7 @@ import java.util.Map;
 public class AppointmentReminderService {
     
     private final AppointmentRepository appointmentRepository;
-    private final OutboxEventRepository outboxEventRepository;
-    private final ObjectMapper objectMapper;
+    private final Outbox outbox;
     
     /**
      * Envia lembretes para todas as consultas do próximo dia
@@ -76,15 +73,7 @@ public class AppointmentReminderService {
             payload.put("appointmentTime", appointment.getStartAt().toLocalTime().toString());
             payload.put("notificationType", NotificationType.APPOINTMENT_REMINDER);
             
-            OutboxEvent event = new OutboxEvent();
-            event.setAggregateType("Appointment");
-            event.setAggregateId(appointment.getId().toString());
-            event.setEventType("AppointmentReminderRequested");
-            event.setPayload(objectMapper.writeValueAsString(payload));
-            event.setProcessed(false);
-            // createdAt é definido automaticamente pelo @PrePersist
-            
-            outboxEventRepository.save(event);
+            outbox.append("Appointment", appointment.getId().toString(), "AppointmentReminderRequested", payload);
             
         } catch (Exception e) {
             log.error("Erro ao criar evento de lembrete", e);
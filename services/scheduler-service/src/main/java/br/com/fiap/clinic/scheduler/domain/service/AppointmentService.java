@@ -1,5 +1,11 @@
 package br.com.fiap.clinic.scheduler.domain.service;
 
+import br.com.fiap.clinic.outbox.Outbox;
+import br.com.fiap.clinic.scheduler.domain.dto.AgendaChange;
+import br.com.fiap.clinic.scheduler.domain.dto.AgendaUpdate;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentBatchResult;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentRequest;
 import br.com.fiap.clinic.scheduler.domain.entity.*;
 import br.com.fiap.clinic.scheduler.domain.repository.*;
 import br.com.fiap.clinic.scheduler.exception.ResourceNotFoundException;
@@ -7,29 +13,62 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AppointmentService {
 
+    // Status que ocupam o horário do médico e do paciente
+    private static final Set<AppointmentStatus> ACTIVE_STATUSES =
+            Set.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CONFIRMED, AppointmentStatus.RESCHEDULED);
+
+    // Regras de agenda (validateDates), compartilhadas com o cálculo de horários livres
+    static final int OPENING_HOUR = 8;
+    static final int CLOSING_HOUR = 18;
+    static final int MIN_DURATION_MINUTES = 15;
+    static final int MAX_DURATION_MINUTES = 240;
+    static final int MIN_ADVANCE_HOURS = 1;
+
+    // Itens por chamada da criação em lote
+    static final int MAX_BATCH_SIZE = 500;
+
+    // Constraints de exclusão (V9) que impedem sobreposição mesmo com requisições simultâneas
+    private static final String DOCTOR_OVERLAP_CONSTRAINT = "appointments_doctor_no_overlap";
+    private static final String PATIENT_OVERLAP_CONSTRAINT = "appointments_patient_no_overlap";
+
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentBulkRepository appointmentBulkRepository;
+    private final AppointmentConflictIndex conflictIndex;
 
     private final PatientService patientService;
     private final DoctorService doctorService;
     private final UserService userService;
 
-    private final OutboxEventRepository outboxEventRepository;
+    private final Outbox outbox;
     private final AppointmentHistoryRepository appointmentHistoryRepository;
 
     private final ObjectMapper objectMapper;
@@ -53,6 +92,34 @@ public class AppointmentService {
         return appointmentRepository.findAll(pageable);
     }
 
+    /**
+     * Página por cursor das consultas visíveis ao usuário (mesmo recorte de {@link #findAll(User)}), em ordem de
+     * início. Cada página é uma busca por chave {@code (start_at, id)}, sem OFFSET: o custo não cresce com a tabela.
+     */
+    @Transactional(readOnly = true)
+    public Window<Appointment> findAll(User user, KeysetScrollPosition position, int limit) {
+        boolean first = position.isInitial();
+        OffsetDateTime startAt = first ? null : KeysetPage.key(position, OffsetDateTime::parse);
+        UUID id = first ? null : KeysetPage.id(position);
+        Limit fetchLimit = Limit.of(KeysetPage.fetchSize(limit));
+
+        List<Appointment> rows;
+        if (user.getRole() == Role.patient) {
+            rows = first
+                    ? appointmentRepository.findPatientPage(user.getId(), fetchLimit)
+                    : appointmentRepository.findPatientPageAfter(user.getId(), startAt, id, fetchLimit);
+        } else if (user.getRole() == Role.doctor) {
+            rows = first
+                    ? appointmentRepository.findDoctorPage(user.getId(), fetchLimit)
+                    : appointmentRepository.findDoctorPageAfter(user.getId(), startAt, id, fetchLimit);
+        } else {
+            rows = first
+                    ? appointmentRepository.findPage(fetchLimit)
+                    : appointmentRepository.findPageAfter(startAt, id, fetchLimit);
+        }
+        return KeysetPage.window(rows, limit, Appointment::getStartAt, Appointment::getId);
+    }
+
     @Transactional(readOnly = true)
     public Appointment findById(UUID id) {
         return appointmentRepository.findById(id)
@@ -76,34 +143,34 @@ public class AppointmentService {
 
         User creator = userService.findById(createdByUserId);
 
-        List<Appointment> doctorConflicts = appointmentRepository.findDoctorConflictingAppointments(
-                doctor.getId(),
-                startAt,
-                endAt
-        );
-        if (!doctorConflicts.isEmpty()) {
-            throw new IllegalStateException("Médico já possui consulta agendada neste horário");
+        // O índice em memória dispensa a ida ao banco quando o horário certamente está livre
+        if (conflictIndex.mayConflictForDoctor(doctor.getId(), startAt, endAt, null)) {
+            List<Appointment> doctorConflicts = appointmentRepository.findDoctorConflictingAppointments(
+                    doctor.getId(),
+                    startAt,
+                    endAt
+            );
+            if (!doctorConflicts.isEmpty()) {
+                throw new IllegalStateException("Médico já possui consulta agendada neste horário");
+            }
         }
 
-        List<Appointment> patientConflicts = appointmentRepository.findPatientConflictingAppointments(
-                patient.getId(),
-                startAt,
-                endAt
-        );
-        if (!patientConflicts.isEmpty()) {
-            throw new IllegalStateException("Paciente já possui consulta agendada neste horário");
+        if (conflictIndex.mayConflictForPatient(patient.getId(), startAt, endAt, null)) {
+            List<Appointment> patientConflicts = appointmentRepository.findPatientConflictingAppointments(
+                    patient.getId(),
+                    startAt,
+                    endAt
+            );
+            if (!patientConflicts.isEmpty()) {
+                throw new IllegalStateException("Paciente já possui consulta agendada neste horário");
+            }
         }
 
-        Appointment appointment = new Appointment();
-        appointment.setPatient(patient);
-        appointment.setDoctor(doctor);
-        appointment.setCreatedBy(creator);
-        appointment.setStartAt(startAt);
-        appointment.setEndAt(endAt);
-        appointment.setStatus(AppointmentStatus.SCHEDULED);
-        appointment.setActive(true);
+        Appointment appointment = newAppointment(patient, doctor, creator, startAt, endAt);
 
-        appointment = appointmentRepository.save(appointment);
+        appointment = saveWithoutOverlap(appointment,
+                "Médico já possui consulta agendada neste horário",
+                "Paciente já possui consulta agendada neste horário");
 
         // 1. Salva Histórico (Log)
         saveHistory(appointment, "CREATED");
@@ -114,6 +181,169 @@ public class AppointmentService {
         return appointment;
     }
 
+    /**
+     * Cria várias consultas de uma vez, com as mesmas regras de {@link #createAppointment}.
+     * <p>
+     * O lote é validado em memória: cada item é conferido contra a agenda já gravada (uma consulta para todos os
+     * médicos e uma para todos os pacientes do lote) e contra os itens aceitos antes dele. Os aceitos são gravados
+     * juntos, em lotes JDBC, com histórico e eventos do Outbox, na mesma transação; os rejeitados voltam com o
+     * motivo. Se outra requisição ocupar um dos horários durante a gravação, a constraint de sobreposição
+     * rejeita o lote inteiro.
+     *
+     * @return um resultado por item, na ordem recebida
+     */
+    @Transactional
+    public List<AppointmentBatchResult> createAppointments(List<AppointmentRequest> requests, UUID createdByUserId) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + MAX_BATCH_SIZE + " consultas");
+        }
+        log.info("Criando lote de {} agendamentos", requests.size());
+
+        User creator = userService.findById(createdByUserId);
+        Map<UUID, Patient> patients = patientService.findAllById(
+                        requests.stream().map(AppointmentRequest::patientId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Patient::getId, Function.identity()));
+        Map<UUID, Doctor> doctors = doctorService.findAllById(
+                        requests.stream().map(AppointmentRequest::doctorId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Doctor::getId, Function.identity()));
+
+        // 1. Regras de cada item
+        String[] errors = new String[requests.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            errors[i] = validateBatchItem(requests.get(i), patients, doctors);
+            if (errors[i] == null) {
+                candidates.add(i);
+            }
+        }
+
+        // 2. Conflitos com a agenda gravada e entre itens do próprio lote
+        List<Appointment> appointments = new ArrayList<>();
+        List<Integer> accepted = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            List<AppointmentRequest> valid = candidates.stream().map(requests::get).toList();
+            OffsetDateTime from = valid.stream().map(AppointmentRequest::startAt).min(Comparator.naturalOrder()).orElseThrow();
+            OffsetDateTime to = valid.stream().map(AppointmentRequest::endAt).max(Comparator.naturalOrder()).orElseThrow();
+            Agenda doctorAgenda = new Agenda(appointmentRepository.findDoctorsIntervals(
+                    valid.stream().map(AppointmentRequest::doctorId).collect(Collectors.toSet()), from, to),
+                    AppointmentInterval::doctorId);
+            Agenda patientAgenda = new Agenda(appointmentRepository.findPatientsIntervals(
+                    valid.stream().map(AppointmentRequest::patientId).collect(Collectors.toSet()), from, to),
+                    AppointmentInterval::patientId);
+
+            for (int i : candidates) {
+                AppointmentRequest request = requests.get(i);
+                if (doctorAgenda.overlaps(request.doctorId(), request.startAt(), request.endAt())) {
+                    errors[i] = "Médico já possui consulta agendada neste horário";
+                } else if (patientAgenda.overlaps(request.patientId(), request.startAt(), request.endAt())) {
+                    errors[i] = "Paciente já possui consulta agendada neste horário";
+                } else {
+                    doctorAgenda.add(request.doctorId(), request.startAt(), request.endAt());
+                    patientAgenda.add(request.patientId(), request.startAt(), request.endAt());
+                    appointments.add(newAppointment(
+                            patients.get(request.patientId()), doctors.get(request.doctorId()), creator,
+                            request.startAt(), request.endAt()));
+                    accepted.add(i);
+                }
+            }
+        }
+
+        // 3. Gravação em lote: consultas, histórico e Outbox
+        if (!appointments.isEmpty()) {
+            appointments = appointmentRepository.saveAll(appointments);
+            flushWithoutOverlap(
+                    "Médico já possui consulta agendada em um dos horários do lote",
+                    "Paciente já possui consulta agendada em um dos horários do lote");
+            appointmentHistoryRepository.saveAll(appointments.stream()
+                    .map(appointment -> buildHistory(appointment, "CREATED"))
+                    .filter(Objects::nonNull)
+                    .toList());
+            createOutboxEvents(appointments, "AppointmentCreated");
+        }
+
+        List<AppointmentBatchResult> results = new ArrayList<>(requests.size());
+        for (int i = 0, next = 0; i < requests.size(); i++) {
+            results.add(next < accepted.size() && accepted.get(next) == i
+                    ? AppointmentBatchResult.created(i, appointments.get(next++))
+                    : AppointmentBatchResult.rejected(i, errors[i]));
+        }
+        log.info("Lote de agendamentos: {} criados, {} rejeitados", accepted.size(), requests.size() - accepted.size());
+        return results;
+    }
+
+    // --- OPERAÇÕES EM MASSA NA AGENDA DO MÉDICO ---
+
+    /**
+     * Cancela de uma vez as consultas ativas do médico que começam em {@code [from, to)} (ex.: médico afastado).
+     * <p>
+     * É um cancelamento da clínica, então não se aplica o prazo de 24 horas do cancelamento individual; consultas
+     * que já começaram ficam de fora. Um único UPDATE, com histórico e eventos gravados em lote.
+     */
+    @Transactional
+    public AgendaUpdate cancelDoctorAgenda(UUID doctorId, OffsetDateTime from, OffsetDateTime to) {
+        validateAgendaRange(from, to);
+        Doctor doctor = doctorService.findById(doctorId);
+
+        List<AgendaChange> changes = appointmentBulkRepository.cancelDoctorAgenda(doctorId, notStarted(from), to);
+        applyAgendaChanges(doctor, changes, "CANCELLED", "AppointmentCancelled");
+
+        log.info("Agenda do médico {} cancelada: {} consultas", doctorId, changes.size());
+        return toAgendaUpdate(changes);
+    }
+
+    /**
+     * Desloca de uma vez em {@code shiftMinutes} as consultas ativas do médico que começam em {@code [from, to)}.
+     * <p>
+     * Os novos horários seguem as regras de {@link #createAppointment}; se algum não puder ser usado (fora do
+     * horário comercial ou em conflito com outra consulta), nada é alterado.
+     */
+    @Transactional
+    public AgendaUpdate rescheduleDoctorAgenda(UUID doctorId, OffsetDateTime from, OffsetDateTime to, int shiftMinutes) {
+        validateAgendaRange(from, to);
+        if (shiftMinutes == 0) {
+            throw new IllegalArgumentException("Deslocamento deve ser diferente de zero");
+        }
+        Doctor doctor = doctorService.findById(doctorId);
+        if (!doctor.isActive()) throw new IllegalArgumentException("Médico inativo");
+
+        List<AgendaChange> shifted;
+        try {
+            shifted = appointmentBulkRepository.shiftDoctorAgenda(doctorId, notStarted(from), to, shiftMinutes);
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e,
+                    "Médico já possui consulta agendada em um dos novos horários",
+                    "Paciente já possui consulta agendada em um dos novos horários");
+        }
+        // Horário comercial e dia útil valem no fuso de quem chamou, não no UTC devolvido pelo banco
+        List<AgendaChange> changes = shifted.stream().map(change -> change.atOffset(from.getOffset())).toList();
+        for (AgendaChange change : changes) {
+            try {
+                validateDates(change.startAt(), change.endAt());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Consulta " + change.appointmentId() + ": " + e.getMessage());
+            }
+        }
+        applyAgendaChanges(doctor, changes, "RESCHEDULED", "AppointmentRescheduled");
+
+        log.info("Agenda do médico {} deslocada em {} min: {} consultas", doctorId, shiftMinutes, changes.size());
+        return toAgendaUpdate(changes);
+    }
+
+    /**
+     * Desativa o médico e cancela as consultas que ele ainda tinha pela frente.
+     */
+    @Transactional
+    public AgendaUpdate deactivateDoctor(UUID doctorId) {
+        doctorService.deactivate(doctorId);
+        Doctor doctor = doctorService.findById(doctorId);
+
+        List<AgendaChange> changes = appointmentBulkRepository.cancelDoctorAgenda(doctorId, OffsetDateTime.now(), null);
+        applyAgendaChanges(doctor, changes, "CANCELLED", "AppointmentCancelled");
+
+        log.info("Médico {} desativado: {} consultas futuras canceladas", doctorId, changes.size());
+        return toAgendaUpdate(changes);
+    }
+
     // --- CONFIRMAÇÃO ---
     @Transactional
     public Appointment confirmAppointment(UUID id) {
@@ -203,33 +433,39 @@ public class AppointmentService {
 
         validateDates(newStart, newEnd);
 
-        List<Appointment> doctorConflicts = appointmentRepository.findDoctorConflictingAppointments(
-                appointment.getDoctor().getId(),
-                newStart,
-                newEnd
-        );
-        // Remover a própria consulta da lista de conflitos
-        doctorConflicts.removeIf(a -> a.getId().equals(id));
-        if (!doctorConflicts.isEmpty()) {
-            throw new IllegalStateException("Médico já possui consulta agendada no novo horário");
+        if (conflictIndex.mayConflictForDoctor(appointment.getDoctor().getId(), newStart, newEnd, id)) {
+            List<Appointment> doctorConflicts = appointmentRepository.findDoctorConflictingAppointments(
+                    appointment.getDoctor().getId(),
+                    newStart,
+                    newEnd
+            );
+            // Remover a própria consulta da lista de conflitos
+            doctorConflicts.removeIf(a -> a.getId().equals(id));
+            if (!doctorConflicts.isEmpty()) {
+                throw new IllegalStateException("Médico já possui consulta agendada no novo horário");
+            }
         }
 
-        List<Appointment> patientConflicts = appointmentRepository.findPatientConflictingAppointments(
-                appointment.getPatient().getId(),
-                newStart,
-                newEnd
-        );
-        // Remover a própria consulta da lista de conflitos
-        patientConflicts.removeIf(a -> a.getId().equals(id));
-        if (!patientConflicts.isEmpty()) {
-            throw new IllegalStateException("Paciente já possui consulta agendada no novo horário");
+        if (conflictIndex.mayConflictForPatient(appointment.getPatient().getId(), newStart, newEnd, id)) {
+            List<Appointment> patientConflicts = appointmentRepository.findPatientConflictingAppointments(
+                    appointment.getPatient().getId(),
+                    newStart,
+                    newEnd
+            );
+            // Remover a própria consulta da lista de conflitos
+            patientConflicts.removeIf(a -> a.getId().equals(id));
+            if (!patientConflicts.isEmpty()) {
+                throw new IllegalStateException("Paciente já possui consulta agendada no novo horário");
+            }
         }
 
         appointment.setStartAt(newStart);
         appointment.setEndAt(newEnd);
         appointment.setStatus(AppointmentStatus.RESCHEDULED);
 
-        appointment = appointmentRepository.save(appointment);
+        appointment = saveWithoutOverlap(appointment,
+                "Médico já possui consulta agendada no novo horário",
+                "Paciente já possui consulta agendada no novo horário");
 
         // 1. Salva Histórico (Log)
         saveHistory(appointment, "RESCHEDULED");
@@ -258,7 +494,7 @@ public class AppointmentService {
         }
 
         // 2. Antecedência mínima de 1 hora
-        OffsetDateTime minimumAllowedTime = OffsetDateTime.now().plusHours(1);
+        OffsetDateTime minimumAllowedTime = OffsetDateTime.now().plusHours(MIN_ADVANCE_HOURS);
         if (start.isBefore(minimumAllowedTime)) {
             throw new IllegalArgumentException("Agendamento deve ser feito com pelo menos 1 hora de antecedência");
         }
@@ -268,12 +504,12 @@ public class AppointmentService {
         int endHour = end.getHour();
         int endMinute = end.getMinute();
 
-        if (startHour < 8 || startHour >= 18) {
+        if (startHour < OPENING_HOUR || startHour >= CLOSING_HOUR) {
             throw new IllegalArgumentException("Horário de início deve estar entre 8h e 18h");
         }
 
         // Permite terminar às 18h (18:00), mas não depois
-        if (endHour > 18 || (endHour == 18 && endMinute > 0)) {
+        if (endHour > CLOSING_HOUR || (endHour == CLOSING_HOUR && endMinute > 0)) {
             throw new IllegalArgumentException("Horário de término deve ser até 18h");
         }
 
@@ -285,10 +521,10 @@ public class AppointmentService {
 
         // 5. Validar duração da consulta (mínimo 15 min, máximo 4 horas)
         long durationMinutes = java.time.Duration.between(start, end).toMinutes();
-        if (durationMinutes < 15) {
+        if (durationMinutes < MIN_DURATION_MINUTES) {
             throw new IllegalArgumentException("Duração mínima da consulta é 15 minutos");
         }
-        if (durationMinutes > 240) { // 4 horas
+        if (durationMinutes > MAX_DURATION_MINUTES) { // 4 horas
             throw new IllegalArgumentException("Duração máxima da consulta é 4 horas");
         }
     }
@@ -313,7 +549,44 @@ public class AppointmentService {
         }
     }
 
+    private String validateBatchItem(AppointmentRequest request, Map<UUID, Patient> patients,
+                                     Map<UUID, Doctor> doctors) {
+        try {
+            validateDates(request.startAt(), request.endAt());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        Patient patient = patients.get(request.patientId());
+        if (patient == null) return "Paciente não encontrado com ID: " + request.patientId();
+        if (!patient.isActive()) return "Paciente inativo";
+
+        Doctor doctor = doctors.get(request.doctorId());
+        if (doctor == null) return "Médico não encontrado com ID: " + request.doctorId();
+        if (!doctor.isActive()) return "Médico inativo";
+        return null;
+    }
+
+    private Appointment newAppointment(Patient patient, Doctor doctor, User creator,
+                                       OffsetDateTime startAt, OffsetDateTime endAt) {
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setCreatedBy(creator);
+        appointment.setStartAt(startAt);
+        appointment.setEndAt(endAt);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setActive(true);
+        return appointment;
+    }
+
     private void saveHistory(Appointment appointment, String action) {
+        AppointmentHistory history = buildHistory(appointment, action);
+        if (history != null) {
+            appointmentHistoryRepository.save(history);
+        }
+    }
+
+    private AppointmentHistory buildHistory(Appointment appointment, String action) {
         try {
             AppointmentHistory history = new AppointmentHistory();
             history.setAppointment(appointment);
@@ -325,49 +598,198 @@ public class AppointmentService {
             snapshot.put("endAt", appointment.getEndAt().toString());
 
             history.setSnapshot(objectMapper.writeValueAsString(snapshot));
-            appointmentHistoryRepository.save(history);
+            return history;
         } catch (JsonProcessingException e) {
             log.error("Erro ao salvar histórico de auditoria", e);
+            return null;
         }
     }
 
-    private void createOutboxEvent(Appointment appointment, String eventType) {
+    /**
+     * Grava e sincroniza na hora, para que a violação das constraints de sobreposição apareça aqui (e não no
+     * commit) e vire o mesmo erro de negócio da verificação de conflito.
+     */
+    private Appointment saveWithoutOverlap(Appointment appointment, String doctorConflictMessage,
+                                           String patientConflictMessage) {
+        Appointment saved = appointmentRepository.save(appointment);
+        flushWithoutOverlap(doctorConflictMessage, patientConflictMessage);
+        return saved;
+    }
+
+    private void flushWithoutOverlap(String doctorConflictMessage, String patientConflictMessage) {
         try {
-            Map<String, Object> payload = new HashMap<>();
+            appointmentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateOverlap(e, doctorConflictMessage, patientConflictMessage);
+        }
+    }
 
-            String eventId = UUID.randomUUID().toString();
-            payload.put("eventId", eventId);
+    /**
+     * Converte a violação de uma constraint de sobreposição no erro de negócio correspondente; outras violações
+     * seguem como estão.
+     */
+    private RuntimeException translateOverlap(DataIntegrityViolationException e, String doctorConflictMessage,
+                                              String patientConflictMessage) {
+        String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (cause != null && cause.contains(DOCTOR_OVERLAP_CONSTRAINT)) {
+            return new IllegalStateException(doctorConflictMessage);
+        }
+        if (cause != null && cause.contains(PATIENT_OVERLAP_CONSTRAINT)) {
+            return new IllegalStateException(patientConflictMessage);
+        }
+        return e;
+    }
 
+    private static void validateAgendaRange(OffsetDateTime from, OffsetDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Data de início deve ser antes da data de fim");
+        }
+    }
 
-            payload.put("appointmentId", appointment.getId().toString());
-            payload.put("eventType", eventType);
-            payload.put("timestamp", OffsetDateTime.now().toString());
-            payload.put("status", appointment.getStatus().toString());
+    // Consultas que já começaram não são alteradas em massa
+    private static OffsetDateTime notStarted(OffsetDateTime from) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return from.isBefore(now) ? now : from;
+    }
 
-            // DADOS DO PACIENTE
-            payload.put("patientId", appointment.getPatient().getId());
-            payload.put("patientName", appointment.getPatient().getName());
-            payload.put("patientEmail", appointment.getPatient().getEmail());
+    /**
+     * Grava em lote o histórico e os eventos das consultas alteradas por um UPDATE em massa. As consultas não
+     * são recarregadas: o evento é montado a partir do que o UPDATE devolveu e o histórico aponta para uma
+     * referência sem consulta ao banco.
+     */
+    private void applyAgendaChanges(Doctor doctor, List<AgendaChange> changes, String action, String eventType) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<Appointment> snapshots = changes.stream().map(change -> toSnapshot(doctor, change)).toList();
+        appointmentHistoryRepository.saveAll(snapshots.stream()
+                .map(snapshot -> {
+                    AppointmentHistory history = buildHistory(snapshot, action);
+                    if (history != null) {
+                        history.setAppointment(appointmentRepository.getReferenceById(snapshot.getId()));
+                    }
+                    return history;
+                })
+                .filter(Objects::nonNull)
+                .toList());
+        createOutboxEvents(snapshots, eventType);
+    }
 
-            // DADOS DO MÉDICO
-            payload.put("doctorName", appointment.getDoctor().getName());
-            payload.put("doctorSpecialty", appointment.getDoctor().getSpecialty());
-            payload.put("doctorId", appointment.getDoctor().getId());
+    private static Appointment toSnapshot(Doctor doctor, AgendaChange change) {
+        Patient patient = new Patient();
+        patient.setId(change.patientId());
+        patient.setName(change.patientName());
+        patient.setEmail(change.patientEmail());
+
+        Appointment snapshot = new Appointment();
+        snapshot.setId(change.appointmentId());
+        snapshot.setPatient(patient);
+        snapshot.setDoctor(doctor);
+        snapshot.setStartAt(change.startAt());
+        snapshot.setEndAt(change.endAt());
+        snapshot.setStatus(change.status());
+        snapshot.setVersion(change.version());
+        snapshot.setActive(true);
+        return snapshot;
+    }
 
-            // DATAS
-            payload.put("appointmentDate", appointment.getStartAt().toString());
+    private static AgendaUpdate toAgendaUpdate(List<AgendaChange> changes) {
+        return new AgendaUpdate(changes.size(), changes.stream().map(AgendaChange::appointmentId).toList());
+    }
 
-            OutboxEvent event = new OutboxEvent();
-            event.setAggregateType("Appointment");
-            event.setAggregateId(appointment.getId().toString());
-            event.setEventType(eventType);
-            event.setPayload(objectMapper.writeValueAsString(payload));
+    private void createOutboxEvent(Appointment appointment, String eventType) {
+        // Grava a alteração já agora para ler a versão incrementada pelo banco, que vai no evento
+        appointmentRepository.flush();
+        try {
+            OffsetDateTime timestamp = OffsetDateTime.now();
+            Map<String, Object> payload = buildOutboxPayload(appointment, eventType, timestamp);
 
-            outboxEventRepository.save(event);
+            outbox.append("Appointment", appointment.getId().toString(), eventType, payload);
             log.info("Evento Outbox salvo com sucesso: {}", eventType);
+
+            // Esta réplica atualiza o índice no commit; as demais, ao receber o evento
+            updateConflictIndex(appointment);
         } catch (Exception e) {
             log.error("Erro CRÍTICO ao criar evento Outbox. O Kafka não receberá esta mensagem!", e);
             throw new RuntimeException("Erro ao gerar evento de integração", e);
         }
     }
+
+    private void createOutboxEvents(List<Appointment> appointments, String eventType) {
+        try {
+            OffsetDateTime timestamp = OffsetDateTime.now();
+            outbox.appendAll(appointments.stream()
+                    .map(appointment -> new Outbox.Event("Appointment", appointment.getId().toString(), eventType,
+                            buildOutboxPayload(appointment, eventType, timestamp)))
+                    .toList());
+            log.info("{} eventos Outbox salvos com sucesso: {}", appointments.size(), eventType);
+
+            appointments.forEach(this::updateConflictIndex);
+        } catch (Exception e) {
+            log.error("Erro CRÍTICO ao criar eventos Outbox. O Kafka não receberá estas mensagens!", e);
+            throw new RuntimeException("Erro ao gerar evento de integração", e);
+        }
+    }
+
+    private void updateConflictIndex(Appointment appointment) {
+        conflictIndex.applyAfterCommit(AppointmentInterval.of(appointment),
+                appointment.isActive() && ACTIVE_STATUSES.contains(appointment.getStatus()), appointment.getVersion());
+    }
+
+    private Map<String, Object> buildOutboxPayload(Appointment appointment, String eventType, OffsetDateTime timestamp) {
+        Map<String, Object> payload = new HashMap<>();
+
+        String eventId = UUID.randomUUID().toString();
+        payload.put("eventId", eventId);
+
+        payload.put("appointmentId", appointment.getId().toString());
+        payload.put("eventType", eventType);
+        payload.put("timestamp", timestamp.toString());
+        payload.put("version", appointment.getVersion());
+        payload.put("status", appointment.getStatus().toString());
+
+        // DADOS DO PACIENTE
+        payload.put("patientId", appointment.getPatient().getId());
+        payload.put("patientName", appointment.getPatient().getName());
+        payload.put("patientEmail", appointment.getPatient().getEmail());
+
+        // DADOS DO MÉDICO
+        payload.put("doctorName", appointment.getDoctor().getName());
+        payload.put("doctorSpecialty", appointment.getDoctor().getSpecialty());
+        payload.put("doctorId", appointment.getDoctor().getId());
+
+        // DATAS
+        payload.put("appointmentDate", appointment.getStartAt().toString());
+        payload.put("appointmentEndDate", appointment.getEndAt().toString());
+        return payload;
+    }
+
+    /**
+     * Horários ocupados por médico ou paciente durante a validação de um lote. As entradas de uma mesma pessoa
+     * não se sobrepõem (garantido pelas constraints no banco e pela própria validação), então basta olhar o
+     * horário que começa antes e o que começa depois do intervalo.
+     */
+    private static final class Agenda {
+        private final Map<UUID, TreeMap<Instant, Instant>> byPerson = new HashMap<>();
+
+        Agenda(List<AppointmentInterval> booked, Function<AppointmentInterval, UUID> person) {
+            booked.forEach(interval -> add(person.apply(interval), interval.startAt(), interval.endAt()));
+        }
+
+        boolean overlaps(UUID personId, OffsetDateTime startAt, OffsetDateTime endAt) {
+            TreeMap<Instant, Instant> slots = byPerson.get(personId);
+            if (slots == null) {
+                return false;
+            }
+            Instant start = startAt.toInstant();
+            Map.Entry<Instant, Instant> before = slots.floorEntry(start);
+            Map.Entry<Instant, Instant> after = slots.higherEntry(start);
+            return (before != null && before.getValue().isAfter(start))
+                    || (after != null && after.getKey().isBefore(endAt.toInstant()));
+        }
+
+        void add(UUID personId, OffsetDateTime startAt, OffsetDateTime endAt) {
+            byPerson.computeIfAbsent(personId, id -> new TreeMap<>()).put(startAt.toInstant(), endAt.toInstant());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package br.com.fiap.clinic.scheduler.domain.service;
+
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.dto.DoctorSlot;
+import br.com.fiap.clinic.scheduler.domain.dto.TimeSlot;
+import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
+import br.com.fiap.clinic.scheduler.domain.repository.AppointmentRepository;
+import br.com.fiap.clinic.scheduler.domain.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static br.com.fiap.clinic.scheduler.domain.service.AppointmentService.CLOSING_HOUR;
+import static br.com.fiap.clinic.scheduler.domain.service.AppointmentService.MAX_DURATION_MINUTES;
+import static br.com.fiap.clinic.scheduler.domain.service.AppointmentService.MIN_ADVANCE_HOURS;
+import static br.com.fiap.clinic.scheduler.domain.service.AppointmentService.MIN_DURATION_MINUTES;
+import static br.com.fiap.clinic.scheduler.domain.service.AppointmentService.OPENING_HOUR;
+
+/**
+ * Cálculo dos horários livres da agenda de um médico, com as mesmas regras de
+ * {@code AppointmentService.validateDates} (dias úteis, 8h às 18h, antecedência mínima e duração).
+ * <p>
+ * Uma única consulta traz as consultas ativas do período em ordem de início, e uma única varredura percorre
+ * os dias e as consultas juntos: o custo é linear no número de consultas e de horários devolvidos.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+
+    // Grade dos horários oferecidos, igual à duração mínima de uma consulta
+    static final int SLOT_GRID_MINUTES = MIN_DURATION_MINUTES;
+    // Período máximo por chamada, para manter a resposta pequena
+    static final int MAX_RANGE_DAYS = 31;
+    static final int MAX_DOCTORS = 50;
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorService doctorService;
+    private final DoctorRepository doctorRepository;
+
+    /**
+     * Lista os horários livres do médico em {@code [from, to]}, na ordem, com o fuso de {@code from}.
+     * <p>
+     * Em cada intervalo livre os horários começam no primeiro múltiplo de {@value #SLOT_GRID_MINUTES} minutos e
+     * se sucedem sem sobreposição, de {@code durationMinutes} em {@code durationMinutes}.
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSlot> findAvailableSlots(UUID doctorId, OffsetDateTime from, OffsetDateTime to,
+                                             int durationMinutes) {
+        validateRequest(from, to, durationMinutes);
+
+        Doctor doctor = doctorService.findById(doctorId);
+        if (!doctor.isActive()) {
+            return List.of();
+        }
+
+        SearchWindow window = SearchWindow.of(from, to);
+        if (window.isEmpty()) {
+            return List.of();
+        }
+
+        List<AppointmentInterval> busy =
+                appointmentRepository.findDoctorIntervals(doctorId, window.earliest(), window.latest());
+        return sweep(busy, window.earliest(), window.latest(), Duration.ofMinutes(durationMinutes), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Primeiro horário livre de cada médico ativo da especialidade, dos mais cedo para os mais tarde.
+     * <p>
+     * A agenda de todos os candidatos vem em uma só consulta; a varredura de cada médico (interrompida no
+     * primeiro horário livre) roda em paralelo.
+     *
+     * @param limit quantidade máxima de médicos na resposta
+     */
+    @Transactional(readOnly = true)
+    public List<DoctorSlot> findEarliestAvailableDoctors(String specialty, OffsetDateTime from, OffsetDateTime to,
+                                                         int durationMinutes, int limit) {
+        validateRequest(from, to, durationMinutes);
+        if (limit < 1 || limit > MAX_DOCTORS) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + MAX_DOCTORS);
+        }
+
+        SearchWindow window = SearchWindow.of(from, to);
+        List<Doctor> doctors = doctorRepository.findActiveBySpecialty(specialty);
+        if (window.isEmpty() || doctors.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, List<AppointmentInterval>> busyByDoctor = appointmentRepository
+                .findDoctorsIntervals(doctors.stream().map(Doctor::getId).toList(), window.earliest(), window.latest())
+                .stream()
+                .collect(Collectors.groupingBy(AppointmentInterval::doctorId));
+
+        Duration duration = Duration.ofMinutes(durationMinutes);
+        return doctors.parallelStream()
+                .flatMap(doctor -> sweep(busyByDoctor.getOrDefault(doctor.getId(), List.of()),
+                        window.earliest(), window.latest(), duration, 1)
+                        .stream()
+                        .map(slot -> new DoctorSlot(doctor, slot.startAt(), slot.endAt())))
+                .sorted(Comparator.comparing(DoctorSlot::startAt).thenComparing(slot -> slot.doctor().getName()))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Percorre dias e consultas (ordenadas por início) de uma vez. Um candidato {@code [t, t + duração)} só
+     * conflita com consultas que começam antes do seu fim; como {@code t} só avança, basta guardar o maior
+     * término entre elas: se passar de {@code t}, o candidato pula para depois dele.
+     */
+    static List<TimeSlot> sweep(List<AppointmentInterval> busy, OffsetDateTime earliest, OffsetDateTime latest,
+                                Duration duration, int maxSlots) {
+        ZoneOffset offset = earliest.getOffset();
+        List<TimeSlot> slots = new ArrayList<>();
+        int next = 0;
+        OffsetDateTime busyUntil = null;
+        OffsetDateTime cursor = earliest;
+
+        for (LocalDate day = earliest.toLocalDate(); !day.isAfter(latest.toLocalDate()); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            OffsetDateTime opening = day.atTime(OPENING_HOUR, 0).atOffset(offset);
+            OffsetDateTime closing = min(day.atTime(CLOSING_HOUR, 0).atOffset(offset), latest);
+            OffsetDateTime t = alignToGrid(max(cursor, opening));
+
+            while (!t.plus(duration).isAfter(closing)) {
+                OffsetDateTime end = t.plus(duration);
+                while (next < busy.size() && busy.get(next).startAt().isBefore(end)) {
+                    busyUntil = max(busyUntil, busy.get(next).endAt());
+                    next++;
+                }
+                if (busyUntil != null && busyUntil.isAfter(t)) {
+                    t = alignToGrid(busyUntil.withOffsetSameInstant(offset));
+                    continue;
+                }
+                slots.add(new TimeSlot(t, end));
+                if (slots.size() >= maxSlots) {
+                    return slots;
+                }
+                t = end;
+            }
+            cursor = t;
+        }
+        return slots;
+    }
+
+    private static void validateRequest(OffsetDateTime from, OffsetDateTime to, int durationMinutes) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Data de início deve ser antes da data de fim");
+        }
+        if (Duration.between(from, to).toDays() > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Período máximo para busca de horários é de " + MAX_RANGE_DAYS + " dias");
+        }
+        if (durationMinutes < MIN_DURATION_MINUTES) {
+            throw new IllegalArgumentException("Duração mínima da consulta é 15 minutos");
+        }
+        if (durationMinutes > MAX_DURATION_MINUTES) {
+            throw new IllegalArgumentException("Duração máxima da consulta é 4 horas");
+        }
+    }
+
+    /**
+     * Período efetivo da busca, no fuso de {@code from}: começa no mínimo com a antecedência exigida.
+     */
+    private record SearchWindow(OffsetDateTime earliest, OffsetDateTime latest) {
+
+        static SearchWindow of(OffsetDateTime from, OffsetDateTime to) {
+            ZoneOffset offset = from.getOffset();
+            OffsetDateTime earliest = max(from, OffsetDateTime.now().plusHours(MIN_ADVANCE_HOURS));
+            return new SearchWindow(earliest.withOffsetSameInstant(offset), to.withOffsetSameInstant(offset));
+        }
+
+        boolean isEmpty() {
+            return !earliest.isBefore(latest);
+        }
+    }
+
+    private static OffsetDateTime alignToGrid(OffsetDateTime time) {
+        OffsetDateTime truncated = time.truncatedTo(ChronoUnit.MINUTES);
+        if (truncated.isBefore(time)) {
+            truncated = truncated.plusMinutes(1);
+        }
+        int remainder = truncated.getMinute() % SLOT_GRID_MINUTES;
+        return remainder == 0 ? truncated : truncated.plusMinutes(SLOT_GRID_MINUTES - remainder);
+    }
+
+    private static OffsetDateTime max(OffsetDateTime a, OffsetDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    private static OffsetDateTime min(OffsetDateTime a, OffsetDateTime b) {
+        return b.isBefore(a) ? b : a;
+    }
+}
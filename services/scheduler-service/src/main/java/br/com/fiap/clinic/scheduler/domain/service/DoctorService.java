@@ -4,11 +4,14 @@ import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
 import br.com.fiap.clinic.scheduler.domain.repository.DoctorRepository;
 import br.com.fiap.clinic.scheduler.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +26,7 @@ import java.util.UUID;
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final UserCache userCache;
 
     /**
      * Busca todos os médicos cadastrados.
@@ -43,6 +47,21 @@ public class DoctorService {
         return doctorRepository.findAll(pageable);
     }
 
+    /**
+     * Busca uma página de médicos por cursor, em ordem de nome.
+     *
+     * @param position posição depois da última página lida ({@code ScrollPosition.keyset()} na primeira)
+     * @param limit tamanho da página
+     * @return janela de médicos
+     */
+    public Window<Doctor> findAll(KeysetScrollPosition position, int limit) {
+        List<Doctor> rows = position.isInitial()
+                ? doctorRepository.findPage(KeysetPage.fetchSize(limit))
+                : doctorRepository.findPageAfter(KeysetPage.key(position, String::valueOf), KeysetPage.id(position),
+                        KeysetPage.fetchSize(limit));
+        return KeysetPage.window(rows, limit, Doctor::getName, Doctor::getId);
+    }
+
     /**
      * Busca um médico por ID.
      *
@@ -55,6 +74,16 @@ public class DoctorService {
                 .orElseThrow(() -> new ResourceNotFoundException("Médico não encontrado com ID: " + id));
     }
 
+    /**
+     * Busca vários médicos por ID em uma única consulta; IDs inexistentes são ignorados.
+     *
+     * @param ids IDs dos médicos
+     * @return médicos encontrados
+     */
+    public List<Doctor> findAllById(Collection<UUID> ids) {
+        return doctorRepository.findAllById(ids);
+    }
+
     /**
      * Cria um novo médico.
      *
@@ -85,7 +114,9 @@ public class DoctorService {
         doctor.setSpecialty(doctorDetails.getSpecialty());
         doctor.setActive(doctorDetails.isActive());
 
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        userCache.invalidate(id);
+        return saved;
     }
 
     /**
@@ -99,6 +130,7 @@ public class DoctorService {
         Doctor doctor = findById(id);
         doctor.setActive(false);
         doctorRepository.save(doctor);
+        userCache.invalidate(id);
     }
 
     /**
@@ -112,6 +144,7 @@ public class DoctorService {
         Doctor doctor = findById(id);
         doctor.setActive(true);
         doctorRepository.save(doctor);
+        userCache.invalidate(id);
     }
 
     /**
@@ -126,6 +159,7 @@ public class DoctorService {
             throw new ResourceNotFoundException("Médico não encontrado com ID: " + id);
         }
         doctorRepository.deleteById(id);
+        userCache.invalidate(id);
     }
 
     /**
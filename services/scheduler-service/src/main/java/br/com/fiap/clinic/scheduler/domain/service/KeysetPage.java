@@ -0,0 +1,61 @@
+package br.com.fiap.clinic.scheduler.domain.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Paginação por cursor {@code (chave, id)}, usada pelas listagens do GraphQL.
+ * <p>
+ * As consultas comparam a linha inteira ({@code (chave, id) > (:chave, :id)}), que o PostgreSQL usa como limite
+ * do índice na mesma ordem. O keyset do Spring Data gera {@code chave > ? OR (chave = ? AND id > ?)}, que vira só
+ * filtro: páginas profundas percorreriam o índice desde o começo.
+ * <p>
+ * Nas listagens de pacientes, médicos e enfermeiros (herança JOINED), o recorte da página sai de {@code users},
+ * onde role, nome e id estão na mesma tabela: {@code (role, name, id) > cursor} vira limite do índice
+ * {@code idx_users_role_name_id} e só as linhas da página são carregadas com a subclasse.
+ * <p>
+ * O cursor guarda a chave e o id como texto, sem depender dos tipos na serialização do cursor.
+ */
+final class KeysetPage {
+
+    private static final String KEY = "key";
+    private static final String ID = "id";
+
+    private KeysetPage() {
+    }
+
+    // Uma linha além do pedido indica se há próxima página
+    static int fetchSize(int limit) {
+        return limit + 1;
+    }
+
+    static <T> Window<T> window(List<T> rows, int limit, Function<T, ?> keyOf, Function<T, UUID> idOf) {
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(content, index -> ScrollPosition.forward(Map.of(
+                KEY, keyOf.apply(content.get(index)).toString(),
+                ID, idOf.apply(content.get(index)).toString())), hasNext);
+    }
+
+    static <K> K key(KeysetScrollPosition position, Function<String, K> parser) {
+        return parse(position, KEY, parser);
+    }
+
+    static UUID id(KeysetScrollPosition position) {
+        return parse(position, ID, UUID::fromString);
+    }
+
+    private static <V> V parse(KeysetScrollPosition position, String name, Function<String, V> parser) {
+        try {
+            return parser.apply(position.getKeys().get(name).toString());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
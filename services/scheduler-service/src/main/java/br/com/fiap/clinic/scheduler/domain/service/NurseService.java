@@ -4,8 +4,10 @@ import br.com.fiap.clinic.scheduler.domain.entity.Nurse;
 import br.com.fiap.clinic.scheduler.domain.repository.NurseRepository;
 import br.com.fiap.clinic.scheduler.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,7 @@ import java.util.UUID;
 public class NurseService {
 
     private final NurseRepository nurseRepository;
+    private final UserCache userCache;
 
     /**
      * Busca todos os enfermeiros cadastrados.
@@ -43,6 +46,21 @@ public class NurseService {
         return nurseRepository.findAll(pageable);
     }
 
+    /**
+     * Busca uma página de enfermeiros por cursor, em ordem de nome.
+     *
+     * @param position posição depois da última página lida ({@code ScrollPosition.keyset()} na primeira)
+     * @param limit tamanho da página
+     * @return janela de enfermeiros
+     */
+    public Window<Nurse> findAll(KeysetScrollPosition position, int limit) {
+        List<Nurse> rows = position.isInitial()
+                ? nurseRepository.findPage(KeysetPage.fetchSize(limit))
+                : nurseRepository.findPageAfter(KeysetPage.key(position, String::valueOf), KeysetPage.id(position),
+                        KeysetPage.fetchSize(limit));
+        return KeysetPage.window(rows, limit, Nurse::getName, Nurse::getId);
+    }
+
     /**
      * Busca um enfermeiro por ID.
      *
@@ -90,7 +108,9 @@ public class NurseService {
         // isActive agora é herdado de User e é boolean (não Boolean)
         nurse.setActive(nurseDetails.isActive());
 
-        return nurseRepository.save(nurse);
+        Nurse saved = nurseRepository.save(nurse);
+        userCache.invalidate(userId);
+        return saved;
     }
 
     /**
@@ -104,6 +124,7 @@ public class NurseService {
         Nurse nurse = findById(userId);
         nurse.setActive(false);
         nurseRepository.save(nurse);
+        userCache.invalidate(userId);
     }
 
     /**
@@ -117,6 +138,7 @@ public class NurseService {
         Nurse nurse = findById(userId);
         nurse.setActive(true);
         nurseRepository.save(nurse);
+        userCache.invalidate(userId);
     }
 
     /**
@@ -131,6 +153,7 @@ public class NurseService {
             throw new ResourceNotFoundException("Enfermeiro não encontrado com ID: " + userId);
         }
         nurseRepository.deleteById(userId);
+        userCache.invalidate(userId);
     }
 
     /**
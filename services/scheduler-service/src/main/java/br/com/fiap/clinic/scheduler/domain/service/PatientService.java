@@ -4,11 +4,14 @@ import br.com.fiap.clinic.scheduler.domain.entity.Patient;
 import br.com.fiap.clinic.scheduler.domain.repository.PatientRepository;
 import br.com.fiap.clinic.scheduler.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +26,7 @@ import java.util.UUID;
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final UserCache userCache;
 
     /**
      * Busca todos os pacientes cadastrados.
@@ -43,6 +47,21 @@ public class PatientService {
         return patientRepository.findAll(pageable);
     }
 
+    /**
+     * Busca uma página de pacientes por cursor, em ordem de nome.
+     *
+     * @param position posição depois da última página lida ({@code ScrollPosition.keyset()} na primeira)
+     * @param limit tamanho da página
+     * @return janela de pacientes
+     */
+    public Window<Patient> findAll(KeysetScrollPosition position, int limit) {
+        List<Patient> rows = position.isInitial()
+                ? patientRepository.findPage(KeysetPage.fetchSize(limit))
+                : patientRepository.findPageAfter(KeysetPage.key(position, String::valueOf), KeysetPage.id(position),
+                        KeysetPage.fetchSize(limit));
+        return KeysetPage.window(rows, limit, Patient::getName, Patient::getId);
+    }
+
     /**
      * Busca um paciente por ID.
      *
@@ -55,6 +74,16 @@ public class PatientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado com ID: " + id));
     }
 
+    /**
+     * Busca vários pacientes por ID em uma única consulta; IDs inexistentes são ignorados.
+     *
+     * @param ids IDs dos pacientes
+     * @return pacientes encontrados
+     */
+    public List<Patient> findAllById(Collection<UUID> ids) {
+        return patientRepository.findAllById(ids);
+    }
+
     /**
      * Cria um novo paciente.
      *
@@ -84,7 +113,9 @@ public class PatientService {
         patient.setBirthDate(patientDetails.getBirthDate());
         patient.setActive(patientDetails.isActive());
 
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        userCache.invalidate(id);
+        return saved;
     }
 
     /**
@@ -98,6 +129,7 @@ public class PatientService {
         Patient patient = findById(id);
         patient.setActive(false);
         patientRepository.save(patient);
+        userCache.invalidate(id);
     }
 
     /**
@@ -111,6 +143,7 @@ public class PatientService {
         Patient patient = findById(id);
         patient.setActive(true);
         patientRepository.save(patient);
+        userCache.invalidate(id);
     }
 
     /**
@@ -125,6 +158,7 @@ public class PatientService {
             throw new ResourceNotFoundException("Paciente não encontrado com ID: " + id);
         }
         patientRepository.deleteById(id);
+        userCache.invalidate(id);
     }
 
     /**
@@ -0,0 +1,137 @@
+package br.com.fiap.clinic.scheduler.domain.service;
+
+import br.com.fiap.clinic.scheduler.config.KafkaConfig;
+import br.com.fiap.clinic.scheduler.domain.entity.User;
+import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache em memória dos usuários (principal completo), por ID e por login, preenchido no primeiro acesso.
+ * <p>
+ * Limitado em tamanho e com expiração: mesmo que um aviso de invalidação se perca, uma entrada desatualizada
+ * dura no máximo o TTL. Alterações de usuário chamam {@link #invalidate}, que remove a entrada nesta réplica e,
+ * após o commit, avisa as demais pelo tópico {@value KafkaConfig#USER_CACHE_TOPIC_NAME}.
+ * <p>
+ * As entidades guardadas estão desanexadas: servem para leitura e como referência em associações, nunca para
+ * alteração (os serviços de CRUD continuam lendo do repositório). O índice por login guarda só o ID, resolvido
+ * em {@code byId}: invalidar um usuário é remover uma entrada, e um login antigo (alterado desde então) não
+ * resolve mais para ele.
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Cache<UUID, User> byId;
+    private final Cache<String, UUID> byLogin;
+
+    // Incrementado a cada invalidação: uma carga que cruzou com uma invalidação não entra no cache
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(UserRepository userRepository,
+                     KafkaTemplate<String, String> kafkaTemplate,
+                     @Value("${user.cache.max-size:10000}") long maxSize,
+                     @Value("${user.cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.byLogin = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public Optional<User> findById(UUID id) {
+        User cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = invalidations.get();
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(loaded -> store(loaded, generation));
+        return user;
+    }
+
+    public Optional<User> findByLogin(String login) {
+        UUID id = byLogin.getIfPresent(login);
+        User cached = id != null ? byId.getIfPresent(id) : null;
+        if (cached != null && login.equals(cached.getLogin())) {
+            return Optional.of(cached);
+        }
+        long generation = invalidations.get();
+        Optional<User> user = userRepository.findByLogin(login);
+        user.ifPresent(loaded -> store(loaded, generation));
+        return user;
+    }
+
+    /**
+     * Remove o usuário desta réplica e, depois do commit da transação corrente (ou imediatamente, fora de
+     * transação), avisa as demais réplicas. Em rollback a entrada só é removida de novo, sem aviso.
+     */
+    public void invalidate(UUID id) {
+        evict(id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // A entidade pode ter sido relida e guardada durante a transação, antes da alteração
+                evict(id);
+                if (status == STATUS_COMMITTED) {
+                    publish(id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove o usuário apenas desta réplica (avisos recebidos das demais).
+     */
+    public void evict(UUID id) {
+        invalidations.incrementAndGet();
+        User removed = byId.asMap().remove(id);
+        if (removed != null) {
+            byLogin.asMap().remove(removed.getLogin(), id);
+        }
+    }
+
+    private void store(User user, long generation) {
+        byId.put(user.getId(), user);
+        byLogin.put(user.getLogin(), user.getId());
+        // Uma invalidação concorrente pode ter removido as entradas antes do put acima; se houve, desfaz
+        if (invalidations.get() != generation) {
+            byId.asMap().remove(user.getId(), user);
+            byLogin.asMap().remove(user.getLogin(), user.getId());
+        }
+    }
+
+    private void publish(UUID id) {
+        String key = id.toString();
+        try {
+            kafkaTemplate.send(KafkaConfig.USER_CACHE_TOPIC_NAME, key, key)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            logPublishFailure(id, ex);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            logPublishFailure(id, e);
+        }
+    }
+
+    private static void logPublishFailure(UUID id, Throwable cause) {
+        log.warn("Falha ao avisar invalidação do usuário {}; nas outras réplicas a entrada expira pelo TTL", id, cause);
+    }
+}
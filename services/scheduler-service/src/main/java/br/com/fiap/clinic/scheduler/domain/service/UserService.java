@@ -15,7 +15,8 @@ import java.util.UUID;
 /**
  * Serviço de gerenciamento de usuários.
  * <p>
- * Responsável pelas operações de CRUD de usuários no sistema.
+ * Responsável pelas operações de CRUD de usuários no sistema. As buscas por ID e por login passam pelo
+ * {@link UserCache}; as alterações leem do repositório e invalidam o cache em todas as réplicas.
  */
 @Service
 @RequiredArgsConstructor
@@ -23,6 +24,7 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     /**
      * Busca todos os usuários cadastrados.
@@ -44,26 +46,26 @@ public class UserService {
     }
 
     /**
-     * Busca um usuário por ID.
+     * Busca um usuário por ID (do cache, somente leitura).
      *
      * @param id ID do usuário
      * @return usuário encontrado
      * @throws ResourceNotFoundException se o usuário não for encontrado
      */
     public User findById(UUID id) {
-        return userRepository.findById(id)
+        return userCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + id));
     }
 
     /**
-     * Busca um usuário por login.
+     * Busca um usuário por login (do cache, somente leitura).
      *
      * @param login login do usuário
      * @return usuário encontrado
      * @throws ResourceNotFoundException se o usuário não for encontrado
      */
     public User findByLogin(String login) {
-        return userRepository.findByLogin(login)
+        return userCache.findByLogin(login)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com login: " + login));
     }
 
@@ -88,14 +90,16 @@ public class UserService {
      */
     @Transactional
     public User update(UUID id, User userDetails) {
-        User user = findById(id);
+        User user = load(id);
 
         user.setName(userDetails.getName());
         user.setEmail(userDetails.getEmail());
         user.setLogin(userDetails.getLogin());
         user.setActive(userDetails.isActive());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(id);
+        return saved;
     }
 
     /**
@@ -106,9 +110,10 @@ public class UserService {
      */
     @Transactional
     public void deactivate(UUID id) {
-        User user = findById(id);
+        User user = load(id);
         user.setActive(false);
         userRepository.save(user);
+        userCache.invalidate(id);
     }
 
     /**
@@ -119,9 +124,10 @@ public class UserService {
      */
     @Transactional
     public void activate(UUID id) {
-        User user = findById(id);
+        User user = load(id);
         user.setActive(true);
         userRepository.save(user);
+        userCache.invalidate(id);
     }
 
     /**
@@ -138,6 +144,7 @@ public class UserService {
             throw new ResourceNotFoundException("Usuário não encontrado com ID: " + id);
         }
         userRepository.deleteById(id);
+        userCache.invalidate(id);
     }
 
     /**
@@ -149,5 +156,10 @@ public class UserService {
     public boolean exists(UUID id) {
         return userRepository.existsById(id);
     }
-}
 
+    // Entidade gerenciada, para alteração (as do cache são desanexadas)
+    private User load(UUID id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com ID: " + id));
+    }
+}
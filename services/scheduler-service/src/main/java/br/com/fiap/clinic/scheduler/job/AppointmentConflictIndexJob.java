@@ -0,0 +1,50 @@
+package br.com.fiap.clinic.scheduler.job;
+
+import br.com.fiap.clinic.scheduler.domain.repository.AppointmentRepository;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentConflictIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Carrega o índice de conflitos de horário na subida e o recarrega uma vez por dia em cada réplica
+ * (sem ShedLock: o índice é local), descartando as consultas que já passaram.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "appointment.conflict-index.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentConflictIndexJob {
+
+    private final AppointmentConflictIndex conflictIndex;
+    private final AppointmentRepository appointmentRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Executa uma vez por dia (03:15 por padrão)
+     */
+    @Scheduled(cron = "${appointment.conflict-index.rebuild-cron:0 15 3 * * *}")
+    public void rebuild() {
+        try {
+            // Sem as restrições no banco, um "livre" errado do índice viraria conflito gravado
+            if (!appointmentRepository.hasOverlapConstraints()) {
+                log.warn("Restrições de exclusão de horário ausentes; o índice de conflitos fica desligado e as verificações vão ao banco.");
+                return;
+            }
+            conflictIndex.rebuild(() -> appointmentRepository.findActiveIntervals(OffsetDateTime.now()));
+        } catch (Exception e) {
+            // Sem o índice, as verificações de conflito continuam indo ao banco
+            log.error("=== Erro ao carregar o índice de conflitos de horário ===", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.fiap.clinic.scheduler.job;
+
+import br.com.fiap.clinic.outbox.jdbc.OutboxPartitionMaintenance;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job agendado para manter as partições da tabela outbox_events
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPartitionMaintenanceJob {
+
+    private final OutboxPartitionMaintenance outboxPartitionMaintenance;
+
+    /**
+     * Executa uma vez por dia (03:30 por padrão) em apenas uma réplica
+     * Cria as partições futuras e descarta as antigas já processadas
+     */
+    @Scheduled(cron = "${outbox.partition.maintenance-cron:0 30 3 * * *}")
+    @SchedulerLock(name = "OutboxPartition_maintain",
+            lockAtLeastFor = "1m",
+            lockAtMostFor = "10m")
+    public void maintainPartitions() {
+        log.info("=== Iniciando manutenção das partições do Outbox ===");
+
+        try {
+            outboxPartitionMaintenance.maintainPartitions();
+        } catch (Exception e) {
+            log.error("=== Erro na manutenção das partições do Outbox ===", e);
+        }
+    }
+}
@@ -1,4 +1,58 @@
 package br.com.fiap.clinic.scheduler.listener;
 
+import br.com.fiap.clinic.scheduler.config.KafkaConfig;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentEvent;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentConflictIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Mantém o índice de conflitos de horário desta réplica em dia com as alterações feitas pelas demais.
+ * <p>
+ * Cada réplica lê todas as partições do tópico, sem grupo de consumidores (ver {@link KafkaConfig}), a partir
+ * do fim: o que veio antes já está no banco e entra na carga do índice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "appointment.conflict-index.enabled", havingValue = "true", matchIfMissing = true)
 public class KafkaEventConsumer {
+
+    private static final String REMINDER_EVENT = "AppointmentReminderRequested";
+    private static final Set<String> ACTIVE_STATUSES = Set.of(
+            AppointmentStatus.SCHEDULED.name(), AppointmentStatus.CONFIRMED.name(), AppointmentStatus.RESCHEDULED.name());
+
+    private final AppointmentConflictIndex conflictIndex;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(
+                    topic = KafkaConfig.TOPIC_NAME,
+                    partitions = "#{@kafkaConfig.appointmentEventPartitions()}"),
+            containerFactory = "conflictIndexListenerContainerFactory")
+    public void handle(@Payload(required = false) AppointmentEvent event) {
+        // Lembretes não mudam o horário
+        if (event == null || REMINDER_EVENT.equals(event.eventType())) {
+            return;
+        }
+        boolean active = ACTIVE_STATUSES.contains(event.status());
+        // Sem a data de término (eventos anteriores a ela) não há horário para indexar; liberar não precisa dela
+        if (active && (event.appointmentDate() == null || event.appointmentEndDate() == null)) {
+            return;
+        }
+        conflictIndex.apply(
+                new AppointmentInterval(event.appointmentId(), event.doctorId(), event.patientId(),
+                        event.appointmentDate(), event.appointmentEndDate()),
+                active,
+                event.version());
+        log.debug("Índice de conflitos atualizado: consulta {} ({})", event.appointmentId(), event.eventType());
+    }
 }
@@ -0,0 +1,39 @@
+package br.com.fiap.clinic.scheduler.listener;
+
+import br.com.fiap.clinic.scheduler.config.KafkaConfig;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Remove do {@link UserCache} desta réplica os usuários alterados em qualquer réplica (inclusive nesta, que já
+ * os removeu no commit; remover de novo é inofensivo).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final UserCache userCache;
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(topic = KafkaConfig.USER_CACHE_TOPIC_NAME, partitions = "0"),
+            containerFactory = "userCacheListenerContainerFactory")
+    public void handle(@Payload(required = false) String userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            userCache.evict(UUID.fromString(userId));
+            log.debug("Usuário {} removido do cache", userId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Aviso de invalidação de usuário inválido ignorado: {}", userId);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- V10__Doctor_Specialty_And_Agenda_Indexes.sql
+-- Busca do primeiro horário livre por especialidade: os médicos saem pela especialidade (sem diferenciar
+-- maiúsculas) e a agenda de todos eles vem em uma só consulta por médico e início, só com consultas ativas.
+
+CREATE INDEX idx_doctors_specialty ON doctors (lower(specialty));
+
+CREATE INDEX idx_appointments_doctor_agenda ON appointments (doctor_id, start_at)
+    WHERE is_active AND status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED');
@@ -0,0 +1,20 @@
+-- V11__Deferrable_Overlap_Constraints.sql
+-- Reagendamento em massa da agenda de um médico: ao deslocar consultas encostadas umas nas outras, cada linha
+-- atualizada colidiria com a seguinte ainda não atualizada. As constraints de V9 passam a ser DEFERRABLE
+-- (continuam verificadas a cada comando por padrão); o reagendamento em massa as adia só durante o UPDATE
+-- e as verifica logo em seguida com SET CONSTRAINTS ... IMMEDIATE.
+
+ALTER TABLE appointments DROP CONSTRAINT appointments_doctor_no_overlap;
+ALTER TABLE appointments DROP CONSTRAINT appointments_patient_no_overlap;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT appointments_doctor_no_overlap
+        EXCLUDE USING gist (doctor_id WITH =, time_range WITH &&)
+        WHERE (is_active AND status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED'))
+        DEFERRABLE INITIALLY IMMEDIATE;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT appointments_patient_no_overlap
+        EXCLUDE USING gist (patient_id WITH =, time_range WITH &&)
+        WHERE (is_active AND status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED'))
+        DEFERRABLE INITIALLY IMMEDIATE;
@@ -0,0 +1,13 @@
+-- V12__Keyset_Pagination_Indexes.sql
+-- Paginação por cursor: cada página é "WHERE (chave, id) > (cursor) ORDER BY chave, id LIMIT n", e com um índice
+-- na mesma ordem o banco lê só as linhas da página, qualquer que seja o tamanho da tabela.
+
+-- Consultas da enfermagem (todas), em ordem de início
+CREATE INDEX idx_appointments_start_id ON appointments (start_at, id);
+
+-- Consultas ativas do paciente e do médico logados
+CREATE INDEX idx_appointments_patient_start_id ON appointments (patient_id, start_at, id) WHERE is_active;
+CREATE INDEX idx_appointments_doctor_start_id ON appointments (doctor_id, start_at, id) WHERE is_active;
+
+-- Pacientes, médicos e enfermeiros (herança JOINED: role, nome e id ficam em users)
+CREATE INDEX idx_users_role_name_id ON users (role, name, id);
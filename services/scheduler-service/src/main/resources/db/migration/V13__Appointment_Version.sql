@@ -0,0 +1,18 @@
+-- V13__Appointment_Version.sql
+-- Versão de cada consulta, incrementada pelo banco a cada UPDATE. Vai nos eventos e ordena as alterações no
+-- índice de conflitos de horário de cada réplica sem depender do relógio de quem gravou: o trigger roda com
+-- a linha já travada, então duas alterações da mesma consulta sempre recebem versões crescentes.
+
+ALTER TABLE appointments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION appointments_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := OLD.version + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_appointments_version
+    BEFORE UPDATE ON appointments
+    FOR EACH ROW
+    EXECUTE FUNCTION appointments_bump_version();
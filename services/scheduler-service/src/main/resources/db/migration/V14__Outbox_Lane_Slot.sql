@@ -0,0 +1,10 @@
+-- V14__Outbox_Lane_Slot.sql
+-- Raias do relay do Outbox indexáveis: o slot do agregado (hash do aggregate_id módulo 64, ver OutboxLanes na lib
+-- outbox-relay) vira uma coluna gerada, e o índice parcial de pendentes passa a começar por ela. Assim a
+-- reivindicação de uma raia (lane_slot = ANY(slots da raia)) não calcula o hash de todos os pendentes.
+
+ALTER TABLE outbox_events
+    ADD COLUMN lane_slot SMALLINT GENERATED ALWAYS AS ((hashtext(aggregate_id) & 2147483647) % 64) STORED;
+
+DROP INDEX idx_outbox_events_pending;
+CREATE INDEX idx_outbox_events_pending ON outbox_events (lane_slot, priority, created_at) WHERE processed = false;
@@ -0,0 +1,50 @@
+-- V15__Outbox_Partitions_From_Default.sql
+-- outbox_create_partitions falhava quando a partição default já tinha eventos do mês a criar (ex.: o job de
+-- manutenção ficou parado e os eventos caíram na default): o Postgres recusa criar uma partição cujos valores
+-- existem na default. Nesse caso a default é desanexada, a partição é criada, os eventos do mês são movidos
+-- para ela e a default volta a ser anexada, tudo na mesma transação.
+--
+-- Enquanto isso a tabela fica travada para escrita; como só acontece quando a manutenção atrasou, o custo é raro.
+
+CREATE OR REPLACE FUNCTION outbox_create_partitions(from_date DATE, to_date DATE) RETURNS INT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_date)::date;
+    month_end DATE;
+    partition_name TEXT;
+    columns TEXT;
+    in_default BOOLEAN;
+    moved INT;
+    created INT := 0;
+BEGIN
+    -- Colunas graváveis (as geradas, como lane_slot, são recalculadas na partição nova)
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum) INTO columns
+    FROM pg_attribute
+    WHERE attrelid = 'outbox_events'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+
+    WHILE month_start <= to_date LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        partition_name := format('outbox_events_p%s', to_char(month_start, 'YYYYMM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            SELECT EXISTS (SELECT 1 FROM outbox_events_default WHERE created_at >= month_start AND created_at < month_end)
+            INTO in_default;
+            IF in_default THEN
+                ALTER TABLE outbox_events DETACH PARTITION outbox_events_default;
+                EXECUTE format('CREATE TABLE %I PARTITION OF outbox_events FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+                EXECUTE format('WITH moved AS (DELETE FROM outbox_events_default WHERE created_at >= %L AND created_at < %L RETURNING *)'
+                                   || ' INSERT INTO %I (%s) SELECT %s FROM moved',
+                               month_start, month_end, partition_name, columns, columns);
+                GET DIAGNOSTICS moved = ROW_COUNT;
+                ALTER TABLE outbox_events ATTACH PARTITION outbox_events_default DEFAULT;
+                RAISE NOTICE 'Partição % criada com % eventos movidos da default', partition_name, moved;
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF outbox_events FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+            END IF;
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,16 @@
+-- V4__Outbox_Notify_Trigger.sql
+-- Acorda o relay do Outbox assim que novos eventos são confirmados (LISTEN/NOTIFY).
+-- O trigger é por instrução (FOR EACH STATEMENT): um lote de inserts gera uma única notificação,
+-- e o Postgres só entrega o NOTIFY quando a transação de negócio faz commit.
+
+CREATE OR REPLACE FUNCTION notify_outbox_events() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('outbox_events', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_outbox_events_notify
+    AFTER INSERT ON outbox_events
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_outbox_events();
@@ -0,0 +1,94 @@
+-- V5__Partition_Outbox_Events.sql
+-- Particiona outbox_events por mês (RANGE em created_at) para que eventos já processados sejam
+-- descartados com DETACH + DROP da partição, em vez de DELETE + VACUUM na tabela inteira.
+
+ALTER TABLE outbox_events RENAME TO outbox_events_legacy;
+DROP TRIGGER trg_outbox_events_notify ON outbox_events_legacy;
+
+-- A chave de partição precisa fazer parte da PK
+CREATE TABLE outbox_events (
+                               id UUID NOT NULL DEFAULT gen_random_uuid(),
+                               aggregate_type VARCHAR(255) NOT NULL,
+                               aggregate_id VARCHAR(255) NOT NULL,
+                               event_type VARCHAR(255) NOT NULL,
+                               payload JSONB NOT NULL,
+                               processed BOOLEAN NOT NULL DEFAULT false,
+                               created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                               PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Rede de segurança caso falte a partição do mês (o job de manutenção cria as próximas com antecedência)
+CREATE TABLE outbox_events_default PARTITION OF outbox_events DEFAULT;
+
+-- Índice parcial: cobre apenas os pendentes, que é o que o relay consulta
+CREATE INDEX idx_outbox_events_pending ON outbox_events (created_at) WHERE processed = false;
+
+-- Cria as partições mensais (outbox_events_pYYYYMM) que cobrem o intervalo [from_date, to_date]
+CREATE OR REPLACE FUNCTION outbox_create_partitions(from_date DATE, to_date DATE) RETURNS INT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_date)::date;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    WHILE month_start <= to_date LOOP
+        partition_name := format('outbox_events_p%s', to_char(month_start, 'YYYYMM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF outbox_events FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, (month_start + INTERVAL '1 month')::date);
+            created := created + 1;
+        END IF;
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Remove (DETACH + DROP) as partições mensais encerradas há mais de 'retention'
+-- que não tenham nenhum evento pendente. Na partição default, apaga só os processados antigos.
+CREATE OR REPLACE FUNCTION outbox_drop_processed_partitions(retention INTERVAL) RETURNS INT AS $$
+DECLARE
+    part RECORD;
+    has_pending BOOLEAN;
+    dropped INT := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname AS name
+        FROM pg_inherits i
+                 JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'outbox_events'::regclass
+          AND c.relname ~ '^outbox_events_p[0-9]{6}$'
+        ORDER BY c.relname
+    LOOP
+        IF to_date(right(part.name, 6), 'YYYYMM') + INTERVAL '1 month' <= now() - retention THEN
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE processed = false)', part.name) INTO has_pending;
+            IF NOT has_pending THEN
+                EXECUTE format('ALTER TABLE outbox_events DETACH PARTITION %I', part.name);
+                EXECUTE format('DROP TABLE %I', part.name);
+                dropped := dropped + 1;
+            END IF;
+        END IF;
+    END LOOP;
+
+    DELETE FROM outbox_events_default WHERE processed = true AND created_at < now() - retention;
+
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partições desde o evento mais antigo até dois meses à frente
+SELECT outbox_create_partitions(
+               COALESCE((SELECT min(created_at)::date FROM outbox_events_legacy), CURRENT_DATE),
+               (CURRENT_DATE + INTERVAL '2 months')::date
+       );
+
+INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, processed, created_at)
+SELECT id, aggregate_type, aggregate_id, event_type, payload,
+       COALESCE(processed, false), COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM outbox_events_legacy;
+
+DROP TABLE outbox_events_legacy;
+
+CREATE TRIGGER trg_outbox_events_notify
+    AFTER INSERT ON outbox_events
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notify_outbox_events();
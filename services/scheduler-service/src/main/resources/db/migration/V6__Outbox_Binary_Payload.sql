@@ -0,0 +1,9 @@
+-- V6__Outbox_Binary_Payload.sql
+-- O payload do Outbox passa a ser binário: JSON UTF-8 (padrão) ou Smile (outbox.encoding=smile).
+-- O formato de cada evento fica em content_type e segue para o Kafka no header de mesmo nome.
+
+ALTER TABLE outbox_events
+    ALTER COLUMN payload TYPE BYTEA USING convert_to(payload::text, 'UTF8');
+
+ALTER TABLE outbox_events
+    ADD COLUMN content_type VARCHAR(100) NOT NULL DEFAULT 'application/json';
@@ -0,0 +1,13 @@
+-- V7__Outbox_Priority.sql
+-- Prioridade de publicação do Outbox: 0 = interativo (ações do usuário), 1 = massa (ex.: lembretes diários).
+-- O relay reivindica os interativos primeiro e reserva uma fatia de cada lote para os de massa.
+
+ALTER TABLE outbox_events
+    ADD COLUMN priority SMALLINT NOT NULL DEFAULT 0;
+
+-- Substitui o índice de pendentes por um que também serve à ordenação por prioridade
+DROP INDEX idx_outbox_events_pending;
+CREATE INDEX idx_outbox_events_pending ON outbox_events (priority, created_at) WHERE processed = false;
+
+-- Guarda de ordem por agregado: um evento não passa à frente de um pendente mais antigo do mesmo agregado
+CREATE INDEX idx_outbox_events_pending_aggregate ON outbox_events (aggregate_id, created_at) WHERE processed = false;
@@ -0,0 +1,15 @@
+-- V8__Outbox_Retry_And_Parking.sql
+-- Isolamento de eventos com falha no Outbox: cada evento rejeitado pelo broker conta uma tentativa e espera um
+-- backoff exponencial (next_attempt_at) sem segurar a raia; esgotadas as tentativas (outbox.relay.retry.max-attempts)
+-- ele é estacionado (parked_at) e sai da fila, mantendo o último erro para análise.
+--
+-- Para reenviar um evento estacionado depois de corrigir a causa:
+--   UPDATE outbox_events SET parked_at = NULL, attempts = 0, next_attempt_at = NULL WHERE id = '<id>';
+--
+-- Eventos estacionados continuam com processed = false, então a partição que os contém não é descartada pela retenção.
+
+ALTER TABLE outbox_events
+    ADD COLUMN attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN next_attempt_at TIMESTAMPTZ,
+    ADD COLUMN last_error TEXT,
+    ADD COLUMN parked_at TIMESTAMPTZ;
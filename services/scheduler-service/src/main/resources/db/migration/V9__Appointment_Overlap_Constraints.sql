@@ -0,0 +1,29 @@
+-- V9__Appointment_Overlap_Constraints.sql
+-- Impede no banco a dupla marcação de médico ou paciente: a verificação de conflito da aplicação é
+-- "consulta e depois grava" em READ COMMITTED, e duas requisições simultâneas podiam passar juntas.
+-- As constraints de exclusão valem só para consultas ativas (mesmos status das consultas de conflito) e
+-- o intervalo é semiaberto '[)', então uma consulta pode começar exatamente quando a anterior termina.
+--
+-- Antes de aplicar em uma base existente, confira se já há sobreposições (a criação da constraint falharia):
+--   SELECT a.id, b.id FROM appointments a JOIN appointments b
+--     ON a.doctor_id = b.doctor_id AND a.id < b.id
+--    AND tstzrange(a.start_at, a.end_at) && tstzrange(b.start_at, b.end_at)
+--    AND a.is_active AND b.is_active
+--    AND a.status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED') AND b.status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED');
+-- (e o mesmo com patient_id)
+
+-- Igualdade de UUID no índice GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE appointments
+    ADD COLUMN time_range TSTZRANGE GENERATED ALWAYS AS (tstzrange(start_at, end_at, '[)')) STORED;
+
+ALTER TABLE appointments
+    ADD CONSTRAINT appointments_doctor_no_overlap
+        EXCLUDE USING gist (doctor_id WITH =, time_range WITH &&)
+        WHERE (is_active AND status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED'));
+
+ALTER TABLE appointments
+    ADD CONSTRAINT appointments_patient_no_overlap
+        EXCLUDE USING gist (patient_id WITH =, time_range WITH &&)
+        WHERE (is_active AND status IN ('SCHEDULED', 'CONFIRMED', 'RESCHEDULED'));
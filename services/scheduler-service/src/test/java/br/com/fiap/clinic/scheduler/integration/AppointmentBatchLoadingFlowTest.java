@@ -0,0 +1,130 @@
+package br.com.fiap.clinic.scheduler.integration;
+
+import br.com.fiap.clinic.scheduler.AbstractIntegrationTest;
+import br.com.fiap.clinic.scheduler.domain.entity.User;
+import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.DayOfWeek;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes de Integração - Carga em Lote das Associações da Consulta")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AppointmentBatchLoadingFlowTest extends AbstractIntegrationTest {
+
+    private static final String APPOINTMENTS_QUERY = """
+            query {
+                appointments {
+                    id
+                    patient { name }
+                    doctor { name crm }
+                    createdBy { name }
+                }
+            }
+            """;
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID nurseId;
+    private OffsetDateTime nineAm;
+
+    @BeforeEach
+    void setUp() {
+        User nurse = userRepository.findByLogin("enfermeiro").orElseThrow();
+        nurseId = nurse.getId();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(nurse, null, nurse.getAuthorities()));
+        nineAm = OffsetDateTime.now(ZoneOffset.ofHours(-3))
+                .with(TemporalAdjusters.next(DayOfWeek.THURSDAY))
+                .withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve carregar paciente, médico e criador de todas as consultas com um comando por associação")
+    void deveCarregarAssociacoesComComandosFixos() {
+        // Arrange
+        // Pacientes e médicos distintos: com N+1 cada consulta geraria seus próprios SELECTs
+        for (int i = 0; i < 4; i++) {
+            appointmentService.createAppointment(UUID.fromString(criarPaciente()), UUID.fromString(criarMedico()),
+                    nurseId, nineAm.plusHours(i), nineAm.plusHours(i + 1));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Descarta os INSERTs do cenário
+        statistics.clear();
+
+        // Act
+        int rows = graphQlTester.document(APPOINTMENTS_QUERY).execute()
+                .path("appointments").entityList(Object.class).get().size();
+
+        // Assert
+        // Consultas + pacientes + médicos + criadores (herança JOINED resolvida no mesmo SELECT de cada carga)
+        assertThat(rows).isGreaterThanOrEqualTo(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    // --- Helpers de Teste ---
+
+    private String criarPaciente() {
+        String unique = "pb" + System.nanoTime();
+        String mutation = """
+            mutation {
+                createPatient(input: {
+                    name: "Pacient Batch Test"
+                    email: "%s@flow.com"
+                    login: "%s"
+                    password: "123"
+                }) { id }
+            }
+            """.formatted(unique, unique);
+        return graphQlTester.document(mutation).execute().path("createPatient.id").entity(String.class).get();
+    }
+
+    private String criarMedico() {
+        String unique = "db" + System.nanoTime();
+        String mutation = """
+            mutation {
+                createDoctor(input: {
+                    name: "Doctor Batch Test"
+                    email: "%s@flow.com"
+                    login: "%s"
+                    password: "123"
+                    crm: "CRM %s"
+                    specialty: "Geral"
+                }) { id }
+            }
+            """.formatted(unique, unique, unique);
+        return graphQlTester.document(mutation).execute().path("createDoctor.id").entity(String.class).get();
+    }
+}
@@ -6,20 +6,28 @@ import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
 import br.com.fiap.clinic.scheduler.domain.entity.User;
 import br.com.fiap.clinic.scheduler.domain.repository.AppointmentRepository;
 import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.DayOfWeek;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.TemporalAdjusters;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -35,6 +43,15 @@ class AppointmentFlowTest extends AbstractIntegrationTest {
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private String patientId;
     private String doctorId;
 
@@ -165,8 +182,101 @@ class AppointmentFlowTest extends AbstractIntegrationTest {
                 .path("rescheduleAppointment.status").entity(String.class).isEqualTo("RESCHEDULED");
     }
 
+    @Test
+    @DisplayName("Deve recusar no banco a consulta do médico sobreposta a uma gravação simultânea")
+    void deveRecusarSobreposicaoDoMedicoNoBanco() throws Exception {
+        // Arrange
+        UUID doctor = UUID.fromString(doctorId);
+        UUID otherPatient = UUID.fromString(criarPaciente());
+
+        // Act
+        Throwable error = agendarDuranteGravacaoConcorrente(otherPatient, doctor, UUID.fromString(patientId), doctor);
+
+        // Assert
+        assertThat(error).isInstanceOf(IllegalStateException.class)
+                .hasMessage("Médico já possui consulta agendada neste horário");
+    }
+
+    @Test
+    @DisplayName("Deve recusar no banco a consulta do paciente sobreposta a uma gravação simultânea")
+    void deveRecusarSobreposicaoDoPacienteNoBanco() throws Exception {
+        // Arrange
+        UUID patient = UUID.fromString(patientId);
+        UUID otherDoctor = UUID.fromString(criarMedico());
+
+        // Act
+        Throwable error = agendarDuranteGravacaoConcorrente(patient, otherDoctor, patient, UUID.fromString(doctorId));
+
+        // Assert
+        assertThat(error).isInstanceOf(IllegalStateException.class)
+                .hasMessage("Paciente já possui consulta agendada neste horário");
+    }
+
     // --- Helpers de Teste ---
 
+    /**
+     * Grava uma consulta numa transação ainda aberta e agenda pelo serviço meia hora depois dela: a verificação de
+     * conflito da aplicação não enxerga a linha sem commit, então só a constraint de exclusão barra o agendamento.
+     *
+     * @return o erro do agendamento pelo serviço, ou {@code null} se ele foi gravado
+     */
+    private Throwable agendarDuranteGravacaoConcorrente(UUID concurrentPatientId, UUID concurrentDoctorId,
+                                                        UUID patientId, UUID doctorId) throws Exception {
+        UUID nurseId = userRepository.findByLogin("enfermeiro").orElseThrow().getId();
+        OffsetDateTime startAt = OffsetDateTime.now(ZoneOffset.ofHours(-3))
+                .with(TemporalAdjusters.next(DayOfWeek.WEDNESDAY))
+                .withHour(10).withMinute(0).withSecond(0).withNano(0);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> concurrent = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.update("INSERT INTO appointments (patient_id, doctor_id, start_at, end_at, status, created_by)"
+                                    + " VALUES (?, ?, ?, ?, 'SCHEDULED', ?)",
+                            concurrentPatientId, concurrentDoctorId, startAt, startAt.plusHours(1), nurseId);
+                    inserted.countDown();
+                    await(commit);
+                }));
+        await(inserted);
+
+        CompletableFuture<Appointment> booking = CompletableFuture.supplyAsync(() -> appointmentService.createAppointment(
+                patientId, doctorId, nurseId, startAt.plusMinutes(30), startAt.plusMinutes(90)));
+        // O commit só é liberado com o INSERT do serviço esperando pela linha concorrente
+        awaitLockWait(booking);
+        commit.countDown();
+        concurrent.get(10, TimeUnit.SECONDS);
+
+        try {
+            booking.get(10, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private void awaitLockWait(CompletableFuture<?> booking) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!booking.isDone() && System.nanoTime() < deadline) {
+            Integer waiting = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity"
+                    + " WHERE datname = current_database() AND wait_event_type = 'Lock'", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Tempo esgotado aguardando a outra transação");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
     private String criarConsultaAgendada() {
         String startAt = OffsetDateTime.now().plusDays(1).withHour(10).withNano(0).atZoneSameInstant(ZoneOffset.UTC).toString();
         String endAt = OffsetDateTime.now().plusDays(1).withHour(11).withNano(0).atZoneSameInstant(ZoneOffset.UTC).toString();
@@ -194,7 +304,7 @@ class AppointmentFlowTest extends AbstractIntegrationTest {
     }
 
     private String criarPaciente() {
-        String unique = "p" + System.currentTimeMillis();
+        String unique = "p" + System.nanoTime();
         String mutation = """
             mutation {
                 createPatient(input: {
@@ -209,7 +319,7 @@ class AppointmentFlowTest extends AbstractIntegrationTest {
     }
 
     private String criarMedico() {
-        String unique = "d" + System.currentTimeMillis();
+        String unique = "d" + System.nanoTime();
         String mutation = """
             mutation {
                 createDoctor(input: {
@@ -0,0 +1,180 @@
+package br.com.fiap.clinic.scheduler.integration;
+
+import br.com.fiap.clinic.scheduler.AbstractIntegrationTest;
+import br.com.fiap.clinic.scheduler.domain.dto.AgendaUpdate;
+import br.com.fiap.clinic.scheduler.domain.entity.Appointment;
+import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
+import br.com.fiap.clinic.scheduler.domain.entity.User;
+import br.com.fiap.clinic.scheduler.domain.repository.AppointmentRepository;
+import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.DayOfWeek;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercita no Postgres os UPDATEs em massa do {@code AppointmentBulkRepository} e as constraints de sobreposição
+ * da V11 (adiadas durante o deslocamento).
+ */
+@DisplayName("Testes de Integração - Agenda do Médico em Massa")
+class DoctorAgendaFlowTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    private UUID nurseId;
+    private UUID doctorId;
+    private UUID firstPatientId;
+    private UUID secondPatientId;
+    private OffsetDateTime nineAm;
+
+    @BeforeEach
+    void setUp() {
+        authenticateAs("enfermeiro");
+        nurseId = userRepository.findByLogin("enfermeiro").orElseThrow().getId();
+        doctorId = UUID.fromString(criarMedico());
+        firstPatientId = UUID.fromString(criarPaciente("a"));
+        secondPatientId = UUID.fromString(criarPaciente("b"));
+        // Dia útil futuro, no fuso da clínica, para as regras de horário comercial
+        nineAm = OffsetDateTime.now(ZoneOffset.ofHours(-3))
+                .with(TemporalAdjusters.next(DayOfWeek.TUESDAY))
+                .withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve deslocar juntas consultas encostadas do médico")
+    void deveDeslocarConsultasEncostadas() {
+        // Arrange
+        Appointment first = agendar(firstPatientId, nineAm, nineAm.plusHours(1));
+        Appointment second = agendar(secondPatientId, nineAm.plusHours(1), nineAm.plusHours(2));
+
+        // Act
+        // A primeira vai para o horário antigo da segunda: só passa com a verificação ao fim do comando
+        AgendaUpdate update = appointmentService.rescheduleDoctorAgenda(
+                doctorId, nineAm.withHour(8), nineAm.withHour(12), 60);
+
+        // Assert
+        assertThat(update.count()).isEqualTo(2);
+        assertThat(update.appointmentIds()).containsExactlyInAnyOrder(first.getId(), second.getId());
+        Appointment movedFirst = appointmentRepository.findById(first.getId()).orElseThrow();
+        Appointment movedSecond = appointmentRepository.findById(second.getId()).orElseThrow();
+        assertThat(movedFirst.getStatus()).isEqualTo(AppointmentStatus.RESCHEDULED);
+        assertThat(movedFirst.getStartAt()).isAtSameInstantAs(nineAm.plusHours(1));
+        assertThat(movedSecond.getStartAt()).isAtSameInstantAs(nineAm.plusHours(2));
+        assertThat(movedSecond.getEndAt()).isAtSameInstantAs(nineAm.plusHours(3));
+    }
+
+    @Test
+    @DisplayName("Deve recusar deslocamento sobre outra consulta do médico sem alterar nada")
+    void deveRecusarDeslocamentoSobreConsultaExistente() {
+        // Arrange
+        Appointment moving = agendar(firstPatientId, nineAm, nineAm.plusHours(1));
+        Appointment fixed = agendar(secondPatientId, nineAm.plusHours(2), nineAm.plusHours(3));
+
+        // Act & Assert
+        // Só a primeira está no período; deslocada em 2h, cai sobre a segunda
+        assertThatThrownBy(() -> appointmentService.rescheduleDoctorAgenda(
+                doctorId, nineAm.withHour(8), nineAm.plusMinutes(30), 120))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Médico já possui consulta agendada em um dos novos horários");
+
+        Appointment unchanged = appointmentRepository.findById(moving.getId()).orElseThrow();
+        assertThat(unchanged.getStatus()).isEqualTo(AppointmentStatus.SCHEDULED);
+        assertThat(unchanged.getStartAt()).isAtSameInstantAs(nineAm);
+        assertThat(appointmentRepository.findById(fixed.getId()).orElseThrow().getStartAt())
+                .isAtSameInstantAs(nineAm.plusHours(2));
+    }
+
+    @Test
+    @DisplayName("Deve cancelar todas as consultas futuras quando o período não tem fim")
+    void deveCancelarAgendaSemFim() {
+        // Arrange
+        Appointment soon = agendar(firstPatientId, nineAm, nineAm.plusHours(1));
+        Appointment later = agendar(secondPatientId, nineAm.plusWeeks(8), nineAm.plusWeeks(8).plusHours(1));
+
+        // Act
+        // A desativação cancela com período aberto (to = null)
+        AgendaUpdate update = appointmentService.deactivateDoctor(doctorId);
+
+        // Assert
+        assertThat(update.appointmentIds()).containsExactlyInAnyOrder(soon.getId(), later.getId());
+        assertThat(appointmentRepository.findById(soon.getId()).orElseThrow().getStatus())
+                .isEqualTo(AppointmentStatus.CANCELLED);
+        assertThat(appointmentRepository.findById(later.getId()).orElseThrow().getStatus())
+                .isEqualTo(AppointmentStatus.CANCELLED);
+    }
+
+    // --- Helpers de Teste ---
+
+    private Appointment agendar(UUID patientId, OffsetDateTime startAt, OffsetDateTime endAt) {
+        return appointmentService.createAppointment(patientId, doctorId, nurseId, startAt, endAt);
+    }
+
+    private void authenticateAs(String username) {
+        User user = userRepository.findByLogin(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        UsernamePasswordAuthenticationToken auth =
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    private String criarPaciente(String suffix) {
+        String unique = "pa" + suffix + System.nanoTime();
+        String mutation = """
+            mutation {
+                createPatient(input: {
+                    name: "Pacient Agenda Test"
+                    email: "%s@flow.com"
+                    login: "%s"
+                    password: "123"
+                }) { id }
+            }
+            """.formatted(unique, unique);
+        return graphQlTester.document(mutation).execute().path("createPatient.id").entity(String.class).get();
+    }
+
+    private String criarMedico() {
+        String unique = "da" + System.nanoTime();
+        String mutation = """
+            mutation {
+                createDoctor(input: {
+                    name: "Doctor Agenda Test"
+                    email: "%s@flow.com"
+                    login: "%s"
+                    password: "123"
+                    crm: "CRM %s"
+                    specialty: "Geral"
+                }) { id }
+            }
+            """.formatted(unique, unique, unique);
+        return graphQlTester.document(mutation).execute().path("createDoctor.id").entity(String.class).get();
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.fiap.clinic.scheduler.integration;
+
+import br.com.fiap.clinic.outbox.jdbc.OutboxPartitionMaintenance;
+import br.com.fiap.clinic.scheduler.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes de Integração - Partições do Outbox")
+class OutboxPartitionFlowTest extends AbstractIntegrationTest {
+
+    // Meses longe de hoje, para não cruzar com as partições criadas pela migration e pela manutenção
+    private static final String FUTURE_PARTITION = "outbox_events_p209901";
+    private static final String PAST_PARTITION = "outbox_events_p200101";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxPartitionMaintenance outboxPartitionMaintenance;
+
+    @AfterEach
+    void tearDown() {
+        for (String partition : new String[]{FUTURE_PARTITION, PAST_PARTITION}) {
+            if (exists(partition)) {
+                jdbcTemplate.execute("ALTER TABLE outbox_events DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM outbox_events_default WHERE aggregate_type = 'PartitionTest'");
+    }
+
+    @Test
+    @DisplayName("Deve criar a partição do mês movendo os eventos que caíram na default")
+    void deveCriarParticaoMovendoEventosDaDefault() {
+        // Arrange
+        UUID pending = insertEvent(OffsetDateTime.of(2099, 1, 10, 12, 0, 0, 0, ZoneOffset.UTC), false);
+        UUID processed = insertEvent(OffsetDateTime.of(2099, 1, 20, 12, 0, 0, 0, ZoneOffset.UTC), true);
+        assertThat(countIn("outbox_events_default")).isEqualTo(2);
+
+        // Act
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT outbox_create_partitions(DATE '2099-01-01', DATE '2099-01-31')", Integer.class);
+
+        // Assert
+        assertThat(created).isEqualTo(1);
+        assertThat(countIn("outbox_events_default")).isZero();
+        assertThat(countIn(FUTURE_PARTITION)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT processed FROM outbox_events WHERE id = ?", Boolean.class, pending)).isFalse();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT processed FROM outbox_events WHERE id = ?", Boolean.class, processed)).isTrue();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_inherits WHERE inhparent = 'outbox_events'::regclass"
+                        + " AND inhrelid = 'outbox_events_default'::regclass", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve descartar na manutenção a partição encerrada e totalmente processada")
+    void deveDescartarParticaoEncerradaEProcessada() {
+        // Arrange
+        jdbcTemplate.queryForObject("SELECT outbox_create_partitions(DATE '2001-01-01', DATE '2001-01-31')", Integer.class);
+        insertEvent(OffsetDateTime.of(2001, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC), true);
+        assertThat(countIn(PAST_PARTITION)).isEqualTo(1);
+
+        // Act
+        outboxPartitionMaintenance.maintainPartitions();
+
+        // Assert
+        assertThat(exists(PAST_PARTITION)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve manter na manutenção a partição encerrada com evento pendente")
+    void deveManterParticaoComEventoPendente() {
+        // Arrange
+        jdbcTemplate.queryForObject("SELECT outbox_create_partitions(DATE '2001-01-01', DATE '2001-01-31')", Integer.class);
+        insertEvent(OffsetDateTime.of(2001, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC), false);
+
+        // Act
+        outboxPartitionMaintenance.maintainPartitions();
+
+        // Assert
+        assertThat(exists(PAST_PARTITION)).isTrue();
+        assertThat(countIn(PAST_PARTITION)).isEqualTo(1);
+    }
+
+    // Pendentes entram estacionados, para o relay da aplicação não publicá-los durante o teste
+    private UUID insertEvent(OffsetDateTime createdAt, boolean processed) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, processed, parked_at, created_at)"
+                        + " VALUES (?, 'PartitionTest', ?, 'PartitionTested', ?, ?, CASE WHEN ? THEN NULL ELSE now() END, ?)",
+                id, id.toString(), "{}".getBytes(StandardCharsets.UTF_8), processed, processed, createdAt);
+        return id;
+    }
+
+    private int countIn(String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM " + table + " WHERE aggregate_type = 'PartitionTest'", Integer.class);
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+}
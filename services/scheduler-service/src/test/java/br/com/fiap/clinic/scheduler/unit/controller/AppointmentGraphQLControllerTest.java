@@ -0,0 +1,213 @@
+package br.com.fiap.clinic.scheduler.unit.controller;
+
+import br.com.fiap.clinic.scheduler.controller.graphql.AppointmentGraphQLController;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentBatchResult;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentRequest;
+import br.com.fiap.clinic.scheduler.domain.entity.Appointment;
+import br.com.fiap.clinic.scheduler.domain.entity.AppointmentStatus;
+import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
+import br.com.fiap.clinic.scheduler.domain.entity.Nurse;
+import br.com.fiap.clinic.scheduler.domain.entity.Patient;
+import br.com.fiap.clinic.scheduler.domain.entity.User;
+import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentService;
+import br.com.fiap.clinic.scheduler.domain.service.AvailabilityService;
+import br.com.fiap.clinic.scheduler.domain.service.DoctorService;
+import br.com.fiap.clinic.scheduler.domain.service.PatientService;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.autoconfigure.graphql.GraphQlTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@GraphQlTest(AppointmentGraphQLController.class)
+@DisplayName("Testes Unitários - AppointmentGraphQLController")
+class AppointmentGraphQLControllerTest {
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @MockitoBean
+    private AppointmentService appointmentService;
+
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    @MockitoBean
+    private PatientService patientService;
+
+    @MockitoBean
+    private DoctorService doctorService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserCache userCache;
+
+    @Test
+    @DisplayName("Deve carregar paciente, médico e criador de todas as consultas com uma consulta por campo")
+    void deveCarregarAssociacoesEmLote() {
+        // Arrange
+        Patient patient = user(new Patient(), "Paciente");
+        Patient otherPatient = user(new Patient(), "Outro Paciente");
+        Doctor doctor = user(new Doctor(), "Dr. Teste");
+        Nurse nurse = user(new Nurse(), "Enfermeira");
+        List<Appointment> appointments = List.of(
+                appointment(patient, doctor, nurse),
+                appointment(otherPatient, doctor, nurse),
+                appointment(patient, doctor, doctor));
+
+        when(appointmentService.findByStatus(AppointmentStatus.SCHEDULED)).thenReturn(appointments);
+        when(patientService.findAllById(Set.of(patient.getId(), otherPatient.getId())))
+                .thenReturn(List.of(patient, otherPatient));
+        when(doctorService.findAllById(Set.of(doctor.getId()))).thenReturn(List.of(doctor));
+        when(userRepository.findAllById(Set.of(nurse.getId(), doctor.getId()))).thenReturn(List.of(nurse, doctor));
+
+        // Act
+        GraphQlTester.Response response = graphQlTester.document("""
+                        query {
+                          appointmentsByStatus(status: SCHEDULED) {
+                            patient { name }
+                            doctor { name }
+                            createdBy { name }
+                          }
+                        }
+                        """)
+                .execute();
+
+        // Assert
+        response.path("appointmentsByStatus[*].patient.name").entityList(String.class)
+                .containsExactly("Paciente", "Outro Paciente", "Paciente");
+        response.path("appointmentsByStatus[*].doctor.name").entityList(String.class)
+                .containsExactly("Dr. Teste", "Dr. Teste", "Dr. Teste");
+        response.path("appointmentsByStatus[*].createdBy.name").entityList(String.class)
+                .containsExactly("Enfermeira", "Enfermeira", "Dr. Teste");
+        verify(patientService, times(1)).findAllById(anyCollection());
+        verify(doctorService, times(1)).findAllById(anyCollection());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @WithMockUser(username = "enfermeira")
+    @DisplayName("Deve paginar consultas por cursor e retomar a partir do endCursor")
+    void devePaginarConsultasPorCursor() {
+        // Arrange
+        Patient patient = user(new Patient(), "Paciente");
+        Doctor doctor = user(new Doctor(), "Dr. Teste");
+        Nurse nurse = user(new Nurse(), "Enfermeira");
+        Appointment firstAppointment = appointment(patient, doctor, nurse);
+        Appointment secondAppointment = appointment(patient, doctor, nurse);
+        when(userCache.findByLogin("enfermeira")).thenReturn(Optional.of(nurse));
+        when(appointmentService.findAll(eq(nurse), any(KeysetScrollPosition.class), eq(1)))
+                .thenReturn(window(firstAppointment, true))
+                .thenReturn(window(secondAppointment, false));
+        String document = """
+                query($after: String) {
+                  appointmentsConnection(first: 1, after: $after) {
+                    edges { node { id } }
+                    pageInfo { hasNextPage endCursor }
+                  }
+                }
+                """;
+
+        // Act
+        GraphQlTester.Response firstPage = graphQlTester.document(document).execute();
+        String endCursor = firstPage.path("appointmentsConnection.pageInfo.endCursor").entity(String.class).get();
+        GraphQlTester.Response secondPage = graphQlTester.document(document).variable("after", endCursor).execute();
+
+        // Assert
+        firstPage.path("appointmentsConnection.edges[0].node.id").entity(String.class)
+                .isEqualTo(firstAppointment.getId().toString());
+        firstPage.path("appointmentsConnection.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(true);
+        secondPage.path("appointmentsConnection.edges[0].node.id").entity(String.class)
+                .isEqualTo(secondAppointment.getId().toString());
+        secondPage.path("appointmentsConnection.pageInfo.hasNextPage").entity(Boolean.class).isEqualTo(false);
+
+        ArgumentCaptor<KeysetScrollPosition> positions = ArgumentCaptor.forClass(KeysetScrollPosition.class);
+        verify(appointmentService, times(2)).findAll(eq(nurse), positions.capture(), eq(1));
+        assertThat(positions.getAllValues().get(0).isInitial()).isTrue();
+        assertThat(positions.getAllValues().get(1).getKeys())
+                .containsEntry("id", firstAppointment.getId().toString());
+    }
+
+    @Test
+    @WithMockUser(username = "enfermeira", roles = "nurse")
+    @DisplayName("Deve rejeitar só o item mal formatado do lote, mantendo a posição dos demais")
+    void deveRejeitarSoItemMalFormatadoDoLote() {
+        // Arrange
+        Nurse nurse = user(new Nurse(), "Enfermeira");
+        when(userCache.findByLogin("enfermeira")).thenReturn(Optional.of(nurse));
+        when(appointmentService.createAppointments(anyList(), eq(nurse.getId()))).thenReturn(List.of(
+                AppointmentBatchResult.rejected(0, "Médico já possui consulta agendada neste horário"),
+                AppointmentBatchResult.rejected(1, "Paciente já possui consulta agendada neste horário")));
+        String item = "{ patientId: \"%s\", doctorId: \"%s\", startAt: \"2030-01-07T10:00:00-03:00\", endAt: \"2030-01-07T11:00:00-03:00\" }";
+        String document = "mutation { createAppointments(inputs: [%s, %s, %s]) { index error } }".formatted(
+                item.formatted(UUID.randomUUID(), UUID.randomUUID()),
+                item.formatted("nao-e-uuid", UUID.randomUUID()),
+                item.formatted(UUID.randomUUID(), UUID.randomUUID()));
+
+        // Act
+        GraphQlTester.Response response = graphQlTester.document(document).execute();
+
+        // Assert
+        response.path("createAppointments[0].error").entity(String.class)
+                .isEqualTo("Médico já possui consulta agendada neste horário");
+        response.path("createAppointments[1].index").entity(Integer.class).isEqualTo(1);
+        response.path("createAppointments[1].error").entity(String.class)
+                .isEqualTo("ID do paciente inválido: nao-e-uuid");
+        response.path("createAppointments[2].index").entity(Integer.class).isEqualTo(2);
+        response.path("createAppointments[2].error").entity(String.class)
+                .isEqualTo("Paciente já possui consulta agendada neste horário");
+        ArgumentCaptor<List<AppointmentRequest>> requests = ArgumentCaptor.forClass(List.class);
+        verify(appointmentService).createAppointments(requests.capture(), eq(nurse.getId()));
+        assertThat(requests.getValue()).hasSize(2);
+    }
+
+    private static Window<Appointment> window(Appointment appointment, boolean hasNext) {
+        return Window.from(List.of(appointment), index -> ScrollPosition.forward(Map.of(
+                "key", appointment.getStartAt().toString(), "id", appointment.getId().toString())), hasNext);
+    }
+
+    private static <T extends User> T user(T user, String name) {
+        user.setId(UUID.randomUUID());
+        user.setName(name);
+        user.setLogin(name.toLowerCase());
+        return user;
+    }
+
+    private static Appointment appointment(Patient patient, Doctor doctor, User createdBy) {
+        Appointment appointment = new Appointment();
+        appointment.setId(UUID.randomUUID());
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setCreatedBy(createdBy);
+        appointment.setStartAt(OffsetDateTime.now().plusDays(1));
+        appointment.setEndAt(OffsetDateTime.now().plusDays(1).plusHours(1));
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        return appointment;
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.fiap.clinic.scheduler.unit.service;
+
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.dto.VersionedAppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.service.AppointmentConflictIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Testes Unitários - AppointmentConflictIndex")
+class AppointmentConflictIndexTest {
+
+    private static final OffsetDateTime TEN = OffsetDateTime.of(2030, 3, 4, 10, 0, 0, 0, ZoneOffset.ofHours(-3));
+
+    private AppointmentConflictIndex index;
+    private UUID doctorId;
+    private UUID patientId;
+
+    @BeforeEach
+    void setUp() {
+        index = new AppointmentConflictIndex();
+        doctorId = UUID.randomUUID();
+        patientId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Deve indicar possível conflito enquanto o índice não foi carregado")
+    void deveIndicarPossivelConflitoAntesDaCarga() {
+        // Act & Assert
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.mayConflictForDoctor(doctorId, TEN, TEN.plusHours(1), null)).isTrue();
+        assertThat(index.mayConflictForPatient(patientId, TEN, TEN.plusHours(1), null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve detectar sobreposição e liberar horários adjacentes")
+    void deveDetectarSobreposicao() {
+        // Arrange
+        VersionedAppointmentInterval existing = loaded(interval(UUID.randomUUID(), TEN, TEN.plusHours(1)), 0L);
+        index.rebuild(() -> List.of(existing));
+
+        // Act & Assert
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.plusMinutes(30), TEN.plusMinutes(90), null)).isTrue();
+        assertThat(index.mayConflictForPatient(patientId, TEN.minusMinutes(30), TEN.plusMinutes(10), null)).isTrue();
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.plusHours(1), TEN.plusHours(2), null)).isFalse();
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.minusHours(1), TEN, null)).isFalse();
+        assertThat(index.mayConflictForDoctor(UUID.randomUUID(), TEN, TEN.plusHours(1), null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve detectar consulta longa que começa bem antes do intervalo consultado")
+    void deveDetectarConsultaLongaQueComecaAntes() {
+        // Arrange
+        index.rebuild(() -> List.of(
+                loaded(interval(UUID.randomUUID(), TEN.minusHours(4), TEN.plusHours(2)), 0L),
+                loaded(interval(UUID.randomUUID(), TEN.minusMinutes(30), TEN.minusMinutes(15)), 0L)));
+
+        // Act & Assert
+        assertThat(index.mayConflictForDoctor(doctorId, TEN, TEN.plusMinutes(30), null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve desconsiderar a própria consulta no reagendamento")
+    void deveDesconsiderarPropriaConsulta() {
+        // Arrange
+        UUID appointmentId = UUID.randomUUID();
+        index.rebuild(() -> List.of(loaded(interval(appointmentId, TEN, TEN.plusHours(1)), 0L)));
+
+        // Act & Assert
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.plusMinutes(30), TEN.plusMinutes(90), appointmentId))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve liberar o horário ao cancelar e mover o horário ao reagendar")
+    void deveAtualizarHorarioAoCancelarEReagendar() {
+        // Arrange
+        UUID appointmentId = UUID.randomUUID();
+        index.rebuild(List::of);
+        index.apply(interval(appointmentId, TEN, TEN.plusHours(1)), true, 1L);
+
+        // Act
+        index.apply(interval(appointmentId, TEN.plusHours(3), TEN.plusHours(4)), true, 2L);
+
+        // Assert
+        assertThat(index.mayConflictForDoctor(doctorId, TEN, TEN.plusHours(1), null)).isFalse();
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.plusHours(3), TEN.plusHours(4), null)).isTrue();
+
+        // Act
+        index.apply(interval(appointmentId, TEN.plusHours(3), TEN.plusHours(4)), false, 3L);
+
+        // Assert
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.plusHours(3), TEN.plusHours(4), null)).isFalse();
+        assertThat(index.mayConflictForPatient(patientId, TEN.plusHours(3), TEN.plusHours(4), null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar evento mais antigo que o estado indexado")
+    void deveIgnorarEventoAntigo() {
+        // Arrange
+        UUID appointmentId = UUID.randomUUID();
+        index.rebuild(List::of);
+        index.apply(interval(appointmentId, TEN, TEN.plusHours(1)), false, 2L);
+
+        // Act
+        index.apply(interval(appointmentId, TEN, TEN.plusHours(1)), true, 1L);
+
+        // Assert
+        assertThat(index.mayConflictForDoctor(doctorId, TEN, TEN.plusHours(1), null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar evento atrasado mais antigo que a versão carregada do banco")
+    void deveIgnorarEventoAtrasadoAposRecarga() {
+        // Arrange
+        UUID appointmentId = UUID.randomUUID();
+        index.rebuild(() -> List.of(loaded(interval(appointmentId, TEN.plusHours(3), TEN.plusHours(4)), 5L)));
+
+        // Act
+        // Reagendamento anterior, entregue depois da carga
+        index.apply(interval(appointmentId, TEN, TEN.plusHours(1)), true, 4L);
+
+        // Assert
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.plusHours(3), TEN.plusHours(4), null)).isTrue();
+        assertThat(index.mayConflictForDoctor(doctorId, TEN, TEN.plusHours(1), null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve reaplicar alterações recebidas durante a recarga")
+    void deveReaplicarAlteracoesDuranteRecarga() {
+        // Arrange
+        UUID cancelledId = UUID.randomUUID();
+        UUID createdId = UUID.randomUUID();
+
+        // Act
+        index.rebuild(() -> {
+            // Eventos processados enquanto o retrato do banco era lido
+            index.apply(interval(cancelledId, TEN, TEN.plusHours(1)), false, 3L);
+            index.apply(interval(createdId, TEN.plusHours(2), TEN.plusHours(3)), true, 3L);
+            return List.of(loaded(interval(cancelledId, TEN, TEN.plusHours(1)), 2L));
+        });
+
+        // Assert
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.mayConflictForDoctor(doctorId, TEN, TEN.plusHours(1), null)).isFalse();
+        assertThat(index.mayConflictForDoctor(doctorId, TEN.plusHours(2), TEN.plusHours(3), null)).isTrue();
+    }
+
+    private VersionedAppointmentInterval loaded(AppointmentInterval interval, long version) {
+        return new VersionedAppointmentInterval(interval, version);
+    }
+
+    private AppointmentInterval interval(UUID appointmentId, OffsetDateTime startAt, OffsetDateTime endAt) {
+        return new AppointmentInterval(appointmentId, doctorId, patientId, startAt, endAt);
+    }
+}
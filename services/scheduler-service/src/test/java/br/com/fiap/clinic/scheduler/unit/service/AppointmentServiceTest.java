@@ -1,5 +1,11 @@
 package br.com.fiap.clinic.scheduler.unit.service;
 
+import br.com.fiap.clinic.outbox.Outbox;
+import br.com.fiap.clinic.scheduler.domain.dto.AgendaChange;
+import br.com.fiap.clinic.scheduler.domain.dto.AgendaUpdate;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentBatchResult;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentRequest;
 import br.com.fiap.clinic.scheduler.domain.entity.*;
 import br.com.fiap.clinic.scheduler.domain.repository.*;
 import br.com.fiap.clinic.scheduler.domain.service.*;
@@ -11,10 +17,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +36,10 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +49,9 @@ class AppointmentServiceTest {
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private AppointmentBulkRepository appointmentBulkRepository;
+
     @Mock
     private PatientService patientService;
 
@@ -41,7 +62,7 @@ class AppointmentServiceTest {
     private UserService userService;
 
     @Mock
-    private OutboxEventRepository outboxEventRepository;
+    private Outbox outbox;
 
     @Mock
     private AppointmentHistoryRepository appointmentHistoryRepository;
@@ -49,6 +70,10 @@ class AppointmentServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    // Índice real, ainda não carregado: toda verificação de conflito vai ao repositório
+    @Spy
+    private AppointmentConflictIndex conflictIndex = new AppointmentConflictIndex();
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -241,6 +266,30 @@ class AppointmentServiceTest {
         verify(appointmentRepository).findByStatusAndIsActiveTrue(AppointmentStatus.SCHEDULED);
     }
 
+    @Test
+    @DisplayName("Deve paginar por cursor apenas as consultas do paciente logado")
+    void deveListarConsultasDoPacientePorCursor() {
+        // Arrange
+        Appointment next = new Appointment();
+        next.setId(UUID.randomUUID());
+        next.setStartAt(validStartTime.plusDays(1));
+        when(appointmentRepository.findPatientPage(patientId, Limit.of(2))).thenReturn(List.of(appointment, next));
+        when(appointmentRepository.findPatientPageAfter(eq(patientId), any(), eq(appointment.getId()), eq(Limit.of(2))))
+                .thenReturn(List.of(next));
+
+        // Act
+        Window<Appointment> first = appointmentService.findAll(patient, ScrollPosition.keyset(), 1);
+        Window<Appointment> second = appointmentService.findAll(patient, (KeysetScrollPosition) first.positionAt(0), 1);
+
+        // Assert
+        assertThat(first.getContent()).containsExactly(appointment);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).containsExactly(next);
+        verify(appointmentRepository).findPatientPageAfter(
+                eq(patientId), argThat(startAt -> startAt.isEqual(validStartTime)), eq(appointment.getId()), eq(Limit.of(2)));
+        verify(appointmentRepository, never()).findPage(any());
+    }
+
     // ==================== TESTES DE CRIAÇÃO ====================
 
     @Test
@@ -268,7 +317,7 @@ class AppointmentServiceTest {
         verify(userService).findById(userId);
         verify(appointmentRepository).save(any(Appointment.class));
         verify(appointmentHistoryRepository).save(any(AppointmentHistory.class));
-        verify(outboxEventRepository).save(any(OutboxEvent.class));
+        verify(outbox).append(eq("Appointment"), eq(appointment.getId().toString()), eq("AppointmentCreated"), any());
     }
 
     @Test
@@ -454,7 +503,7 @@ class AppointmentServiceTest {
         assertThat(confirmed.getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
         verify(appointmentRepository).save(any(Appointment.class));
         verify(appointmentHistoryRepository).save(any(AppointmentHistory.class));
-        verify(outboxEventRepository).save(any(OutboxEvent.class));
+        verify(outbox).append(eq("Appointment"), eq(appointment.getId().toString()), eq("AppointmentConfirmed"), any());
     }
 
     @Test
@@ -556,6 +605,239 @@ class AppointmentServiceTest {
                 .hasMessageContaining("Apenas consultas CONFIRMADAS podem ser finalizadas");
     }
 
+    @Test
+    @DisplayName("Deve dispensar consultas de conflito quando o índice garante horário livre")
+    void deveDispensarConsultasDeConflitoQuandoIndiceGaranteHorarioLivre() throws Exception {
+        // Arrange
+        conflictIndex.rebuild(List::of);
+        when(patientService.findById(patientId)).thenReturn(patient);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(userService.findById(userId)).thenReturn(nurse);
+        when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+
+        // Act
+        appointmentService.createAppointment(patientId, doctorId, userId, validStartTime, validEndTime);
+
+        // Assert
+        verify(appointmentRepository, never()).findDoctorConflictingAppointments(any(), any(), any());
+        verify(appointmentRepository, never()).findPatientConflictingAppointments(any(), any(), any());
+        assertThat(conflictIndex.mayConflictForDoctor(doctorId, validStartTime, validEndTime, null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve traduzir violação da constraint de sobreposição do médico em erro de negócio")
+    void deveTraduzirViolacaoDeSobreposicaoDoMedico() {
+        // Arrange
+        when(patientService.findById(patientId)).thenReturn(patient);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(userService.findById(userId)).thenReturn(nurse);
+        when(appointmentRepository.findDoctorConflictingAppointments(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(appointmentRepository.findPatientConflictingAppointments(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        // Outra requisição gravou o mesmo horário entre a verificação e o insert
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: conflicting key value violates exclusion constraint "
+                        + "\"appointments_doctor_no_overlap\"")))
+                .when(appointmentRepository).flush();
+
+        // Act & Assert
+        assertThatThrownBy(() -> appointmentService.createAppointment(
+                patientId, doctorId, userId, validStartTime, validEndTime))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Médico já possui consulta agendada neste horário");
+        verify(outbox, never()).append(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve propagar violação de integridade que não é de sobreposição")
+    void devePropagarOutraViolacaoDeIntegridade() {
+        // Arrange
+        when(patientService.findById(patientId)).thenReturn(patient);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(userService.findById(userId)).thenReturn(nurse);
+        when(appointmentRepository.findDoctorConflictingAppointments(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(appointmentRepository.findPatientConflictingAppointments(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        doThrow(new DataIntegrityViolationException("fk_violation")).when(appointmentRepository).flush();
+
+        // Act & Assert
+        assertThatThrownBy(() -> appointmentService.createAppointment(
+                patientId, doctorId, userId, validStartTime, validEndTime))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Deve criar lote validando conflitos com a agenda e entre itens com uma consulta por conjunto")
+    void deveCriarLoteComConflitosEmMemoria() throws Exception {
+        // Arrange
+        OffsetDateTime nextDay = addBusinessDays(validStartTime, 1);
+        List<AppointmentRequest> requests = List.of(
+                new AppointmentRequest(patientId, doctorId, validStartTime, validEndTime),
+                // sobrepõe o item 0 (mesmo médico e paciente)
+                new AppointmentRequest(patientId, doctorId, validStartTime.plusMinutes(30), validEndTime.plusMinutes(30)),
+                // sobrepõe consulta já gravada do médico
+                new AppointmentRequest(patientId, doctorId, nextDay, nextDay.plusHours(1)),
+                new AppointmentRequest(patientId, doctorId, validEndTime, validEndTime.plusMinutes(30)),
+                // fora do horário comercial
+                new AppointmentRequest(patientId, doctorId, validStartTime.withHour(19), validStartTime.withHour(20)));
+        when(userService.findById(userId)).thenReturn(nurse);
+        when(patientService.findAllById(any())).thenReturn(List.of(patient));
+        when(doctorService.findAllById(any())).thenReturn(List.of(doctor));
+        when(appointmentRepository.findDoctorsIntervals(any(), any(), any())).thenReturn(List.of(
+                new AppointmentInterval(UUID.randomUUID(), doctorId, UUID.randomUUID(),
+                        nextDay.plusMinutes(45), nextDay.plusMinutes(90))));
+        when(appointmentRepository.findPatientsIntervals(any(), any(), any())).thenReturn(List.of());
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Appointment> saved = invocation.getArgument(0);
+            saved.forEach(apt -> apt.setId(UUID.randomUUID()));
+            return saved;
+        });
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+
+        // Act
+        List<AppointmentBatchResult> results = appointmentService.createAppointments(requests, userId);
+
+        // Assert
+        assertThat(results).extracting(AppointmentBatchResult::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).appointment().getStartAt()).isEqualTo(validStartTime);
+        assertThat(results.get(1).error()).isEqualTo("Médico já possui consulta agendada neste horário");
+        assertThat(results.get(2).error()).isEqualTo("Médico já possui consulta agendada neste horário");
+        assertThat(results.get(3).appointment().getStartAt()).isEqualTo(validEndTime);
+        assertThat(results.get(4).error()).isEqualTo("Horário de início deve estar entre 8h e 18h");
+        verify(appointmentRepository, times(1)).findDoctorsIntervals(any(), any(), any());
+        verify(appointmentRepository, times(1)).findPatientsIntervals(any(), any(), any());
+        verify(appointmentRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(appointmentHistoryRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(outbox, times(1)).appendAll(argThat(events -> events.size() == 2));
+        verify(appointmentRepository, never()).save(any());
+        verify(outbox, never()).append(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar itens de paciente inexistente sem gravar nada")
+    void deveRejeitarItensDePacienteInexistente() {
+        // Arrange
+        UUID unknownPatientId = UUID.randomUUID();
+        when(userService.findById(userId)).thenReturn(nurse);
+        when(patientService.findAllById(any())).thenReturn(List.of());
+        when(doctorService.findAllById(any())).thenReturn(List.of(doctor));
+
+        // Act
+        List<AppointmentBatchResult> results = appointmentService.createAppointments(
+                List.of(new AppointmentRequest(unknownPatientId, doctorId, validStartTime, validEndTime)), userId);
+
+        // Assert
+        assertThat(results).singleElement()
+                .extracting(AppointmentBatchResult::error)
+                .isEqualTo("Paciente não encontrado com ID: " + unknownPatientId);
+        verify(appointmentRepository, never()).findDoctorsIntervals(any(), any(), any());
+        verify(appointmentRepository, never()).saveAll(any());
+        verify(outbox, never()).appendAll(any());
+    }
+
+    // ==================== TESTES DE AGENDA EM MASSA ====================
+
+    @Test
+    @DisplayName("Deve cancelar agenda do médico com um UPDATE e gravar histórico e eventos em lote")
+    void deveCancelarAgendaDoMedicoEmMassa() {
+        // Arrange
+        OffsetDateTime from = validStartTime.withHour(0);
+        OffsetDateTime to = from.plusDays(7);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentBulkRepository.cancelDoctorAgenda(doctorId, from, to)).thenReturn(List.of(
+                agendaChange(validStartTime, AppointmentStatus.CANCELLED),
+                agendaChange(validEndTime, AppointmentStatus.CANCELLED)));
+
+        // Act
+        AgendaUpdate update = appointmentService.cancelDoctorAgenda(doctorId, from, to);
+
+        // Assert
+        assertThat(update.count()).isEqualTo(2);
+        verify(appointmentHistoryRepository).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(outbox).appendAll(argThat(events -> events.size() == 2
+                && events.stream().allMatch(event -> event.eventType().equals("AppointmentCancelled"))));
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar deslocamento de agenda que leva consulta para fora do horário comercial")
+    void deveRejeitarDeslocamentoForaDoHorarioComercial() {
+        // Arrange
+        OffsetDateTime from = validStartTime.withHour(0);
+        OffsetDateTime to = from.plusDays(1);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentBulkRepository.shiftDoctorAgenda(doctorId, from, to, 480)).thenReturn(List.of(
+                agendaChange(validStartTime.plusHours(8), AppointmentStatus.RESCHEDULED)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> appointmentService.rescheduleDoctorAgenda(doctorId, from, to, 480))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Horário de início deve estar entre 8h e 18h");
+        verify(outbox, never()).appendAll(any());
+    }
+
+    @Test
+    @DisplayName("Deve validar o deslocamento de agenda no fuso de quem chamou, não no UTC do banco")
+    void deveValidarDeslocamentoNoFusoDeQuemChamou() {
+        // Arrange
+        ZoneOffset brt = ZoneOffset.ofHours(-3);
+        OffsetDateTime from = validStartTime.withOffsetSameLocal(brt).withHour(0);
+        OffsetDateTime to = from.plusDays(1);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        // 16h-03 (19h UTC) está no horário comercial; 6h-03 (9h UTC) não
+        when(appointmentBulkRepository.shiftDoctorAgenda(doctorId, from, to, 60)).thenReturn(List.of(
+                agendaChange(from.withHour(16).withOffsetSameInstant(ZoneOffset.UTC), AppointmentStatus.RESCHEDULED)));
+        when(appointmentBulkRepository.shiftDoctorAgenda(doctorId, from, to, -60)).thenReturn(List.of(
+                agendaChange(from.withHour(6).withOffsetSameInstant(ZoneOffset.UTC), AppointmentStatus.RESCHEDULED)));
+
+        // Act
+        AgendaUpdate update = appointmentService.rescheduleDoctorAgenda(doctorId, from, to, 60);
+
+        // Assert
+        assertThat(update.count()).isEqualTo(1);
+        assertThatThrownBy(() -> appointmentService.rescheduleDoctorAgenda(doctorId, from, to, -60))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Horário de início deve estar entre 8h e 18h");
+    }
+
+    @Test
+    @DisplayName("Deve traduzir sobreposição no deslocamento de agenda em erro de negócio")
+    void deveTraduzirSobreposicaoNoDeslocamentoDeAgenda() {
+        // Arrange
+        OffsetDateTime from = validStartTime.withHour(0);
+        OffsetDateTime to = from.plusDays(1);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentBulkRepository.shiftDoctorAgenda(doctorId, from, to, 30)).thenThrow(
+                new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("ERROR: conflicting key value violates exclusion constraint "
+                                + "\"appointments_patient_no_overlap\"")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> appointmentService.rescheduleDoctorAgenda(doctorId, from, to, 30))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Paciente já possui consulta agendada em um dos novos horários");
+    }
+
+    @Test
+    @DisplayName("Deve cancelar consultas futuras ao desativar médico")
+    void deveCancelarConsultasFuturasAoDesativarMedico() {
+        // Arrange
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentBulkRepository.cancelDoctorAgenda(eq(doctorId), any(), isNull())).thenReturn(List.of(
+                agendaChange(validStartTime, AppointmentStatus.CANCELLED)));
+
+        // Act
+        AgendaUpdate update = appointmentService.deactivateDoctor(doctorId);
+
+        // Assert
+        assertThat(update.count()).isEqualTo(1);
+        verify(doctorService).deactivate(doctorId);
+        verify(outbox).appendAll(argThat(events -> events.size() == 1));
+    }
+
     // ==================== TESTES DE REAGENDAMENTO ====================
 
     @Test
@@ -586,6 +868,29 @@ class AppointmentServiceTest {
         verify(appointmentRepository).save(any(Appointment.class));
     }
 
+    @Test
+    @DisplayName("Deve traduzir violação da constraint de sobreposição do paciente ao reagendar")
+    void deveTraduzirViolacaoDeSobreposicaoDoPacienteAoReagendar() {
+        // Arrange
+        OffsetDateTime newStart = addBusinessDays(getNextBusinessDay(), 2).withHour(14).withMinute(0);
+        OffsetDateTime newEnd = newStart.plusHours(1);
+
+        when(appointmentRepository.findById(appointment.getId())).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.findDoctorConflictingAppointments(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(appointmentRepository.findPatientConflictingAppointments(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: conflicting key value violates exclusion constraint "
+                        + "\"appointments_patient_no_overlap\"")))
+                .when(appointmentRepository).flush();
+
+        // Act & Assert
+        assertThatThrownBy(() -> appointmentService.rescheduleAppointment(appointment.getId(), newStart, newEnd))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Paciente já possui consulta agendada no novo horário");
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao reagendar agendamento cancelado")
     void deveLancarExcecaoAoReagendarAgendamentoCancelado() {
@@ -602,5 +907,9 @@ class AppointmentServiceTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Não é possível reagendar consultas realizadas ou canceladas");
     }
-}
 
+    private AgendaChange agendaChange(OffsetDateTime startAt, AppointmentStatus status) {
+        return new AgendaChange(UUID.randomUUID(), patientId, patient.getName(), patient.getEmail(),
+                startAt, startAt.plusHours(1), status, 1L);
+    }
+}
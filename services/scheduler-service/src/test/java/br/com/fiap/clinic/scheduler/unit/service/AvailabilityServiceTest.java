@@ -0,0 +1,216 @@
+package br.com.fiap.clinic.scheduler.unit.service;
+
+import br.com.fiap.clinic.scheduler.domain.dto.AppointmentInterval;
+import br.com.fiap.clinic.scheduler.domain.dto.DoctorSlot;
+import br.com.fiap.clinic.scheduler.domain.dto.TimeSlot;
+import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
+import br.com.fiap.clinic.scheduler.domain.repository.AppointmentRepository;
+import br.com.fiap.clinic.scheduler.domain.repository.DoctorRepository;
+import br.com.fiap.clinic.scheduler.domain.service.AvailabilityService;
+import br.com.fiap.clinic.scheduler.domain.service.DoctorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - AvailabilityService")
+class AvailabilityServiceTest {
+
+    private static final ZoneOffset BRT = ZoneOffset.ofHours(-3);
+    // Segunda-feira
+    private static final OffsetDateTime MONDAY = OffsetDateTime.of(2030, 3, 4, 0, 0, 0, 0, BRT);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private UUID doctorId;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctorId = UUID.randomUUID();
+        doctor = new Doctor();
+        doctor.setId(doctorId);
+        doctor.setActive(true);
+    }
+
+    @Test
+    @DisplayName("Deve oferecer o dia inteiro em horário comercial quando a agenda está vazia")
+    void deveOferecerDiaInteiroComAgendaVazia() {
+        // Arrange
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentRepository.findDoctorIntervals(eq(doctorId), any(), any())).thenReturn(List.of());
+
+        // Act
+        List<TimeSlot> slots = availabilityService.findAvailableSlots(doctorId, MONDAY, MONDAY.plusDays(1), 60);
+
+        // Assert
+        assertThat(slots).hasSize(10);
+        assertThat(slots.get(0)).isEqualTo(new TimeSlot(at(MONDAY, 8, 0), at(MONDAY, 9, 0)));
+        assertThat(slots.get(9)).isEqualTo(new TimeSlot(at(MONDAY, 17, 0), at(MONDAY, 18, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve pular consultas ocupadas e retomar na grade de 15 minutos")
+    void devePularConsultasOcupadas() {
+        // Arrange
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentRepository.findDoctorIntervals(eq(doctorId), any(), any())).thenReturn(List.of(
+                busy(at(MONDAY, 9, 10), at(MONDAY, 10, 5))));
+
+        // Act
+        List<TimeSlot> slots = availabilityService.findAvailableSlots(doctorId, MONDAY, MONDAY.plusDays(1), 60);
+
+        // Assert
+        assertThat(slots).extracting(TimeSlot::startAt).containsExactly(
+                at(MONDAY, 8, 0), at(MONDAY, 10, 15), at(MONDAY, 11, 15), at(MONDAY, 12, 15),
+                at(MONDAY, 13, 15), at(MONDAY, 14, 15), at(MONDAY, 15, 15), at(MONDAY, 16, 15));
+    }
+
+    @Test
+    @DisplayName("Deve considerar consulta longa que cobre consultas menores")
+    void deveConsiderarConsultaLongaQueCobreMenores() {
+        // Arrange
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentRepository.findDoctorIntervals(eq(doctorId), any(), any())).thenReturn(List.of(
+                busy(at(MONDAY, 8, 0), at(MONDAY, 12, 0)),
+                busy(at(MONDAY, 9, 0), at(MONDAY, 9, 30))));
+
+        // Act
+        List<TimeSlot> slots = availabilityService.findAvailableSlots(doctorId, MONDAY, MONDAY.plusDays(1), 120);
+
+        // Assert
+        assertThat(slots).extracting(TimeSlot::startAt).containsExactly(
+                at(MONDAY, 12, 0), at(MONDAY, 14, 0), at(MONDAY, 16, 0));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar fim de semana")
+    void deveIgnorarFimDeSemana() {
+        // Arrange
+        OffsetDateTime saturday = MONDAY.minusDays(2);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+        when(appointmentRepository.findDoctorIntervals(eq(doctorId), any(), any())).thenReturn(List.of());
+
+        // Act
+        List<TimeSlot> slots = availabilityService.findAvailableSlots(doctorId, saturday, at(MONDAY, 10, 0), 60);
+
+        // Assert
+        assertThat(slots).extracting(TimeSlot::startAt).containsExactly(at(MONDAY, 8, 0), at(MONDAY, 9, 0));
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio para médico inativo sem consultar a agenda")
+    void deveRetornarVazioParaMedicoInativo() {
+        // Arrange
+        doctor.setActive(false);
+        when(doctorService.findById(doctorId)).thenReturn(doctor);
+
+        // Act
+        List<TimeSlot> slots = availabilityService.findAvailableSlots(doctorId, MONDAY, MONDAY.plusDays(1), 60);
+
+        // Assert
+        assertThat(slots).isEmpty();
+        verify(appointmentRepository, never()).findDoctorIntervals(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar duração fora dos limites e período longo demais")
+    void deveRejeitarParametrosInvalidos() {
+        // Act & Assert
+        assertThatThrownBy(() -> availabilityService.findAvailableSlots(doctorId, MONDAY, MONDAY.plusDays(1), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duração mínima da consulta é 15 minutos");
+        assertThatThrownBy(() -> availabilityService.findAvailableSlots(doctorId, MONDAY, MONDAY.plusDays(1), 300))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duração máxima da consulta é 4 horas");
+        assertThatThrownBy(() -> availabilityService.findAvailableSlots(doctorId, MONDAY, MONDAY.plusDays(40), 60))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(doctorService, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve ordenar médicos da especialidade pelo primeiro horário livre com uma única carga de agenda")
+    void deveOrdenarMedicosPeloPrimeiroHorarioLivre() {
+        // Arrange
+        Doctor busyDoctor = doctor("Dra. Ocupada");
+        Doctor freeDoctor = doctor("Dr. Livre");
+        Doctor lateDoctor = doctor("Dr. Tarde");
+        when(doctorRepository.findActiveBySpecialty("cardiologia")).thenReturn(List.of(busyDoctor, freeDoctor, lateDoctor));
+        when(appointmentRepository.findDoctorsIntervals(any(), any(), any())).thenReturn(List.of(
+                busy(busyDoctor, at(MONDAY, 8, 0), at(MONDAY, 9, 30)),
+                busy(lateDoctor, at(MONDAY, 8, 0), at(MONDAY, 17, 30))));
+
+        // Act
+        List<DoctorSlot> slots = availabilityService.findEarliestAvailableDoctors(
+                "cardiologia", MONDAY, MONDAY.plusDays(1), 30, 2);
+
+        // Assert
+        assertThat(slots).extracting(DoctorSlot::doctor).containsExactly(freeDoctor, busyDoctor);
+        assertThat(slots).extracting(DoctorSlot::startAt).containsExactly(at(MONDAY, 8, 0), at(MONDAY, 9, 30));
+        verify(appointmentRepository, times(1)).findDoctorsIntervals(
+                eq(List.of(busyDoctor.getId(), freeDoctor.getId(), lateDoctor.getId())), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio sem carregar agenda quando não há médicos da especialidade")
+    void deveRetornarVazioSemMedicosDaEspecialidade() {
+        // Arrange
+        when(doctorRepository.findActiveBySpecialty("dermatologia")).thenReturn(List.of());
+
+        // Act
+        List<DoctorSlot> slots = availabilityService.findEarliestAvailableDoctors(
+                "dermatologia", MONDAY, MONDAY.plusDays(1), 30, 5);
+
+        // Assert
+        assertThat(slots).isEmpty();
+        verify(appointmentRepository, never()).findDoctorsIntervals(any(), any(), any());
+    }
+
+    private Doctor doctor(String name) {
+        Doctor candidate = new Doctor();
+        candidate.setId(UUID.randomUUID());
+        candidate.setName(name);
+        candidate.setActive(true);
+        return candidate;
+    }
+
+    private AppointmentInterval busy(Doctor owner, OffsetDateTime startAt, OffsetDateTime endAt) {
+        return new AppointmentInterval(UUID.randomUUID(), owner.getId(), UUID.randomUUID(), startAt, endAt);
+    }
+
+    private AppointmentInterval busy(OffsetDateTime startAt, OffsetDateTime endAt) {
+        return new AppointmentInterval(UUID.randomUUID(), doctorId, UUID.randomUUID(), startAt, endAt);
+    }
+
+    private static OffsetDateTime at(OffsetDateTime day, int hour, int minute) {
+        return day.withHour(hour).withMinute(minute);
+    }
+}
@@ -4,6 +4,7 @@ import br.com.fiap.clinic.scheduler.domain.entity.Doctor;
 import br.com.fiap.clinic.scheduler.domain.entity.Role;
 import br.com.fiap.clinic.scheduler.domain.repository.DoctorRepository;
 import br.com.fiap.clinic.scheduler.domain.service.DoctorService;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
 import br.com.fiap.clinic.scheduler.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +33,9 @@ class DoctorServiceTest {
     @Mock
     private DoctorRepository doctorRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private DoctorService doctorService;
 
@@ -218,6 +222,7 @@ class DoctorServiceTest {
         // Assert
         verify(doctorRepository).findById(doctorId);
         verify(doctorRepository).save(doctor);
+        verify(userCache).invalidate(doctorId);
     }
 
     @Test
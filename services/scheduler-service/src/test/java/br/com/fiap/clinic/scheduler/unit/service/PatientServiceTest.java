@@ -4,6 +4,7 @@ import br.com.fiap.clinic.scheduler.domain.entity.Patient;
 import br.com.fiap.clinic.scheduler.domain.entity.Role;
 import br.com.fiap.clinic.scheduler.domain.repository.PatientRepository;
 import br.com.fiap.clinic.scheduler.domain.service.PatientService;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
 import br.com.fiap.clinic.scheduler.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,13 +13,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -33,6 +38,9 @@ class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private PatientService patientService;
 
@@ -123,6 +131,40 @@ class PatientServiceTest {
         verify(patientRepository).findAll(pageable);
     }
 
+    @Test
+    @DisplayName("Deve paginar pacientes por cursor usando nome e id da última linha")
+    void deveListarPacientesPorCursor() {
+        // Arrange
+        Patient patient2 = new Patient();
+        patient2.setId(UUID.randomUUID());
+        patient2.setName("Maria Santos");
+        when(patientRepository.findPage(2)).thenReturn(List.of(patient, patient2));
+        when(patientRepository.findPageAfter("João Silva", patientId, 2)).thenReturn(List.of(patient2));
+
+        // Act
+        Window<Patient> first = patientService.findAll(ScrollPosition.keyset(), 1);
+        Window<Patient> second = patientService.findAll((KeysetScrollPosition) first.positionAt(0), 1);
+
+        // Assert
+        assertThat(first.getContent()).containsExactly(patient);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).containsExactly(patient2);
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor adulterado")
+    void deveRejeitarCursorAdulterado() {
+        // Arrange
+        KeysetScrollPosition position = ScrollPosition.forward(Map.of("key", "João Silva", "id", "nao-e-uuid"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> patientService.findAll(position, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor inválido");
+        verifyNoInteractions(patientRepository);
+    }
+
     // ==================== TESTES DE CRIAÇÃO ====================
 
     @Test
@@ -215,6 +257,7 @@ class PatientServiceTest {
         // Assert
         verify(patientRepository).findById(patientId);
         verify(patientRepository).save(patient);
+        verify(userCache).invalidate(patientId);
         // O método deactivate deve ter chamado setActive(false) no paciente
     }
 
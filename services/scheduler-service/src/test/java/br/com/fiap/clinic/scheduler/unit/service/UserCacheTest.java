@@ -0,0 +1,151 @@
+package br.com.fiap.clinic.scheduler.unit.service;
+
+import br.com.fiap.clinic.scheduler.config.KafkaConfig;
+import br.com.fiap.clinic.scheduler.domain.entity.Role;
+import br.com.fiap.clinic.scheduler.domain.entity.User;
+import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes Unitários - UserCache")
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(userRepository, kafkaTemplate, 100, Duration.ofMinutes(10));
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setLogin("enfermeira.teste");
+        user.setRole(Role.nurse);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve buscar no banco só no primeiro acesso, por ID ou por login")
+    void deveBuscarNoBancoSoNoPrimeiroAcesso() {
+        // Arrange
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        // Act
+        userCache.findById(user.getId());
+        Optional<User> byId = userCache.findById(user.getId());
+        Optional<User> byLogin = userCache.findByLogin("enfermeira.teste");
+
+        // Assert
+        assertThat(byId).containsSame(user);
+        assertThat(byLogin).containsSame(user);
+        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).findByLogin(any());
+    }
+
+    @Test
+    @DisplayName("Deve remover ID e login antigo ao invalidar e avisar as outras réplicas")
+    void deveRemoverIdELoginAntigoAoInvalidar() {
+        // Arrange
+        when(userRepository.findByLogin("enfermeira.teste")).thenReturn(Optional.of(user));
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(new CompletableFuture<>());
+        userCache.findByLogin("enfermeira.teste");
+
+        // Act
+        userCache.invalidate(user.getId());
+
+        // Assert
+        assertThat(userCache.findByLogin("enfermeira.teste")).containsSame(user);
+        verify(userRepository, times(2)).findByLogin("enfermeira.teste");
+        verify(kafkaTemplate).send(KafkaConfig.USER_CACHE_TOPIC_NAME, user.getId().toString(), user.getId().toString());
+    }
+
+    @Test
+    @DisplayName("Não deve resolver pelo login antigo depois que o login mudou")
+    void naoDeveResolverPeloLoginAntigo() {
+        // Arrange
+        User renamed = new User();
+        renamed.setId(user.getId());
+        renamed.setLogin("enfermeira.nova");
+        renamed.setRole(Role.nurse);
+        when(userRepository.findByLogin("enfermeira.teste")).thenReturn(Optional.of(user), Optional.empty());
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(renamed));
+        userCache.findByLogin("enfermeira.teste");
+
+        // Act
+        userCache.evict(user.getId());
+        userCache.findById(user.getId());
+        Optional<User> byOldLogin = userCache.findByLogin("enfermeira.teste");
+
+        // Assert
+        assertThat(byOldLogin).isEmpty();
+        assertThat(userCache.findByLogin("enfermeira.nova")).containsSame(renamed);
+        verify(userRepository, times(2)).findByLogin("enfermeira.teste");
+        verify(userRepository, never()).findByLogin("enfermeira.nova");
+    }
+
+    @Test
+    @DisplayName("Deve avisar as outras réplicas somente após o commit")
+    void deveAvisarSomenteAposCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        userCache.invalidate(user.getId());
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        verify(kafkaTemplate).send(KafkaConfig.USER_CACHE_TOPIC_NAME, user.getId().toString(), user.getId().toString());
+    }
+
+    @Test
+    @DisplayName("Não deve avisar as outras réplicas em rollback")
+    void naoDeveAvisarEmRollback() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        userCache.invalidate(user.getId());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+}
@@ -3,6 +3,7 @@ package br.com.fiap.clinic.scheduler.unit.service;
 import br.com.fiap.clinic.scheduler.domain.entity.Role;
 import br.com.fiap.clinic.scheduler.domain.entity.User;
 import br.com.fiap.clinic.scheduler.domain.repository.UserRepository;
+import br.com.fiap.clinic.scheduler.domain.service.UserCache;
 import br.com.fiap.clinic.scheduler.domain.service.UserService;
 import br.com.fiap.clinic.scheduler.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +33,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -57,7 +61,7 @@ class UserServiceTest {
     @DisplayName("Deve encontrar usuário por ID")
     void deveBuscarUsuarioPorId() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userCache.findById(userId)).thenReturn(Optional.of(user));
 
         // Act
         User found = userService.findById(userId);
@@ -66,21 +70,21 @@ class UserServiceTest {
         assertThat(found).isNotNull();
         assertThat(found.getId()).isEqualTo(userId);
         assertThat(found.getName()).isEqualTo("Enfermeira Teste");
-        verify(userRepository).findById(userId);
+        verify(userCache).findById(userId);
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando usuário não encontrado por ID")
     void deveLancarExcecaoQuandoUsuarioNaoEncontradoPorId() {
         // Arrange
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userCache.findById(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.findById(userId))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Usuário não encontrado");
 
-        verify(userRepository).findById(userId);
+        verify(userCache).findById(userId);
     }
 
     // ==================== TESTES DE BUSCA POR LOGIN ====================
@@ -89,7 +93,7 @@ class UserServiceTest {
     @DisplayName("Deve encontrar usuário por login")
     void deveBuscarUsuarioPorLogin() {
         // Arrange
-        when(userRepository.findByLogin("enfermeira.teste")).thenReturn(Optional.of(user));
+        when(userCache.findByLogin("enfermeira.teste")).thenReturn(Optional.of(user));
 
         // Act
         User found = userService.findByLogin("enfermeira.teste");
@@ -97,21 +101,21 @@ class UserServiceTest {
         // Assert
         assertThat(found).isNotNull();
         assertThat(found.getLogin()).isEqualTo("enfermeira.teste");
-        verify(userRepository).findByLogin("enfermeira.teste");
+        verify(userCache).findByLogin("enfermeira.teste");
     }
 
     @Test
     @DisplayName("Deve lançar exceção quando usuário não encontrado por login")
     void deveLancarExcecaoQuandoUsuarioNaoEncontradoPorLogin() {
         // Arrange
-        when(userRepository.findByLogin("inexistente")).thenReturn(Optional.empty());
+        when(userCache.findByLogin("inexistente")).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.findByLogin("inexistente"))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Usuário não encontrado");
 
-        verify(userRepository).findByLogin("inexistente");
+        verify(userCache).findByLogin("inexistente");
     }
 
     // ==================== TESTES DE LISTAGEM ====================